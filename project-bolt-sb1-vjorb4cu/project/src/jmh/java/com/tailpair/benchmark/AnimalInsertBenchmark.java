@@ -0,0 +1,72 @@
+package com.tailpair.benchmark;
+
+import com.tailpair.entity.Animal;
+import com.tailpair.entity.Shelter;
+import com.tailpair.repository.AnimalRepository;
+import com.tailpair.repository.ShelterRepository;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Persisting a batch of animals through JPA, with JDBC batching off (0) and at the configured size (50).
+// Ids come from the pooled animals_seq, so batching only costs one sequence call per 50 rows.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AnimalInsertBenchmark {
+
+    private static final int ROWS_PER_TRANSACTION = 500;
+
+    @Param({"0", "50"})
+    private int jdbcBatchSize;
+
+    private ConfigurableApplicationContext context;
+    private AnimalRepository animalRepository;
+    private TransactionTemplate transaction;
+    private Shelter shelter;
+    private int sequence;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContext.start("tailpair-insert-benchmark",
+            "--spring.jpa.properties.hibernate.jdbc.batch_size=" + jdbcBatchSize);
+
+        animalRepository = context.getBean(AnimalRepository.class);
+        transaction = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        ShelterRepository shelterRepository = context.getBean(ShelterRepository.class);
+        shelter = transaction.execute(status -> shelterRepository.save(
+            new Shelter("Insert Benchmark Shelter", "1 Main Street", "City", "ST", "10000")));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS_PER_TRANSACTION)
+    public void saveAll() {
+        transaction.executeWithoutResult(status -> {
+            List<Animal> batch = new ArrayList<>(ROWS_PER_TRANSACTION);
+            for (int i = 0; i < ROWS_PER_TRANSACTION; i++) {
+                Animal animal = new Animal("Pet " + sequence++, Animal.Species.DOG, Animal.Gender.FEMALE,
+                    Animal.Size.MEDIUM, shelter);
+                animal.setBreed("Mixed");
+                animal.setAge(3);
+                animal.setAdoptionFee(BigDecimal.valueOf(120));
+                animal.getImageUrls().add("https://images.example.com/" + sequence + ".jpg");
+                batch.add(animal);
+            }
+            animalRepository.saveAll(batch);
+        });
+    }
+}
@@ -0,0 +1,172 @@
+package com.tailpair.benchmark;
+
+import com.tailpair.dto.AnimalSummaryDto;
+import com.tailpair.entity.Animal;
+import com.tailpair.entity.Shelter;
+import com.tailpair.repository.AnimalRepository;
+import com.tailpair.repository.ShelterRepository;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+// Main AnimalRepository queries against an in-memory H2 database (PostgreSQL mode) seeded once per fork.
+// The native full-text search needs PostgreSQL and is not covered here. The entity queries are kept as a
+// baseline for the AnimalSummaryDto projections the list endpoints use.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AnimalRepositoryBenchmark {
+
+    private static final int SEED_BATCH_SIZE = 1000;
+
+    private static final String[] BREEDS = {
+        "Labrador Retriever", "German Shepherd", "Beagle", "Poodle", "Siamese", "Maine Coon",
+        "Persian", "Holland Lop", "Cockatiel", "Mixed"
+    };
+
+    @Param({"200"})
+    private int shelters;
+
+    @Param({"20000"})
+    private int animals;
+
+    private ConfigurableApplicationContext context;
+    private AnimalRepository animalRepository;
+    private List<Long> shelterIds;
+    private Pageable firstPage;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContext.start("tailpair-repository-benchmark");
+
+        animalRepository = context.getBean(AnimalRepository.class);
+        firstPage = PageRequest.of(0, 20, Sort.by(Sort.Direction.DESC, "createdAt"));
+        seed(context.getBean(ShelterRepository.class), context.getBean(PlatformTransactionManager.class));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Page<Animal> findAvailableAnimals() {
+        return animalRepository.findAvailableAnimals(firstPage);
+    }
+
+    @Benchmark
+    public Slice<Animal> findAvailableAnimalsFeed() {
+        return animalRepository.findAvailableAnimalsFeed(PageRequest.of(0, 20));
+    }
+
+    @Benchmark
+    public Page<Animal> findAvailableAnimalsWithFilters() {
+        return animalRepository.findAvailableAnimalsWithFilters(
+            Animal.Species.DOG, null, Animal.Size.MEDIUM, null, 1, 8, true, null, null, firstPage);
+    }
+
+    @Benchmark
+    public Page<Animal> findAvailableAnimalsWithBreedFilter() {
+        return animalRepository.findAvailableAnimalsWithFilters(
+            null, "retriever", null, null, null, null, null, null, null, firstPage);
+    }
+
+    @Benchmark
+    public Page<Animal> searchAvailableAnimals() {
+        return animalRepository.searchAvailableAnimals("beagle", firstPage);
+    }
+
+    @Benchmark
+    public Page<AnimalSummaryDto> findAvailableAnimalSummaries() {
+        return animalRepository.findAvailableAnimalSummaries(firstPage);
+    }
+
+    @Benchmark
+    public Slice<AnimalSummaryDto> findAvailableAnimalSummariesFeed() {
+        return animalRepository.findAvailableAnimalSummariesFeed(PageRequest.of(0, 20));
+    }
+
+    @Benchmark
+    public Page<AnimalSummaryDto> findAvailableAnimalSummariesWithFilters() {
+        return animalRepository.findAvailableAnimalSummariesWithFilters(
+            Animal.Species.DOG, null, Animal.Size.MEDIUM, null, 1, 8, true, null, null, firstPage);
+    }
+
+    @Benchmark
+    public Page<AnimalSummaryDto> searchAvailableAnimalSummaries() {
+        return animalRepository.searchAvailableAnimalSummaries("beagle", firstPage);
+    }
+
+    @Benchmark
+    public List<Object[]> countAnimalsByShelterIds() {
+        return animalRepository.countAnimalsByShelterIds(shelterIds.subList(0, Math.min(20, shelterIds.size())));
+    }
+
+    @Benchmark
+    public List<Object[]> findAvailableFilterAttributes() {
+        return animalRepository.findAvailableFilterAttributes();
+    }
+
+    private void seed(ShelterRepository shelterRepository, PlatformTransactionManager transactionManager) {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        Random random = new Random(42);
+
+        List<Shelter> savedShelters = transaction.execute(status -> {
+            List<Shelter> batch = new ArrayList<>(shelters);
+            for (int i = 0; i < shelters; i++) {
+                Shelter shelter = new Shelter("Shelter " + i, i + " Main Street", "City " + (i % 50), "ST",
+                    String.format("%05d", 10000 + i));
+                shelter.setVerified(i % 3 != 0);
+                batch.add(shelter);
+            }
+            return shelterRepository.saveAll(batch);
+        });
+        shelterIds = savedShelters.stream().map(Shelter::getId).toList();
+
+        Animal.Species[] species = Animal.Species.values();
+        Animal.Size[] sizes = Animal.Size.values();
+        Animal.Gender[] genders = Animal.Gender.values();
+        Animal.Status[] statuses = Animal.Status.values();
+
+        for (int from = 0; from < animals; from += SEED_BATCH_SIZE) {
+            int to = Math.min(from + SEED_BATCH_SIZE, animals);
+            int offset = from;
+            transaction.executeWithoutResult(status -> {
+                List<Animal> batch = new ArrayList<>(to - offset);
+                for (int i = offset; i < to; i++) {
+                    // Roughly a quarter of the animals are no longer available, as in a live catalogue
+                    Animal animal = new Animal("Pet " + i,
+                        species[random.nextInt(species.length)],
+                        genders[random.nextInt(genders.length)],
+                        sizes[random.nextInt(sizes.length)],
+                        savedShelters.get(random.nextInt(savedShelters.size())));
+                    animal.setStatus(random.nextInt(4) == 0 ? statuses[1 + random.nextInt(3)] : Animal.Status.AVAILABLE);
+                    animal.setBreed(BREEDS[random.nextInt(BREEDS.length)]);
+                    animal.setAge(1 + random.nextInt(15));
+                    animal.setDescription("A lovely " + animal.getBreed() + " looking for a forever home.");
+                    animal.setGoodWithKids(random.nextBoolean());
+                    animal.setGoodWithPets(random.nextBoolean());
+                    animal.setHouseTrained(random.nextBoolean());
+                    animal.setAdoptionFee(BigDecimal.valueOf(50 + random.nextInt(250)));
+                    batch.add(animal);
+                }
+                animalRepository.saveAll(batch);
+            });
+        }
+    }
+}
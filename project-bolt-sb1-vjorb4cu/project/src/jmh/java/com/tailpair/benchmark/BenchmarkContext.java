@@ -0,0 +1,33 @@
+package com.tailpair.benchmark;
+
+import com.tailpair.TailpairApplication;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+// Boots the application without the web layer against an in-memory H2 database in PostgreSQL mode
+final class BenchmarkContext {
+
+    private BenchmarkContext() {
+    }
+
+    static ConfigurableApplicationContext start(String database, String... overrides) {
+        List<String> args = new ArrayList<>(List.of(
+            "--spring.main.web-application-type=none",
+            "--spring.datasource.url=jdbc:h2:mem:" + database + ";MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+            "--spring.datasource.driver-class-name=org.h2.Driver",
+            "--spring.datasource.username=sa",
+            "--spring.datasource.password=",
+            "--spring.flyway.enabled=false",
+            "--app.geo.zip-centroids-required=false",
+            "--spring.jpa.hibernate.ddl-auto=create-drop",
+            "--spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+            "--logging.level.com.tailpair=WARN",
+            "--logging.level.org.springframework.security=WARN"));
+        args.addAll(Arrays.asList(overrides));
+        return SpringApplication.run(TailpairApplication.class, args.toArray(String[]::new));
+    }
+}
@@ -0,0 +1,101 @@
+package com.tailpair.benchmark;
+
+import com.tailpair.dto.AdoptionDto;
+import com.tailpair.dto.AnimalDto;
+import com.tailpair.dto.ShelterDto;
+import com.tailpair.entity.Adoption;
+import com.tailpair.entity.Animal;
+import com.tailpair.entity.Shelter;
+import com.tailpair.entity.User;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+// Cost of turning fully loaded entities into the DTOs returned by the list endpoints
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DtoMappingBenchmark {
+
+    private static final int PAGE_SIZE = 20;
+
+    private Shelter shelter;
+    private Animal animal;
+    private Adoption adoption;
+    private List<Animal> page;
+
+    @Setup
+    public void setUp() {
+        User admin = user(1L, "shelter.admin");
+        User adopter = user(2L, "adopter");
+
+        shelter = new Shelter("Happy Tails", "12 Main Street", "Springfield", "IL", "62701");
+        shelter.setId(1L);
+        shelter.setAdmin(admin);
+
+        page = new ArrayList<>(PAGE_SIZE);
+        for (long id = 1; id <= PAGE_SIZE; id++) {
+            page.add(animal(id));
+        }
+        animal = page.get(0);
+
+        adoption = new Adoption(adopter, animal);
+        adoption.setId(1L);
+        adoption.setNotes("We have a fenced yard and another dog.");
+        adoption.setCreatedAt(LocalDateTime.now());
+    }
+
+    @Benchmark
+    public AnimalDto animalDto() {
+        return new AnimalDto(animal);
+    }
+
+    @Benchmark
+    public List<AnimalDto> animalDtoPage() {
+        return page.stream().map(AnimalDto::new).toList();
+    }
+
+    @Benchmark
+    public AdoptionDto adoptionDto() {
+        return new AdoptionDto(adoption);
+    }
+
+    @Benchmark
+    public ShelterDto shelterDto() {
+        return new ShelterDto(shelter, PAGE_SIZE);
+    }
+
+    private Animal animal(long id) {
+        Animal animal = new Animal("Buddy " + id, Animal.Species.DOG, Animal.Gender.MALE, Animal.Size.MEDIUM, shelter);
+        animal.setId(id);
+        animal.setBreed("Labrador Retriever");
+        animal.setAge(3);
+        animal.setWeight(new BigDecimal("28.50"));
+        animal.setColor("Yellow");
+        animal.setDescription("Friendly, energetic and loves long walks and playing fetch in the park.");
+        animal.setMedicalHistory("Up to date on all shots.");
+        animal.setVaccinated(true);
+        animal.setHouseTrained(true);
+        animal.setGoodWithKids(true);
+        animal.setAdoptionFee(new BigDecimal("150.00"));
+        animal.setImageUrls(Set.of("https://images.example.com/" + id + "/1.jpg",
+            "https://images.example.com/" + id + "/2.jpg"));
+        animal.setCreatedAt(LocalDateTime.now());
+        animal.setUpdatedAt(LocalDateTime.now());
+        return animal;
+    }
+
+    private User user(Long id, String username) {
+        User user = new User(username, username + "@example.com", "password", "Sam", "Taylor");
+        user.setId(id);
+        return user;
+    }
+}
@@ -0,0 +1,69 @@
+package com.tailpair.benchmark;
+
+import com.tailpair.security.JwtTokenProvider;
+import com.tailpair.security.UserPrincipal;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.util.ReflectionUtils;
+
+import java.lang.reflect.Field;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Token issue and per-request validation throughput of JwtTokenProvider
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtBenchmark {
+
+    // HS512 needs a key of at least 64 bytes
+    private static final String SECRET = "benchmark-secret-benchmark-secret-benchmark-secret-benchmark-secret";
+
+    private JwtTokenProvider tokenProvider;
+    private Authentication authentication;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        tokenProvider = new JwtTokenProvider();
+        setField("jwtSecret", SECRET);
+        setField("jwtExpirationInMs", 86400000);
+
+        UserPrincipal principal = new UserPrincipal(42L, "adopter", "adopter@example.com", "password",
+            List.of(new SimpleGrantedAuthority("ROLE_ADOPTER")), true);
+        authentication = new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities());
+        token = tokenProvider.generateToken(authentication);
+    }
+
+    @Benchmark
+    public String generateToken() {
+        return tokenProvider.generateToken(authentication);
+    }
+
+    @Benchmark
+    public boolean validateToken() {
+        return tokenProvider.validateToken(token);
+    }
+
+    @Benchmark
+    public Long getUserIdFromToken() {
+        return tokenProvider.getUserIdFromToken(token);
+    }
+
+    // The single-parse path used by JwtAuthenticationFilter
+    @Benchmark
+    public Long getUserIdFromValidToken() {
+        return tokenProvider.getUserIdFromValidToken(token);
+    }
+
+    private void setField(String name, Object value) {
+        Field field = ReflectionUtils.findField(JwtTokenProvider.class, name);
+        ReflectionUtils.makeAccessible(field);
+        ReflectionUtils.setField(field, tokenProvider, value);
+    }
+}
@@ -0,0 +1,98 @@
+package com.tailpair.benchmark;
+
+import com.tailpair.service.GeoGrid;
+import com.tailpair.service.GeoPoint;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+// Radius and nearest-N shelter lookups on the GeoGrid behind ShelterGeoIndex, against a linear scan
+// over the same primitive arrays. Shelters and query origins are spread uniformly over the
+// contiguous US, which is a worst case for the grid compared with real, clustered shelters.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ShelterGeoIndexBenchmark {
+
+    private static final int ORIGINS = 1024;
+
+    @Param({"100000"})
+    private int shelters;
+
+    @Param({"0.25"})
+    private double cellDegrees;
+
+    private GeoGrid grid;
+    private float[] latitudes;
+    private float[] longitudes;
+    private double[][] origins;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Random random = new Random(42);
+        long[] ids = new long[shelters];
+        latitudes = new float[shelters];
+        longitudes = new float[shelters];
+        for (int i = 0; i < shelters; i++) {
+            ids[i] = i + 1;
+            latitudes[i] = (float) (25 + random.nextDouble() * 24);
+            longitudes[i] = (float) (-124 + random.nextDouble() * 57);
+        }
+        grid = GeoGrid.build(ids, latitudes, longitudes, shelters, cellDegrees);
+
+        origins = new double[ORIGINS][];
+        for (int i = 0; i < ORIGINS; i++) {
+            origins[i] = new double[] { 25 + random.nextDouble() * 24, -124 + random.nextDouble() * 57 };
+        }
+    }
+
+    @Benchmark
+    public List<GeoGrid.Hit> gridWithin25Miles() {
+        double[] origin = nextOrigin();
+        return grid.within(origin[0], origin[1], 25);
+    }
+
+    @Benchmark
+    public List<GeoGrid.Hit> gridWithin100Miles() {
+        double[] origin = nextOrigin();
+        return grid.within(origin[0], origin[1], 100);
+    }
+
+    @Benchmark
+    public List<GeoGrid.Hit> gridNearest10() {
+        double[] origin = nextOrigin();
+        return grid.nearest(origin[0], origin[1], 10, 500);
+    }
+
+    @Benchmark
+    public List<double[]> linearScanWithin25Miles() {
+        double[] origin = nextOrigin();
+        List<double[]> hits = new ArrayList<>();
+        for (int i = 0; i < shelters; i++) {
+            double distance = GeoPoint.distanceMiles(origin[0], origin[1], latitudes[i], longitudes[i]);
+            if (distance <= 25) {
+                hits.add(new double[] { i, distance });
+            }
+        }
+        hits.sort(Comparator.comparingDouble(hit -> hit[1]));
+        return hits;
+    }
+
+    @Benchmark
+    public GeoGrid rebuild() {
+        return grid.update(1, 40.0, -100.0);
+    }
+
+    private double[] nextOrigin() {
+        next = (next + 1) & (ORIGINS - 1);
+        return origins[next];
+    }
+}
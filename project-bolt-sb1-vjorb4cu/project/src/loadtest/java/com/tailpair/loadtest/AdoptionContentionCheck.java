@@ -0,0 +1,197 @@
+package com.tailpair.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+// Stress check for the adoption state machine at high contention, run against an instance seeded by
+// SyntheticDataGenerator. For each of a shelter's available animals, every adopter requests it at the same
+// instant; exactly one request may succeed. The winning request is then approved and rejected at once, and if
+// approved, completed and cancelled at once; each time exactly one may succeed, and the animal's status must
+// end up matching the adoption's. Exits with status 1 on any violation. Consumes the animals it runs on.
+// Settings: loadtest.base-url, loadtest.prefix, loadtest.password, loadtest.contention.adopters,
+// loadtest.contention.animals and loadtest.contention.shelter (index of the seeded shelter admin).
+public class AdoptionContentionCheck {
+
+    private static final int RACERS_PER_TRANSITION = 4;
+
+    private final HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(5)).build();
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private final String baseUrl = System.getProperty("loadtest.base-url", "http://localhost:8080");
+    private final String prefix = System.getProperty("loadtest.prefix", "loadtest");
+    private final String password = System.getProperty("loadtest.password", "loadtest-password");
+    private final int adopters = Integer.getInteger("loadtest.contention.adopters", 64);
+    private final int animals = Integer.getInteger("loadtest.contention.animals", 10);
+    private final int shelterIndex = Integer.getInteger("loadtest.contention.shelter", 0);
+
+    private final List<String> adopterTokens = new ArrayList<>();
+    private final List<String> violations = new ArrayList<>();
+    private ExecutorService racers;
+
+    public static void main(String[] args) throws Exception {
+        boolean passed = new AdoptionContentionCheck().run();
+        System.exit(passed ? 0 : 1);
+    }
+
+    public boolean run() throws Exception {
+        for (int i = 0; i < adopters; i++) {
+            adopterTokens.add(login(prefix + "-user-" + i).path("token").asText());
+        }
+        JsonNode admin = login(prefix + "-shelter-" + shelterIndex);
+        String adminToken = admin.path("token").asText();
+        long shelterId = get("/api/shelters/admin/" + admin.path("user").path("id").asLong(), adminToken).path("id").asLong();
+
+        List<Long> animalIds = new ArrayList<>();
+        for (JsonNode animal : get("/api/animals/shelter/" + shelterId + "/all", adminToken)) {
+            if ("AVAILABLE".equals(animal.path("status").asText()) && animalIds.size() < animals) {
+                animalIds.add(animal.path("id").asLong());
+            }
+        }
+        if (animalIds.isEmpty()) {
+            throw new IllegalStateException("Shelter " + shelterId + " has no available animals; seed more data or pick another shelter");
+        }
+
+        racers = Executors.newFixedThreadPool(Math.max(adopters, 2 * RACERS_PER_TRANSITION));
+        try {
+            for (Long animalId : animalIds) {
+                check(animalId, shelterId, adminToken);
+            }
+        } finally {
+            racers.shutdownNow();
+        }
+
+        System.out.printf("%d animals, %d adopters per animal: %d violations%n", animalIds.size(), adopters, violations.size());
+        violations.forEach(System.out::println);
+        return violations.isEmpty();
+    }
+
+    private void check(Long animalId, long shelterId, String adminToken) throws Exception {
+        List<Callable<HttpResponse<String>>> requests = new ArrayList<>();
+        for (String token : adopterTokens) {
+            requests.add(() -> send("POST", "/api/adoptions?animalId=" + animalId, token));
+        }
+        List<HttpResponse<String>> responses = race(requests);
+        List<HttpResponse<String>> winners = successes(responses, "request animal " + animalId);
+        if (winners.size() != 1) {
+            return;
+        }
+
+        JsonNode adoption = objectMapper.readTree(winners.get(0).body());
+        long adoptionId = adoption.path("id").asLong();
+        String winnerToken = adopterTokens.get(responses.indexOf(winners.get(0)));
+        expectStatus("animal " + animalId, get("/api/animals/" + animalId, adminToken), "PENDING");
+
+        String approve = "/api/adoptions/" + adoptionId + "/approve?shelterId=" + shelterId;
+        String reject = "/api/adoptions/" + adoptionId + "/reject?shelterId=" + shelterId + "&rejectionReason=contention";
+        if (!transition("approve/reject adoption " + adoptionId, adminToken, approve, adminToken, reject)) {
+            return;
+        }
+
+        String adoptionStatus = get("/api/adoptions/" + adoptionId, adminToken).path("status").asText();
+        if ("APPROVED".equals(adoptionStatus)) {
+            String complete = "/api/adoptions/" + adoptionId + "/complete?shelterId=" + shelterId;
+            String cancel = "/api/adoptions/" + adoptionId + "/cancel";
+            if (!transition("complete/cancel adoption " + adoptionId, adminToken, complete, winnerToken, cancel)) {
+                return;
+            }
+            adoptionStatus = get("/api/adoptions/" + adoptionId, adminToken).path("status").asText();
+        }
+
+        expectStatus("animal " + animalId + " after " + adoptionStatus.toLowerCase() + " adoption",
+            get("/api/animals/" + animalId, adminToken), "COMPLETED".equals(adoptionStatus) ? "ADOPTED" : "AVAILABLE");
+    }
+
+    // Races two mutually exclusive transitions out of the same status, several times each
+    private boolean transition(String operation, String firstToken, String first, String secondToken, String second)
+            throws Exception {
+        List<Callable<HttpResponse<String>>> requests = new ArrayList<>();
+        for (int i = 0; i < RACERS_PER_TRANSITION; i++) {
+            requests.add(() -> send("PUT", first, firstToken));
+            requests.add(() -> send("PUT", second, secondToken));
+        }
+        return successes(race(requests), operation).size() == 1;
+    }
+
+    // Releases all requests at once and waits for every response
+    private List<HttpResponse<String>> race(List<Callable<HttpResponse<String>>> requests) throws Exception {
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<HttpResponse<String>>> futures = new ArrayList<>();
+        for (Callable<HttpResponse<String>> request : requests) {
+            futures.add(racers.submit(() -> {
+                start.await();
+                return request.call();
+            }));
+        }
+        start.countDown();
+
+        List<HttpResponse<String>> responses = new ArrayList<>();
+        for (Future<HttpResponse<String>> future : futures) {
+            responses.add(future.get());
+        }
+        return responses;
+    }
+
+    // Exactly one request may win; the others lost the race and must be refused with 409
+    private List<HttpResponse<String>> successes(List<HttpResponse<String>> responses, String operation) {
+        List<HttpResponse<String>> successes = new ArrayList<>();
+        for (HttpResponse<String> response : responses) {
+            int status = response.statusCode();
+            if (status >= 200 && status < 300) {
+                successes.add(response);
+            } else if (status != 409) {
+                violations.add(operation + ": unexpected HTTP " + status + " " + response.body());
+            }
+        }
+        if (successes.size() != 1) {
+            violations.add(operation + ": " + successes.size() + " of " + responses.size() + " concurrent requests succeeded");
+        }
+        return successes;
+    }
+
+    private void expectStatus(String subject, JsonNode entity, String expected) {
+        String actual = entity.path("status").asText();
+        if (!expected.equals(actual)) {
+            violations.add(subject + ": status " + actual + ", expected " + expected);
+        }
+    }
+
+    private JsonNode login(String username) throws IOException, InterruptedException {
+        String body = objectMapper.writeValueAsString(Map.of("username", username, "password", password));
+        HttpResponse<String> response = client.send(HttpRequest.newBuilder(URI.create(baseUrl + "/api/auth/login"))
+            .header("Content-Type", "application/json")
+            .POST(HttpRequest.BodyPublishers.ofString(body))
+            .build(), HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() != 200) {
+            throw new IllegalStateException("Login failed for " + username
+                + " (HTTP " + response.statusCode() + "); seed the database with SyntheticDataGenerator first");
+        }
+        return objectMapper.readTree(response.body());
+    }
+
+    private JsonNode get(String path, String token) throws IOException, InterruptedException {
+        return objectMapper.readTree(send("GET", path, token).body());
+    }
+
+    private HttpResponse<String> send(String method, String path, String token) throws IOException, InterruptedException {
+        return client.send(HttpRequest.newBuilder(URI.create(baseUrl + path))
+            .timeout(Duration.ofSeconds(30))
+            .header("Authorization", "Bearer " + token)
+            .method(method, HttpRequest.BodyPublishers.noBody())
+            .build(), HttpResponse.BodyHandlers.ofString());
+    }
+}
@@ -0,0 +1,123 @@
+package com.tailpair.loadtest;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+// Per-endpoint latency samples; keeps every sample so percentiles are exact rather than bucketed
+public class LatencyReport {
+
+    private final ConcurrentMap<String, Samples> samplesByEndpoint = new ConcurrentHashMap<>();
+
+    public void record(String endpoint, long latencyInNanos, int status) {
+        samplesByEndpoint.computeIfAbsent(endpoint, name -> new Samples())
+            .add(latencyInNanos, status < 200 || status >= 400);
+    }
+
+    public void print(long elapsedInNanos) {
+        double seconds = elapsedInNanos / 1_000_000_000.0;
+        long totalRequests = 0;
+        long totalErrors = 0;
+
+        System.out.printf("%-40s %9s %8s %10s %9s %9s %9s%n",
+            "endpoint", "requests", "errors", "req/s", "p50 ms", "p99 ms", "max ms");
+        for (Map.Entry<String, Samples> entry : new TreeMap<>(samplesByEndpoint).entrySet()) {
+            long[] latencies = entry.getValue().sorted();
+            long errors = entry.getValue().errors();
+            totalRequests += latencies.length;
+            totalErrors += errors;
+            System.out.printf("%-40s %9d %8d %10.1f %9.2f %9.2f %9.2f%n",
+                entry.getKey(),
+                latencies.length,
+                errors,
+                latencies.length / seconds,
+                millis(percentile(latencies, 0.50)),
+                millis(percentile(latencies, 0.99)),
+                millis(latencies.length > 0 ? latencies[latencies.length - 1] : 0));
+        }
+        System.out.printf("%-40s %9d %8d %10.1f%n", "total", totalRequests, totalErrors, totalRequests / seconds);
+    }
+
+    // One CSV row per endpoint plus a total row; the header is written when the file is created
+    public void append(Path file, String label, long elapsedInNanos) throws IOException {
+        double seconds = elapsedInNanos / 1_000_000_000.0;
+        boolean created = Files.notExists(file);
+        List<long[]> all = new ArrayList<>();
+        long totalErrors = 0;
+
+        try (PrintWriter out = new PrintWriter(Files.newBufferedWriter(file, StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND))) {
+            if (created) {
+                out.println("label,endpoint,requests,errors,req_per_s,p50_ms,p99_ms,p999_ms,max_ms");
+            }
+            for (Map.Entry<String, Samples> entry : new TreeMap<>(samplesByEndpoint).entrySet()) {
+                long[] latencies = entry.getValue().sorted();
+                long errors = entry.getValue().errors();
+                all.add(latencies);
+                totalErrors += errors;
+                out.println(csvRow(label, entry.getKey(), latencies, errors, seconds));
+            }
+            long[] merged = all.stream().flatMapToLong(Arrays::stream).sorted().toArray();
+            out.println(csvRow(label, "total", merged, totalErrors, seconds));
+        }
+    }
+
+    private static String csvRow(String label, String endpoint, long[] sorted, long errors, double seconds) {
+        return String.format(Locale.ROOT, "\"%s\",\"%s\",%d,%d,%.1f,%.2f,%.2f,%.2f,%.2f",
+            label, endpoint, sorted.length, errors, sorted.length / seconds,
+            millis(percentile(sorted, 0.50)),
+            millis(percentile(sorted, 0.99)),
+            millis(percentile(sorted, 0.999)),
+            millis(sorted.length > 0 ? sorted[sorted.length - 1] : 0));
+    }
+
+    // Nearest-rank percentile
+    private static long percentile(long[] sorted, double percentile) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int rank = (int) Math.ceil(percentile * sorted.length);
+        return sorted[Math.max(rank - 1, 0)];
+    }
+
+    private static double millis(long nanos) {
+        return nanos / 1_000_000.0;
+    }
+
+    private static class Samples {
+        private long[] latencies = new long[1024];
+        private int count;
+        private long errors;
+
+        synchronized void add(long latencyInNanos, boolean error) {
+            if (count == latencies.length) {
+                latencies = Arrays.copyOf(latencies, count * 2);
+            }
+            latencies[count++] = latencyInNanos;
+            if (error) {
+                errors++;
+            }
+        }
+
+        synchronized long[] sorted() {
+            long[] copy = Arrays.copyOf(latencies, count);
+            Arrays.sort(copy);
+            return copy;
+        }
+
+        synchronized long errors() {
+            return errors;
+        }
+    }
+}
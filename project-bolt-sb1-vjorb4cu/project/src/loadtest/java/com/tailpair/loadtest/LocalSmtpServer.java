@@ -0,0 +1,95 @@
+package com.tailpair.loadtest;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintWriter;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Minimal SMTP sink standing in for a real mail server during local runs and load tests. It accepts every
+// message, keeps nothing, and prints how many messages and connections it saw every few seconds, which shows
+// whether the mailer reuses connections. Settings: loadtest.smtp.port (default 1025), loadtest.smtp.delay
+// (milliseconds to wait before accepting each message, to simulate a slow server) and loadtest.smtp.verbose.
+public class LocalSmtpServer {
+
+    private final int port = Integer.getInteger("loadtest.smtp.port", 1025);
+    private final long delayInMs = Long.getLong("loadtest.smtp.delay", 0L);
+    private final boolean verbose = Boolean.getBoolean("loadtest.smtp.verbose");
+
+    private final AtomicLong connections = new AtomicLong();
+    private final AtomicLong messages = new AtomicLong();
+
+    public static void main(String[] args) throws IOException {
+        new LocalSmtpServer().run();
+    }
+
+    public void run() throws IOException {
+        ExecutorService sessions = Executors.newCachedThreadPool();
+        Executors.newSingleThreadScheduledExecutor().scheduleAtFixedRate(() ->
+            System.out.printf("%d messages over %d connections%n", messages.get(), connections.get()),
+            5, 5, TimeUnit.SECONDS);
+
+        try (ServerSocket server = new ServerSocket(port)) {
+            System.out.printf("Accepting SMTP on port %d%n", port);
+            while (true) {
+                Socket socket = server.accept();
+                connections.incrementAndGet();
+                sessions.execute(() -> session(socket));
+            }
+        }
+    }
+
+    private void session(Socket socket) {
+        try (socket;
+             BufferedReader in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.US_ASCII));
+             PrintWriter out = new PrintWriter(socket.getOutputStream(), true, StandardCharsets.US_ASCII)) {
+            reply(out, "220 localhost ESMTP tailpair-loadtest");
+            String line;
+            while ((line = in.readLine()) != null) {
+                String command = line.length() >= 4 ? line.substring(0, 4).toUpperCase() : line.toUpperCase();
+                switch (command) {
+                    case "EHLO", "HELO" -> reply(out, "250 localhost");
+                    case "MAIL", "RCPT", "RSET", "NOOP" -> reply(out, "250 OK");
+                    case "DATA" -> {
+                        reply(out, "354 End data with <CR><LF>.<CR><LF>");
+                        readMessage(in);
+                        if (delayInMs > 0) {
+                            Thread.sleep(delayInMs);
+                        }
+                        messages.incrementAndGet();
+                        reply(out, "250 OK");
+                    }
+                    case "QUIT" -> {
+                        reply(out, "221 Bye");
+                        return;
+                    }
+                    default -> reply(out, "502 Command not implemented");
+                }
+            }
+        } catch (IOException ex) {
+            // Client went away mid-session
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void readMessage(BufferedReader in) throws IOException {
+        String line;
+        while ((line = in.readLine()) != null && !line.equals(".")) {
+            if (verbose && line.startsWith("Subject:")) {
+                System.out.println(line);
+            }
+        }
+    }
+
+    private static void reply(PrintWriter out, String line) {
+        out.print(line + "\r\n");
+        out.flush();
+    }
+}
@@ -0,0 +1,200 @@
+package com.tailpair.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+// Consistency check for replica routing, run against an instance seeded by SyntheticDataGenerator and started
+// with app.datasource.replica-urls. Each user repeatedly favorites and unfavorites animals and reads the result
+// back at once through read-only endpoints; a stale read means the read went to a lagging replica. Once the
+// users' primary pinning has expired (loadtest.replica.settle, at least app.datasource.replica-max-lag), every
+// final state is read again; those reads must reach a replica, going by the routing metrics on the management
+// port, and must agree. Exits with status 1 on any stale read.
+// Settings: loadtest.base-url, loadtest.management-url, loadtest.prefix, loadtest.password,
+// loadtest.replica.users, loadtest.replica.rounds and loadtest.replica.settle (ms).
+public class ReadYourWritesCheck {
+
+    private static final int ANIMALS_PER_ROUND = 5;
+
+    private final HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(5)).build();
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private final String baseUrl = System.getProperty("loadtest.base-url", "http://localhost:8080");
+    private final String managementUrl = System.getProperty("loadtest.management-url", "http://localhost:8081");
+    private final String prefix = System.getProperty("loadtest.prefix", "loadtest");
+    private final String password = System.getProperty("loadtest.password", "loadtest-password");
+    private final int users = Integer.getInteger("loadtest.replica.users", 16);
+    private final int rounds = Integer.getInteger("loadtest.replica.rounds", 50);
+    private final long settleInMs = Long.getLong("loadtest.replica.settle", 6000);
+
+    private final List<String> violations = Collections.synchronizedList(new ArrayList<>());
+    private final Map<String, Boolean> finalStates = new ConcurrentHashMap<>();
+    private final Map<Integer, String> tokens = new ConcurrentHashMap<>();
+
+    public static void main(String[] args) throws Exception {
+        boolean passed = new ReadYourWritesCheck().run();
+        System.exit(passed ? 0 : 1);
+    }
+
+    public boolean run() throws Exception {
+        List<Long> animalIds = new ArrayList<>();
+        for (JsonNode animal : getAnonymous("/api/animals/available?size=" + (users * ANIMALS_PER_ROUND)).path("content")) {
+            animalIds.add(animal.path("id").asLong());
+        }
+        if (animalIds.size() < ANIMALS_PER_ROUND) {
+            throw new IllegalStateException("Not enough available animals; seed the database with SyntheticDataGenerator first");
+        }
+
+        ExecutorService workers = Executors.newFixedThreadPool(users);
+        try {
+            forEachUser(workers, user -> {
+                String token = login(prefix + "-user-" + user);
+                tokens.put(user, token);
+                for (int round = 0; round < rounds; round++) {
+                    for (Long animalId : animalsOf(user, animalIds)) {
+                        finalStates.put(user + ":" + animalId, check(token, animalId));
+                    }
+                }
+            });
+            System.out.printf("%d users x %d rounds x %d animals: %d stale reads after a write%n",
+                users, rounds, ANIMALS_PER_ROUND, violations.size());
+
+            Thread.sleep(settleInMs);
+            double replicaReadsBefore = readCount("replica");
+            double primaryReadsBefore = readCount("primary");
+            forEachUser(workers, user -> {
+                for (Long animalId : animalsOf(user, animalIds)) {
+                    if (isFavorited(tokens.get(user), animalId) != finalStates.get(user + ":" + animalId)) {
+                        violations.add("user " + user + ", animal " + animalId + ": stale read after settling");
+                    }
+                }
+            });
+            if (replicaReadsBefore >= 0) {
+                double replicaReads = readCount("replica") - replicaReadsBefore;
+                System.out.printf("read-only transactions after settling: %.0f on replicas, %.0f on the primary%n",
+                    replicaReads, readCount("primary") - primaryReadsBefore);
+                if (replicaReads == 0) {
+                    violations.add("no reads reached a replica after settling; check app.datasource.replica-urls and replica health");
+                }
+            }
+        } finally {
+            workers.shutdownNow();
+        }
+
+        System.out.printf("%d violations%n", violations.size());
+        violations.stream().limit(50).forEach(System.out::println);
+        return violations.isEmpty();
+    }
+
+    private void forEachUser(ExecutorService workers, UserTask task) throws Exception {
+        List<Future<?>> futures = new ArrayList<>();
+        for (int i = 0; i < users; i++) {
+            int user = i;
+            futures.add(workers.submit(() -> {
+                task.run(user);
+                return null;
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get();
+        }
+    }
+
+    private static List<Long> animalsOf(int user, List<Long> animalIds) {
+        List<Long> animals = new ArrayList<>(ANIMALS_PER_ROUND);
+        for (int a = 0; a < ANIMALS_PER_ROUND; a++) {
+            animals.add(animalIds.get((user * ANIMALS_PER_ROUND + a) % animalIds.size()));
+        }
+        return animals;
+    }
+
+    // Flips the favorite twice, reading it back after each write; returns the final state
+    private boolean check(String token, Long animalId) throws IOException, InterruptedException {
+        String favorite = "/api/favorites/animal/" + animalId;
+        boolean favorited = isFavorited(token, animalId);
+        for (int i = 0; i < 2; i++) {
+            HttpResponse<String> write = send(favorited ? "DELETE" : "POST", favorite, token);
+            if (write.statusCode() >= 300) {
+                violations.add((favorited ? "DELETE " : "POST ") + favorite + ": HTTP " + write.statusCode() + " " + write.body());
+                return favorited;
+            }
+            favorited = !favorited;
+
+            if (isFavorited(token, animalId) != favorited) {
+                violations.add(favorite + "/check: expected " + favorited + " right after the write");
+            }
+            if (objectMapper.readTree(send("GET", "/api/animals/" + animalId, token).body()).path("favorited").asBoolean() != favorited) {
+                violations.add("/api/animals/" + animalId + ": favorited should be " + favorited + " right after the write");
+            }
+        }
+        return favorited;
+    }
+
+    private boolean isFavorited(String token, Long animalId) throws IOException, InterruptedException {
+        return Boolean.parseBoolean(send("GET", "/api/favorites/animal/" + animalId + "/check", token).body().trim());
+    }
+
+    // Counter from ReplicaRoutingDataSource; -1 when the management port isn't reachable
+    private double readCount(String target) {
+        try {
+            HttpResponse<String> response = client.send(HttpRequest.newBuilder(
+                    URI.create(managementUrl + "/actuator/metrics/tailpair.datasource.reads?tag=target:" + target))
+                .timeout(Duration.ofSeconds(5))
+                .build(), HttpResponse.BodyHandlers.ofString());
+            if (response.statusCode() != 200) {
+                return -1;
+            }
+            return objectMapper.readTree(response.body()).path("measurements").path(0).path("value").asDouble();
+        } catch (IOException ex) {
+            return -1;
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            return -1;
+        }
+    }
+
+    private String login(String username) throws IOException, InterruptedException {
+        String body = objectMapper.writeValueAsString(Map.of("username", username, "password", password));
+        HttpResponse<String> response = client.send(HttpRequest.newBuilder(URI.create(baseUrl + "/api/auth/login"))
+            .header("Content-Type", "application/json")
+            .POST(HttpRequest.BodyPublishers.ofString(body))
+            .build(), HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() != 200) {
+            throw new IllegalStateException("Login failed for " + username
+                + " (HTTP " + response.statusCode() + "); seed the database with SyntheticDataGenerator first");
+        }
+        return objectMapper.readTree(response.body()).path("token").asText();
+    }
+
+    private JsonNode getAnonymous(String path) throws IOException, InterruptedException {
+        return objectMapper.readTree(client.send(HttpRequest.newBuilder(URI.create(baseUrl + path))
+            .timeout(Duration.ofSeconds(30))
+            .build(), HttpResponse.BodyHandlers.ofString()).body());
+    }
+
+    private interface UserTask {
+        void run(int user) throws Exception;
+    }
+
+    private HttpResponse<String> send(String method, String path, String token) throws IOException, InterruptedException {
+        return client.send(HttpRequest.newBuilder(URI.create(baseUrl + path))
+            .timeout(Duration.ofSeconds(30))
+            .header("Authorization", "Bearer " + token)
+            .method(method, HttpRequest.BodyPublishers.noBody())
+            .build(), HttpResponse.BodyHandlers.ofString());
+    }
+}
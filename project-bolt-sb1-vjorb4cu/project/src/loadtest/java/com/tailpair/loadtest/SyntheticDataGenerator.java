@@ -0,0 +1,252 @@
+package com.tailpair.loadtest;
+
+import com.tailpair.TailpairApplication;
+import com.tailpair.entity.*;
+import com.tailpair.repository.*;
+import com.tailpair.service.ConversationService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.core.env.Environment;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.function.IntFunction;
+
+// Seeds a database with synthetic shelters, animals, users and their activity through the application's
+// own repositories. Volumes come from loadtest.* properties, e.g. -Dloadtest.animals=100000.
+// Usernames are <prefix>-user-<n> and <prefix>-shelter-<n>, all sharing loadtest.password.
+public class SyntheticDataGenerator {
+
+    private static final Logger logger = LoggerFactory.getLogger(SyntheticDataGenerator.class);
+
+    private static final int BATCH_SIZE = 1000;
+
+    private static final String[] BREEDS = {
+        "Labrador Retriever", "German Shepherd", "Golden Retriever", "Beagle", "Poodle", "Bulldog",
+        "Siamese", "Maine Coon", "Persian", "Tabby", "Holland Lop", "Cockatiel", "Mixed"
+    };
+
+    private static final String[] COLORS = { "Black", "White", "Brown", "Yellow", "Grey", "Tricolor" };
+
+    private static final String[] STATES = { "CA", "TX", "NY", "FL", "IL", "WA", "CO", "GA" };
+
+    private final Random random = new Random(42);
+
+    private final TransactionTemplate transaction;
+    private final UserRepository userRepository;
+    private final ShelterRepository shelterRepository;
+    private final AnimalRepository animalRepository;
+    private final FavoriteRepository favoriteRepository;
+    private final AdoptionRepository adoptionRepository;
+    private final MessageRepository messageRepository;
+    private final NotificationRepository notificationRepository;
+    private final ConversationService conversationService;
+    private final PasswordEncoder passwordEncoder;
+    private final Environment environment;
+
+    private final String prefix;
+
+    public SyntheticDataGenerator(ConfigurableApplicationContext context) {
+        this.transaction = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        this.userRepository = context.getBean(UserRepository.class);
+        this.shelterRepository = context.getBean(ShelterRepository.class);
+        this.animalRepository = context.getBean(AnimalRepository.class);
+        this.favoriteRepository = context.getBean(FavoriteRepository.class);
+        this.adoptionRepository = context.getBean(AdoptionRepository.class);
+        this.messageRepository = context.getBean(MessageRepository.class);
+        this.notificationRepository = context.getBean(NotificationRepository.class);
+        this.conversationService = context.getBean(ConversationService.class);
+        this.passwordEncoder = context.getBean(PasswordEncoder.class);
+        this.environment = context.getEnvironment();
+        this.prefix = environment.getProperty("loadtest.prefix", "loadtest");
+    }
+
+    public static void main(String[] args) {
+        String[] arguments = new String[args.length + 1];
+        System.arraycopy(args, 0, arguments, 0, args.length);
+        arguments[args.length] = "--spring.main.web-application-type=none";
+
+        try (ConfigurableApplicationContext context = SpringApplication.run(TailpairApplication.class, arguments)) {
+            new SyntheticDataGenerator(context).generate();
+        }
+    }
+
+    public void generate() {
+        int shelters = property("shelters", 200);
+        int animals = property("animals", 20000);
+        int users = property("users", 2000);
+        int favoritesPerUser = property("favorites-per-user", 10);
+        int adoptions = property("adoptions", 5000);
+        int messages = property("messages", 50000);
+        int notifications = property("notifications", 50000);
+
+        // BCrypt is deliberately slow, so every account shares one hash
+        String passwordHash = passwordEncoder.encode(environment.getProperty("loadtest.password", "loadtest-password"));
+
+        long started = System.currentTimeMillis();
+
+        List<Long> adminIds = insert(shelters, i -> {
+            User admin = user("shelter-" + i, passwordHash);
+            admin.setRole(User.Role.SHELTER_ADMIN);
+            return admin;
+        }, userRepository::saveAll, User::getId);
+
+        List<Long> shelterIds = insert(shelters, i -> {
+            Shelter shelter = new Shelter(prefix + " Shelter " + i, (100 + i) + " Main Street",
+                "City " + (i % 100), STATES[i % STATES.length], String.format("%05d", 10000 + i));
+            shelter.setVerified(random.nextInt(10) < 8);
+            // Anywhere in the contiguous US
+            shelter.setLatitude(25 + random.nextDouble() * 24);
+            shelter.setLongitude(-124 + random.nextDouble() * 57);
+            shelter.setAdmin(userRepository.getReferenceById(adminIds.get(i)));
+            return shelter;
+        }, shelterRepository::saveAll, Shelter::getId);
+
+        List<Long> animalIds = insert(animals, i -> animal(i, shelterRepository.getReferenceById(pick(shelterIds))),
+            animalRepository::saveAll, Animal::getId);
+
+        List<Long> userIds = insert(users, i -> user("user-" + i, passwordHash), userRepository::saveAll, User::getId);
+
+        // Each user favorites a run of consecutive animals starting at a random offset
+        int favoritesEach = Math.min(favoritesPerUser, animalIds.size());
+        int[] favoriteOffsets = random.ints(users, 0, animalIds.size()).toArray();
+        insert(users * favoritesEach, i -> {
+            int user = i / favoritesEach;
+            Long animalId = animalIds.get((favoriteOffsets[user] + i % favoritesEach) % animalIds.size());
+            return new Favorite(userRepository.getReferenceById(userIds.get(user)),
+                animalRepository.getReferenceById(animalId));
+        }, favoriteRepository::saveAll, Favorite::getId);
+
+        Adoption.Status[] adoptionStatuses = Adoption.Status.values();
+        insert(adoptions, i -> {
+            Adoption adoption = new Adoption(userRepository.getReferenceById(pick(userIds)),
+                animalRepository.getReferenceById(pick(animalIds)));
+            adoption.setStatus(adoptionStatuses[random.nextInt(adoptionStatuses.length)]);
+            adoption.setNotes("We have a fenced yard and plenty of time for walks.");
+            return adoption;
+        }, adoptionRepository::saveAll, Adoption::getId);
+
+        // Adopter-to-shelter threads about a specific animal, about five messages each including replies
+        int threads = Math.max(1, messages / 5);
+        long[][] threadKeys = new long[threads][];
+        for (int t = 0; t < threads; t++) {
+            threadKeys[t] = new long[] { pick(userIds), pick(adminIds), pick(animalIds) };
+        }
+        insert(messages, i -> {
+            long[] thread = threadKeys[random.nextInt(threads)];
+            boolean reply = random.nextInt(3) == 0;
+            User adopter = userRepository.getReferenceById(thread[0]);
+            User shelterAdmin = userRepository.getReferenceById(thread[1]);
+            Message message = new Message("About one of your animals #" + i,
+                "Hi, I would like to know more about this animal. Is it still available?",
+                reply ? shelterAdmin : adopter, reply ? adopter : shelterAdmin);
+            message.setAnimal(animalRepository.getReferenceById(thread[2]));
+            message.setRead(random.nextBoolean());
+            message.setConversation(conversationService.conversationFor(
+                message.getSender(), message.getRecipient(), message.getAnimal()));
+            return message;
+        }, batch -> {
+            List<Message> saved = messageRepository.saveAll(batch);
+            saved.forEach(conversationService::recordMessage);
+            return saved;
+        }, Message::getId);
+
+        Notification.Type[] notificationTypes = Notification.Type.values();
+        insert(notifications, i -> {
+            Notification notification = new Notification("Notification " + i, "Something happened on TailPair.",
+                notificationTypes[random.nextInt(notificationTypes.length)],
+                userRepository.getReferenceById(pick(random.nextInt(5) == 0 ? adminIds : userIds)));
+            notification.setAnimal(animalRepository.getReferenceById(pick(animalIds)));
+            notification.setRead(random.nextInt(3) != 0);
+            return notification;
+        }, notificationRepository::saveAll, Notification::getId);
+
+        logger.info("Seeded {} shelters, {} animals, {} users, {} adoptions, {} messages and {} notifications in {} ms",
+            shelters, animals, users, adoptions, messages, notifications, System.currentTimeMillis() - started);
+    }
+
+    // Builds and saves count entities in batches of BATCH_SIZE, each in its own transaction
+    private <E> List<Long> insert(int count,
+                                  IntFunction<E> factory,
+                                  Function<List<E>, ? extends Iterable<E>> saveAll,
+                                  Function<E, Long> id) {
+        List<Long> ids = new ArrayList<>(count);
+        for (int from = 0; from < count; from += BATCH_SIZE) {
+            int to = Math.min(from + BATCH_SIZE, count);
+            int offset = from;
+            transaction.executeWithoutResult(status -> {
+                List<E> batch = new ArrayList<>(to - offset);
+                for (int i = offset; i < to; i++) {
+                    batch.add(factory.apply(i));
+                }
+                for (E saved : saveAll.apply(batch)) {
+                    ids.add(id.apply(saved));
+                }
+            });
+            logger.debug("Inserted {}/{}", to, count);
+        }
+        return ids;
+    }
+
+    private User user(String name, String passwordHash) {
+        String username = prefix + "-" + name;
+        User user = new User(username, username + "@example.com", passwordHash, "Load", "Tester");
+        user.setCity("City " + random.nextInt(100));
+        user.setState(STATES[random.nextInt(STATES.length)]);
+        return user;
+    }
+
+    private Animal animal(int index, Shelter shelter) {
+        Animal.Species[] species = Animal.Species.values();
+        Animal.Size[] sizes = Animal.Size.values();
+        Animal.Gender[] genders = Animal.Gender.values();
+
+        Animal animal = new Animal("Pet " + index,
+            species[random.nextInt(species.length)],
+            genders[random.nextInt(genders.length)],
+            sizes[random.nextInt(sizes.length)],
+            shelter);
+        // About a quarter of a live catalogue is pending, adopted or withdrawn
+        animal.setStatus(random.nextInt(4) == 0
+            ? Animal.Status.values()[1 + random.nextInt(3)]
+            : Animal.Status.AVAILABLE);
+        animal.setBreed(BREEDS[random.nextInt(BREEDS.length)]);
+        animal.setColor(COLORS[random.nextInt(COLORS.length)]);
+        animal.setAge(1 + random.nextInt(15));
+        animal.setWeight(BigDecimal.valueOf(2 + random.nextInt(400), 1));
+        animal.setDescription("A lovely " + animal.getBreed().toLowerCase() + " who is looking for a forever home. "
+            + "Enjoys walks, treats and naps in the sun.");
+        animal.setVaccinated(random.nextBoolean());
+        animal.setSpayedNeutered(random.nextBoolean());
+        animal.setHouseTrained(random.nextBoolean());
+        animal.setGoodWithKids(random.nextBoolean());
+        animal.setGoodWithPets(random.nextBoolean());
+        animal.setAdoptionFee(BigDecimal.valueOf(50 + random.nextInt(300)));
+
+        Set<String> imageUrls = new HashSet<>();
+        int images = 1 + random.nextInt(4);
+        for (int image = 1; image <= images; image++) {
+            imageUrls.add("https://images.tailpair.example/animals/" + prefix + "/" + index + "/" + image + ".jpg");
+        }
+        animal.setImageUrls(imageUrls);
+        return animal;
+    }
+
+    private Long pick(List<Long> ids) {
+        return ids.get(random.nextInt(ids.size()));
+    }
+
+    private int property(String name, int defaultValue) {
+        return environment.getProperty("loadtest." + name, Integer.class, defaultValue);
+    }
+}
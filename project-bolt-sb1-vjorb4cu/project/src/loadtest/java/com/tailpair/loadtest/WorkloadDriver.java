@@ -0,0 +1,257 @@
+package com.tailpair.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+// Replays a weighted mix of browse, favorite, messaging, notification and adoption calls against a running
+// instance seeded by SyntheticDataGenerator, then prints p50/p99 latency and throughput per endpoint.
+// Settings are system properties: loadtest.base-url, loadtest.users, loadtest.threads, loadtest.duration,
+// loadtest.warmup (seconds), loadtest.prefix and loadtest.password. With loadtest.result set, the summary is
+// also appended to that CSV file under loadtest.label, so runs against different configurations can be compared.
+public class WorkloadDriver {
+
+    private static final String[] SEARCH_TERMS = { "retriever", "beagle", "siamese", "poodle", "mixed", "lop" };
+
+    private final HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(5)).build();
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private final String baseUrl = System.getProperty("loadtest.base-url", "http://localhost:8080");
+    private final String prefix = System.getProperty("loadtest.prefix", "loadtest");
+    private final String password = System.getProperty("loadtest.password", "loadtest-password");
+    private final int users = Integer.getInteger("loadtest.users", 200);
+    private final int threads = Integer.getInteger("loadtest.threads", 32);
+    private final int durationInSeconds = Integer.getInteger("loadtest.duration", 120);
+    private final int warmupInSeconds = Integer.getInteger("loadtest.warmup", 20);
+    private final String resultFile = System.getProperty("loadtest.result");
+    private final String label = System.getProperty("loadtest.label", "run");
+
+    private final List<Session> sessions = new ArrayList<>();
+    private final List<Long> animalIds = new ArrayList<>();
+    private final List<Operation> operations = new ArrayList<>();
+    private int totalWeight;
+
+    private volatile LatencyReport report = new LatencyReport();
+
+    public static void main(String[] args) throws Exception {
+        new WorkloadDriver().run();
+    }
+
+    public void run() throws Exception {
+        login();
+        loadAnimalIds();
+        defineWorkload();
+
+        System.out.printf("Warming up for %ds with %d threads and %d users%n", warmupInSeconds, threads, sessions.size());
+        drive(warmupInSeconds);
+
+        report = new LatencyReport();
+        System.out.printf("Measuring for %ds%n", durationInSeconds);
+        long started = System.nanoTime();
+        drive(durationInSeconds);
+        long elapsed = System.nanoTime() - started;
+        report.print(elapsed);
+        if (resultFile != null) {
+            report.append(Path.of(resultFile), label + " (" + threads + " threads)", elapsed);
+        }
+    }
+
+    // Relative weights approximate production traffic: mostly anonymous browsing, then inbox polling
+    private void defineWorkload() {
+        define("GET /api/animals/available", 20, session ->
+            get(session, "/api/animals/available?size=20&sort=createdAt,desc&page=" + random(10)));
+        define("GET /api/animals/available/feed", 8, session ->
+            get(session, "/api/animals/available/feed?size=20"));
+        define("GET /api/animals/{id}", 15, session ->
+            get(session, "/api/animals/" + randomAnimalId()));
+        define("GET /api/animals/search", 8, session ->
+            get(session, "/api/animals/search?size=20&q=" + encode(SEARCH_TERMS[random(SEARCH_TERMS.length)])));
+        define("GET /api/animals/filter", 10, session ->
+            get(session, "/api/animals/filter?size=20&species=" + (random(2) == 0 ? "DOG" : "CAT")
+                + "&goodWithKids=true&minAge=1&maxAge=" + (3 + random(10))));
+        // Shelters seeded by SyntheticDataGenerator are spread over the same box
+        define("GET /api/animals/nearby", 4, session ->
+            get(session, String.format(Locale.ROOT, "/api/animals/nearby?size=20&radiusMiles=25&latitude=%.4f&longitude=%.4f",
+                25 + ThreadLocalRandom.current().nextDouble() * 24, -124 + ThreadLocalRandom.current().nextDouble() * 57)));
+        define("GET /api/favorites", 6, session ->
+            get(session, "/api/favorites?size=20"));
+        define("GET /api/favorites/animal/{id}/check", 4, session ->
+            get(session, "/api/favorites/animal/" + randomAnimalId() + "/check"));
+        define("POST /api/favorites/animal/{id}", 3, session ->
+            send(session, "POST", "/api/favorites/animal/" + randomAnimalId(), null));
+        define("DELETE /api/favorites/animal/{id}", 2, session ->
+            send(session, "DELETE", "/api/favorites/animal/" + randomAnimalId(), null));
+        define("GET /api/messages/user/feed", 6, session ->
+            get(session, "/api/messages/user/feed?size=20"));
+        define("GET /api/conversations", 6, session ->
+            get(session, "/api/conversations?size=20"));
+        define("GET /api/messages/unread/count", 5, session ->
+            get(session, "/api/messages/unread/count"));
+        define("POST /api/messages", 2, session ->
+            send(session, "POST", "/api/messages", objectMapper.writeValueAsString(Map.of(
+                "subject", "Question about an animal",
+                "content", "Hi! Is this animal still available for adoption?",
+                "recipientId", sessions.get(random(sessions.size())).userId,
+                "animalId", randomAnimalId()))));
+        define("GET /api/notifications/user/feed", 5, session ->
+            get(session, "/api/notifications/user/feed?size=20"));
+        define("GET /api/notifications/unread/count", 5, session ->
+            get(session, "/api/notifications/unread/count"));
+        define("GET /api/adoptions/user", 3, session ->
+            get(session, "/api/adoptions/user?size=20"));
+        define("POST /api/adoptions", 1, session ->
+            send(session, "POST", "/api/adoptions?animalId=" + randomAnimalId(), null));
+    }
+
+    private void drive(int seconds) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(seconds);
+        ExecutorService workers = Executors.newFixedThreadPool(threads);
+        for (int worker = 0; worker < threads; worker++) {
+            workers.execute(() -> {
+                while (System.nanoTime() < deadline) {
+                    Operation operation = nextOperation();
+                    Session session = sessions.get(random(sessions.size()));
+                    long start = System.nanoTime();
+                    int status;
+                    try {
+                        status = operation.request.call(session);
+                    } catch (IOException ex) {
+                        status = -1;
+                    } catch (InterruptedException ex) {
+                        Thread.currentThread().interrupt();
+                        return;
+                    }
+                    report.record(operation.name, System.nanoTime() - start, status);
+                }
+            });
+        }
+        workers.shutdown();
+        workers.awaitTermination(seconds + 60L, TimeUnit.SECONDS);
+    }
+
+    private void login() throws IOException, InterruptedException {
+        for (int i = 0; i < users; i++) {
+            String body = objectMapper.writeValueAsString(Map.of("username", prefix + "-user-" + i, "password", password));
+            HttpResponse<String> response = client.send(request("/api/auth/login", null)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build(), HttpResponse.BodyHandlers.ofString());
+            if (response.statusCode() != 200) {
+                throw new IllegalStateException("Login failed for " + prefix + "-user-" + i
+                    + " (HTTP " + response.statusCode() + "); seed the database with SyntheticDataGenerator first");
+            }
+            JsonNode auth = objectMapper.readTree(response.body());
+            sessions.add(new Session(auth.path("token").asText(), auth.path("user").path("id").asLong()));
+        }
+    }
+
+    private void loadAnimalIds() throws IOException, InterruptedException {
+        for (int page = 0; page < 20; page++) {
+            HttpResponse<String> response = client.send(request("/api/animals/available?size=100&page=" + page, null)
+                .GET().build(), HttpResponse.BodyHandlers.ofString());
+            JsonNode content = objectMapper.readTree(response.body()).path("content");
+            if (content.isEmpty()) {
+                break;
+            }
+            content.forEach(animal -> animalIds.add(animal.path("id").asLong()));
+        }
+        if (animalIds.isEmpty()) {
+            throw new IllegalStateException("No available animals found; seed the database with SyntheticDataGenerator first");
+        }
+    }
+
+    private void define(String name, int weight, Request request) {
+        operations.add(new Operation(name, weight, request));
+        totalWeight += weight;
+    }
+
+    private Operation nextOperation() {
+        int pick = random(totalWeight);
+        for (Operation operation : operations) {
+            pick -= operation.weight;
+            if (pick < 0) {
+                return operation;
+            }
+        }
+        return operations.get(operations.size() - 1);
+    }
+
+    private int get(Session session, String path) throws IOException, InterruptedException {
+        return client.send(request(path, session).GET().build(), HttpResponse.BodyHandlers.discarding()).statusCode();
+    }
+
+    private int send(Session session, String method, String path, String json) throws IOException, InterruptedException {
+        HttpRequest.Builder builder = request(path, session);
+        if (json != null) {
+            builder.header("Content-Type", "application/json");
+        }
+        HttpRequest.BodyPublisher body = json != null
+            ? HttpRequest.BodyPublishers.ofString(json)
+            : HttpRequest.BodyPublishers.noBody();
+        return client.send(builder.method(method, body).build(), HttpResponse.BodyHandlers.discarding()).statusCode();
+    }
+
+    private HttpRequest.Builder request(String path, Session session) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(baseUrl + path)).timeout(Duration.ofSeconds(30));
+        if (session != null) {
+            builder.header("Authorization", "Bearer " + session.token);
+        }
+        return builder;
+    }
+
+    private Long randomAnimalId() {
+        return animalIds.get(random(animalIds.size()));
+    }
+
+    private static int random(int bound) {
+        return ThreadLocalRandom.current().nextInt(bound);
+    }
+
+    private static String encode(String value) {
+        return URLEncoder.encode(value, StandardCharsets.UTF_8);
+    }
+
+    @FunctionalInterface
+    private interface Request {
+        int call(Session session) throws IOException, InterruptedException;
+    }
+
+    private static class Operation {
+        private final String name;
+        private final int weight;
+        private final Request request;
+
+        Operation(String name, int weight, Request request) {
+            this.name = name;
+            this.weight = weight;
+            this.request = request;
+        }
+    }
+
+    private static class Session {
+        private final String token;
+        private final long userId;
+
+        Session(String token, long userId) {
+            this.token = token;
+            this.userId = userId;
+        }
+    }
+}
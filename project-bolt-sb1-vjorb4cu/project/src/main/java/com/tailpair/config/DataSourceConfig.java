@@ -0,0 +1,76 @@
+package com.tailpair.config;
+
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+
+// The application DataSource is a lazy proxy over ReplicaRoutingDataSource. The proxy defers fetching a
+// connection until the first statement, by which point Spring has marked the transaction read-only, so
+// the router can see it. With no replica URLs configured everything goes to the primary pool.
+@Configuration
+public class DataSourceConfig {
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${app.datasource.replica-urls:}")
+    private List<String> replicaUrls;
+
+    @Value("${app.datasource.replica-pool-size:${DB_POOL_SIZE:20}}")
+    private int replicaPoolSize;
+
+    @Value("${app.datasource.replica-connection-timeout:1000}")
+    private long replicaConnectionTimeoutInMs;
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        dataSource.setPoolName("primary");
+        return dataSource;
+    }
+
+    @Bean
+    public ReplicaRoutingDataSource replicaRoutingDataSource(HikariDataSource primaryDataSource,
+                                                             DataSourceProperties properties) {
+        List<HikariDataSource> replicas = new ArrayList<>();
+        for (String url : replicaUrls) {
+            if (url.isBlank()) {
+                continue;
+            }
+            HikariConfig config = new HikariConfig();
+            config.setPoolName("replica-" + replicas.size());
+            config.setJdbcUrl(url.trim());
+            config.setUsername(properties.determineUsername());
+            config.setPassword(properties.determinePassword());
+            config.setDriverClassName(properties.determineDriverClassName());
+            config.setMaximumPoolSize(replicaPoolSize);
+            // A replica that is down must fail fast so reads fall back to the primary, and must not stop startup
+            config.setConnectionTimeout(replicaConnectionTimeoutInMs);
+            config.setInitializationFailTimeout(-1);
+            config.setReadOnly(true);
+            config.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(meterRegistry));
+            replicas.add(new HikariDataSource(config));
+        }
+        return new ReplicaRoutingDataSource(primaryDataSource, replicas);
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(ReplicaRoutingDataSource replicaRoutingDataSource) {
+        return new LazyConnectionDataSourceProxy(replicaRoutingDataSource);
+    }
+}
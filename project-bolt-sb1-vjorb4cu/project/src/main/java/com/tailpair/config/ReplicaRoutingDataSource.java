@@ -0,0 +1,275 @@
+package com.tailpair.config;
+
+import com.tailpair.security.UserPrincipal;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.hibernate.CacheMode;
+import org.hibernate.Session;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.orm.jpa.EntityManagerHolder;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Sends read-only transactions to a healthy replica (round robin) and everything else to the primary.
+// A user's reads stay on the primary for replica-max-lag after one of their transactions commits a write,
+// so they see their own writes; replicas further behind than that, or failing, are skipped until the next
+// health check passes. The pinning is per instance, so it relies on a user's requests reaching the same
+// instance within that window. Shared caches must never be filled from a replica, since another user's write
+// may already have evicted what it returns: sessions on a replica read the second-level cache without adding
+// to it, and code that fills its own cache (rendered responses, in-memory indexes) reads inside primaryOnly().
+public class ReplicaRoutingDataSource extends AbstractDataSource {
+
+    private static final Logger log = LoggerFactory.getLogger(ReplicaRoutingDataSource.class);
+
+    // Zero when the replica has replayed everything it received, so an idle primary doesn't read as lag
+    private static final String LAG_QUERY =
+        "SELECT CASE WHEN NOT pg_is_in_recovery() OR pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() THEN 0 " +
+        "ELSE COALESCE(EXTRACT(EPOCH FROM now() - pg_last_xact_replay_timestamp()) * 1000, 0) END";
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${app.datasource.replica-max-lag:5000}")
+    private long maxLagInMs;
+
+    private final HikariDataSource primary;
+
+    private final List<Replica> replicas;
+
+    private final AtomicInteger next = new AtomicInteger();
+
+    private static final ThreadLocal<Boolean> PRIMARY_ONLY = ThreadLocal.withInitial(() -> false);
+
+    // Set by recordWrite() and cleared when the transaction that wrote completes
+    private static final ThreadLocal<Boolean> WROTE = ThreadLocal.withInitial(() -> false);
+
+    // userId -> System.nanoTime() until which the user's reads go to the primary
+    private final ConcurrentMap<Long, Long> pinnedUntil = new ConcurrentHashMap<>();
+
+    private Counter primaryReads;
+    private Counter replicaReads;
+
+    public ReplicaRoutingDataSource(HikariDataSource primary, List<HikariDataSource> replicas) {
+        this.primary = primary;
+        this.replicas = replicas.stream().map(Replica::new).toList();
+    }
+
+    @PostConstruct
+    public void init() {
+        primaryReads = readCounter("primary");
+        replicaReads = readCounter("replica");
+        for (Replica replica : replicas) {
+            Gauge.builder("tailpair.datasource.replica.up", replica, r -> r.healthy ? 1 : 0)
+                .description("Whether the replica is receiving read-only transactions")
+                .tag("pool", replica.dataSource.getPoolName())
+                .register(meterRegistry);
+            Gauge.builder("tailpair.datasource.replica.lag", replica, r -> r.lagInMs)
+                .description("Replication lag measured by the last health check")
+                .baseUnit("milliseconds")
+                .tag("pool", replica.dataSource.getPoolName())
+                .register(meterRegistry);
+        }
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return route(DataSource::getConnection);
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return route(dataSource -> dataSource.getConnection(username, password));
+    }
+
+    // Also brings failed replicas back once they answer and have caught up
+    @Scheduled(fixedDelayString = "${app.datasource.replica-check-interval:5000}")
+    public void checkReplicas() {
+        for (Replica replica : replicas) {
+            try (Connection connection = replica.dataSource.getConnection();
+                 Statement statement = connection.createStatement();
+                 ResultSet lag = statement.executeQuery(LAG_QUERY)) {
+                lag.next();
+                replica.lagInMs = lag.getDouble(1);
+                if (replica.lagInMs > maxLagInMs) {
+                    replica.markDown("replication lag " + Math.round(replica.lagInMs) + " ms");
+                } else {
+                    replica.markUp();
+                }
+            } catch (SQLException ex) {
+                replica.markDown(ex.getMessage());
+            }
+        }
+
+        long now = System.nanoTime();
+        pinnedUntil.values().removeIf(until -> until - now <= 0);
+    }
+
+    // The primary pool is its own bean and is closed with it
+    public void close() {
+        replicas.forEach(replica -> replica.dataSource.close());
+    }
+
+    // Sends reads on the current thread to the primary until the scope is closed
+    public static PrimaryScope primaryOnly() {
+        boolean previous = PRIMARY_ONLY.get();
+        PRIMARY_ONLY.set(true);
+        return () -> PRIMARY_ONLY.set(previous);
+    }
+
+    // Marks the current transaction as having changed data, so its user is pinned once it commits.
+    // StatementCounter records Hibernate's statements; writes through plain JDBC must call this themselves.
+    public static void recordWrite() {
+        WROTE.set(true);
+    }
+
+    private Connection route(ConnectionSource source) throws SQLException {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            pinCurrentUserAfterWrite();
+            setCacheMode(CacheMode.NORMAL);
+            return source.connect(primary);
+        }
+
+        Replica replica = PRIMARY_ONLY.get() || isCurrentUserPinned() ? null : nextHealthyReplica();
+        if (replica != null) {
+            try {
+                Connection connection = source.connect(replica.dataSource);
+                setCacheMode(CacheMode.GET);
+                replicaReads.increment();
+                return connection;
+            } catch (SQLException ex) {
+                replica.markDown(ex.getMessage());
+            }
+        }
+        setCacheMode(CacheMode.NORMAL);
+        primaryReads.increment();
+        return source.connect(primary);
+    }
+
+    // Applies to the sessions bound to this thread, i.e. the one this connection is being fetched for.
+    // Set on every route because open-in-view keeps a session across the request's transactions.
+    private void setCacheMode(CacheMode cacheMode) {
+        if (replicas.isEmpty()) {
+            return;
+        }
+        for (Object resource : TransactionSynchronizationManager.getResourceMap().values()) {
+            if (resource instanceof EntityManagerHolder holder) {
+                holder.getEntityManager().unwrap(Session.class).setCacheMode(cacheMode);
+            }
+        }
+    }
+
+    private Replica nextHealthyReplica() {
+        int size = replicas.size();
+        int start = Math.floorMod(next.getAndIncrement(), Math.max(size, 1));
+        for (int i = 0; i < size; i++) {
+            Replica replica = replicas.get((start + i) % size);
+            if (replica.healthy) {
+                return replica;
+            }
+        }
+        return null;
+    }
+
+    // Only transactions that wrote something on behalf of a signed-in user pin; read paths without
+    // readOnly, scheduled jobs and Flyway don't. The first statement is recorded before its connection
+    // is fetched, so the flag is cleared when the transaction completes rather than when it routes.
+    private void pinCurrentUserAfterWrite() {
+        if (replicas.isEmpty() || !TransactionSynchronizationManager.isActualTransactionActive()
+                || !TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        Long userId = currentUserId();
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                if (userId != null && WROTE.get()) {
+                    pinnedUntil.put(userId, System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(maxLagInMs));
+                }
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                WROTE.set(false);
+            }
+        });
+    }
+
+    private boolean isCurrentUserPinned() {
+        Long userId = currentUserId();
+        if (userId == null) {
+            return false;
+        }
+        Long until = pinnedUntil.get(userId);
+        return until != null && until - System.nanoTime() > 0;
+    }
+
+    private static Long currentUserId() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.getPrincipal() instanceof UserPrincipal principal) {
+            return principal.getId();
+        }
+        return null;
+    }
+
+    private Counter readCounter(String target) {
+        return Counter.builder("tailpair.datasource.reads")
+            .description("Read-only transactions by the database they were sent to")
+            .tag("target", target)
+            .register(meterRegistry);
+    }
+
+    public interface PrimaryScope extends AutoCloseable {
+        @Override
+        void close();
+    }
+
+    private interface ConnectionSource {
+        Connection connect(DataSource dataSource) throws SQLException;
+    }
+
+    private static class Replica {
+        final HikariDataSource dataSource;
+        // Unused until the first health check has measured its lag
+        volatile boolean healthy = false;
+        volatile double lagInMs;
+
+        Replica(HikariDataSource dataSource) {
+            this.dataSource = dataSource;
+        }
+
+        void markDown(String reason) {
+            if (healthy) {
+                log.warn("Routing reads away from {}: {}", dataSource.getPoolName(), reason);
+            }
+            healthy = false;
+        }
+
+        void markUp() {
+            if (!healthy) {
+                log.info("Routing reads to {} again", dataSource.getPoolName());
+            }
+            healthy = true;
+        }
+    }
+}
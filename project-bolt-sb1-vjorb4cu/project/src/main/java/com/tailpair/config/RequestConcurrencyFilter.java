@@ -0,0 +1,80 @@
+package com.tailpair.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+// Only active with spring.threads.virtual.enabled. Tomcat then starts a virtual thread per request with
+// no pool size to push back, so this caps in-flight requests at requests-per-connection times the Hikari
+// pool size. Requests that can't get a permit within the timeout get a 503 instead of queueing on a
+// database connection. Runs after ResponseCacheFilter, so cached responses never wait for a permit.
+@Component
+@ConditionalOnThreading(Threading.VIRTUAL)
+@Order(ResponseCacheFilter.ORDER + 1)
+public class RequestConcurrencyFilter extends OncePerRequestFilter {
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${spring.datasource.hikari.maximum-pool-size:10}")
+    private int poolSize;
+
+    @Value("${app.virtual-threads.requests-per-connection:2}")
+    private int requestsPerConnection;
+
+    @Value("${app.virtual-threads.acquire-timeout:2000}")
+    private long acquireTimeoutInMs;
+
+    private Semaphore permits;
+    private Counter rejected;
+
+    @PostConstruct
+    public void init() {
+        permits = new Semaphore(poolSize * requestsPerConnection, true);
+        meterRegistry.gauge("tailpair.http.concurrency.available", permits, Semaphore::availablePermits);
+        rejected = Counter.builder("tailpair.http.concurrency.rejected")
+            .description("Requests rejected because the in-flight request limit was reached")
+            .register(meterRegistry);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        boolean acquired;
+        try {
+            acquired = permits.tryAcquire(acquireTimeoutInMs, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            acquired = false;
+        }
+        if (!acquired) {
+            rejected.increment();
+            response.setHeader(HttpHeaders.RETRY_AFTER, "1");
+            response.sendError(HttpServletResponse.SC_SERVICE_UNAVAILABLE);
+            return;
+        }
+
+        // Streaming and SSE responses release the permit once the handler returns and async processing starts
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            permits.release();
+        }
+    }
+}
@@ -0,0 +1,150 @@
+package com.tailpair.config;
+
+import com.tailpair.service.RenderedResponseCache;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.authentication.AuthenticationTrustResolver;
+import org.springframework.security.authentication.AuthenticationTrustResolverImpl;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.util.DigestUtils;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+// Conditional GET and a rendered-response cache for the public animal and shelter endpoints.
+// Anonymous responses are shared and served from RenderedResponseCache; authenticated ones carry
+// per-user favorite flags, so they are only ETagged and marked private. Whether a request is anonymous
+// is read from the security context, however the request was authenticated.
+@Component
+@Order(ResponseCacheFilter.ORDER)
+public class ResponseCacheFilter extends OncePerRequestFilter {
+
+    // After Spring Security's filter chain (-100), whose CORS and header handling cached responses still need
+    public static final int ORDER = 0;
+
+    // Each path with the mapping pattern its controller method is registered under
+    private static final Map<Pattern, String> CACHEABLE_PATHS = Map.of(
+        Pattern.compile("/api/animals/\\d+"), "/api/animals/{id}",
+        Pattern.compile("/api/animals/available"), "/api/animals/available",
+        Pattern.compile("/api/shelters"), "/api/shelters",
+        Pattern.compile("/api/shelters/\\d+"), "/api/shelters/{id}",
+        Pattern.compile("/api/shelters/verified"), "/api/shelters/verified"
+    );
+
+    private final AuthenticationTrustResolver trustResolver = new AuthenticationTrustResolverImpl();
+
+    @Autowired
+    private RenderedResponseCache renderedResponseCache;
+
+    @Value("${app.response-cache.max-age:60}")
+    private long maxAgeInSeconds;
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        if (!"GET".equals(request.getMethod())) {
+            return true;
+        }
+        return mappingPattern(request) == null;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        response.addHeader(HttpHeaders.VARY, HttpHeaders.AUTHORIZATION);
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && !trustResolver.isAnonymous(authentication)) {
+            renderPrivate(request, response, filterChain);
+            return;
+        }
+
+        String key = request.getQueryString() != null
+            ? request.getRequestURI() + "?" + request.getQueryString()
+            : request.getRequestURI();
+        RenderedResponseCache.CachedResponse cached = renderedResponseCache.get(key);
+        if (cached != null) {
+            // Served without touching the controller, service or DTO layer. The request never reaches the
+            // dispatcher, so the mapping pattern is set here for StatementMetricsFilter's uri tag.
+            request.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, mappingPattern(request));
+            response.setHeader(HttpHeaders.CACHE_CONTROL, publicCacheControl());
+            if (new ServletWebRequest(request, response).checkNotModified(cached.getEtag(), cached.getLastModified())) {
+                return;
+            }
+            response.setContentType(cached.getContentType());
+            response.setContentLength(cached.getBody().length);
+            response.getOutputStream().write(cached.getBody());
+            return;
+        }
+
+        long generation = renderedResponseCache.generation();
+        ContentCachingResponseWrapper wrapper = new ContentCachingResponseWrapper(response);
+        // A body rendered from a lagging replica could predate the write that last invalidated the cache
+        try (ReplicaRoutingDataSource.PrimaryScope ignored = ReplicaRoutingDataSource.primaryOnly()) {
+            filterChain.doFilter(request, wrapper);
+        }
+
+        if (wrapper.getStatus() != HttpServletResponse.SC_OK) {
+            wrapper.copyBodyToResponse();
+            return;
+        }
+
+        byte[] body = wrapper.getContentAsByteArray();
+        cached = renderedResponseCache.put(key, generation, body, wrapper.getContentType(), etag(body));
+        response.setHeader(HttpHeaders.CACHE_CONTROL, publicCacheControl());
+        respond(request, response, wrapper, cached.getEtag(), cached.getLastModified());
+    }
+
+    private void renderPrivate(HttpServletRequest request, HttpServletResponse response,
+                               FilterChain filterChain) throws ServletException, IOException {
+        ContentCachingResponseWrapper wrapper = new ContentCachingResponseWrapper(response);
+        filterChain.doFilter(request, wrapper);
+
+        if (wrapper.getStatus() != HttpServletResponse.SC_OK) {
+            wrapper.copyBodyToResponse();
+            return;
+        }
+
+        response.setHeader(HttpHeaders.CACHE_CONTROL, CacheControl.noCache().cachePrivate().getHeaderValue());
+        respond(request, response, wrapper, etag(wrapper.getContentAsByteArray()), -1);
+    }
+
+    private void respond(HttpServletRequest request, HttpServletResponse response, ContentCachingResponseWrapper wrapper,
+                         String etag, long lastModified) throws IOException {
+        if (new ServletWebRequest(request, response).checkNotModified(etag, lastModified)) {
+            wrapper.resetBuffer();
+            return;
+        }
+        wrapper.copyBodyToResponse();
+    }
+
+    private String mappingPattern(HttpServletRequest request) {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        return CACHEABLE_PATHS.entrySet().stream()
+            .filter(entry -> entry.getKey().matcher(path).matches())
+            .map(Map.Entry::getValue)
+            .findFirst()
+            .orElse(null);
+    }
+
+    private String publicCacheControl() {
+        return CacheControl.maxAge(maxAgeInSeconds, TimeUnit.SECONDS).cachePublic().getHeaderValue();
+    }
+
+    private String etag(byte[] body) {
+        return "\"" + DigestUtils.md5DigestAsHex(body) + "\"";
+    }
+}
@@ -4,8 +4,10 @@ import com.tailpair.security.CustomUserDetailsService;
 import com.tailpair.security.JwtAuthenticationFilter;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.autoconfigure.security.servlet.EndpointRequest;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.annotation.Order;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
 import org.springframework.security.config.annotation.authentication.configuration.AuthenticationConfiguration;
@@ -37,6 +39,10 @@ public class SecurityConfig {
     @Value("${app.cors.allowed-origins}")
     private String[] allowedOrigins;
     
+    // -1 when actuator shares the application port (or has no server, as in tests)
+    @Value("${management.server.port:-1}")
+    private int managementPort;
+    
     @Bean
     public PasswordEncoder passwordEncoder() {
         return new BCryptPasswordEncoder();
@@ -55,18 +61,38 @@ public class SecurityConfig {
         return config.getAuthenticationManager();
     }
     
+    // Actuator on its own port, which only the scraper can reach; the main chain below never sees those
+    // requests. On the application port only health is public and the other endpoints need ADMIN.
+    @Bean
+    @Order(1)
+    public SecurityFilterChain managementFilterChain(HttpSecurity http) throws Exception {
+        http.securityMatcher(request -> managementPort > 0 && request.getLocalPort() == managementPort)
+            .csrf(csrf -> csrf.disable())
+            .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
+            .authorizeHttpRequests(authz -> authz
+                .requestMatchers(EndpointRequest.toAnyEndpoint()).permitAll()
+                .anyRequest().denyAll()
+            );
+        
+        return http.build();
+    }
+    
     @Bean
+    @Order(2)
     public SecurityFilterChain filterChain(HttpSecurity http) throws Exception {
         http.cors(cors -> cors.configurationSource(corsConfigurationSource()))
             .csrf(csrf -> csrf.disable())
             .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
             .authorizeHttpRequests(authz -> authz
                 .requestMatchers("/api/auth/**").permitAll()
-                .requestMatchers("/api/animals/available", "/api/animals/search", "/api/animals/filter").permitAll()
+                .requestMatchers("/api/animals/available", "/api/animals/available/feed", "/api/animals/search", "/api/animals/filter").permitAll()
+                .requestMatchers("/api/animals/nearby", "/api/shelters/nearby", "/api/shelters/nearest").permitAll()
                 .requestMatchers("/api/animals/{id}").permitAll()
                 .requestMatchers("/api/shelters", "/api/shelters/{id}", "/api/shelters/verified").permitAll()
                 .requestMatchers("/api/shelters/search", "/api/shelters/location", "/api/shelters/zipcode/**").permitAll()
                 .requestMatchers("/api/users/exists/**").permitAll()
+                .requestMatchers("/actuator/health").permitAll()
+                .requestMatchers("/actuator/**").hasRole("ADMIN")
                 .anyRequest().authenticated()
             );
         
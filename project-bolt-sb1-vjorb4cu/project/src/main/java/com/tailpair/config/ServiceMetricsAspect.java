@@ -0,0 +1,54 @@
+package com.tailpair.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+
+// Times every public method of every @Service bean as tailpair.service{class, method, exception}
+@Aspect
+@Component
+public class ServiceMetricsAspect {
+    
+    public static final String METRIC_NAME = "tailpair.service";
+    
+    @Autowired
+    private MeterRegistry meterRegistry;
+    
+    // Success timers are looked up on every call, so they are cached per method
+    private final ConcurrentMap<Method, Timer> timers = new ConcurrentHashMap<>();
+    
+    @Around("@within(org.springframework.stereotype.Service) && execution(public * com.tailpair.service..*(..))")
+    public Object time(ProceedingJoinPoint joinPoint) throws Throwable {
+        Method method = ((MethodSignature) joinPoint.getSignature()).getMethod();
+        long start = System.nanoTime();
+        try {
+            Object result = joinPoint.proceed();
+            timers.computeIfAbsent(method, m -> timer(joinPoint, "none"))
+                .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            return result;
+        } catch (Throwable ex) {
+            timer(joinPoint, ex.getClass().getSimpleName())
+                .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            throw ex;
+        }
+    }
+    
+    private Timer timer(ProceedingJoinPoint joinPoint, String exception) {
+        return Timer.builder(METRIC_NAME)
+            .description("Latency of service method calls")
+            .tag("class", joinPoint.getSignature().getDeclaringType().getSimpleName())
+            .tag("method", joinPoint.getSignature().getName())
+            .tag("exception", exception)
+            .register(meterRegistry);
+    }
+}
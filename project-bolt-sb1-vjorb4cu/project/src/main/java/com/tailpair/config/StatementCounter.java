@@ -0,0 +1,36 @@
+package com.tailpair.config;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+// Registered through hibernate.session_factory.statement_inspector; counts the SQL statements
+// Hibernate prepares on the current thread so StatementMetricsFilter can report them per request.
+// Inserts, updates and deletes are also reported to ReplicaRoutingDataSource for read-your-writes.
+public class StatementCounter implements StatementInspector {
+    
+    private static final ThreadLocal<int[]> COUNT = ThreadLocal.withInitial(() -> new int[1]);
+    
+    @Override
+    public String inspect(String sql) {
+        COUNT.get()[0]++;
+        if (isWrite(sql)) {
+            ReplicaRoutingDataSource.recordWrite();
+        }
+        return sql;
+    }
+    
+    private static boolean isWrite(String sql) {
+        String statement = sql.stripLeading();
+        return statement.regionMatches(true, 0, "insert", 0, 6)
+            || statement.regionMatches(true, 0, "update", 0, 6)
+            || statement.regionMatches(true, 0, "delete", 0, 6)
+            || statement.regionMatches(true, 0, "merge", 0, 5);
+    }
+    
+    public static void reset() {
+        COUNT.get()[0] = 0;
+    }
+    
+    public static int count() {
+        return COUNT.get()[0];
+    }
+}
@@ -1,18 +1,33 @@
 package com.tailpair.controller;
 
 import com.tailpair.dto.AnimalDto;
+import com.tailpair.dto.AnimalFilterPage;
+import com.tailpair.dto.AnimalImportResult;
+import com.tailpair.dto.AnimalSummaryDto;
+import com.tailpair.dto.CursorPage;
 import com.tailpair.entity.Animal;
 import com.tailpair.security.UserPrincipal;
+import com.tailpair.service.AnimalBulkService;
 import com.tailpair.service.AnimalService;
+import com.tailpair.service.GeoPoint;
+import com.tailpair.service.ShelterGeoIndex;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
 
 @RestController
@@ -20,9 +35,17 @@ import java.util.List;
 @CrossOrigin(origins = "*")
 public class AnimalController {
     
+    private static final String TEXT_CSV = "text/csv";
+    
     @Autowired
     private AnimalService animalService;
     
+    @Autowired
+    private AnimalBulkService animalBulkService;
+    
+    @Autowired
+    private ShelterGeoIndex shelterGeoIndex;
+    
     @PostMapping
     @PreAuthorize("hasRole('SHELTER_ADMIN') or hasRole('ADMIN')")
     public ResponseEntity<AnimalDto> createAnimal(@Valid @RequestBody AnimalDto animalDto, 
@@ -55,21 +78,32 @@ public class AnimalController {
     }
     
     @GetMapping("/available")
-    public ResponseEntity<Page<AnimalDto>> getAvailableAnimals(Pageable pageable,
+    public ResponseEntity<Page<AnimalSummaryDto>> getAvailableAnimals(Pageable pageable,
                                                                @AuthenticationPrincipal UserPrincipal userPrincipal) {
         Long userId = userPrincipal != null ? userPrincipal.getId() : null;
-        Page<AnimalDto> animals = animalService.getAvailableAnimals(pageable, userId);
+        Page<AnimalSummaryDto> animals = animalService.getAvailableAnimals(pageable, userId);
+        return ResponseEntity.ok(animals);
+    }
+    
+    @GetMapping("/available/feed")
+    public ResponseEntity<CursorPage<AnimalSummaryDto>> getAvailableAnimalsFeed(@RequestParam(required = false) String cursor,
+                                                                         @RequestParam(defaultValue = "20") int size,
+                                                                         @AuthenticationPrincipal UserPrincipal userPrincipal) {
+        Long userId = userPrincipal != null ? userPrincipal.getId() : null;
+        CursorPage<AnimalSummaryDto> animals = animalService.getAvailableAnimalsFeed(cursor, size, userId);
         return ResponseEntity.ok(animals);
     }
     
     @GetMapping("/search")
-    public ResponseEntity<Page<AnimalDto>> searchAnimals(@RequestParam String q, Pageable pageable) {
-        Page<AnimalDto> animals = animalService.searchAnimals(q, pageable);
+    public ResponseEntity<Page<AnimalSummaryDto>> searchAnimals(@RequestParam String q, Pageable pageable,
+                                                         @AuthenticationPrincipal UserPrincipal userPrincipal) {
+        Long userId = userPrincipal != null ? userPrincipal.getId() : null;
+        Page<AnimalSummaryDto> animals = animalService.searchAnimals(q, pageable, userId);
         return ResponseEntity.ok(animals);
     }
     
     @GetMapping("/filter")
-    public ResponseEntity<Page<AnimalDto>> filterAnimals(
+    public ResponseEntity<AnimalFilterPage> filterAnimals(
             @RequestParam(required = false) Animal.Species species,
             @RequestParam(required = false) String breed,
             @RequestParam(required = false) Animal.Size size,
@@ -79,18 +113,33 @@ public class AnimalController {
             @RequestParam(required = false) Boolean goodWithKids,
             @RequestParam(required = false) Boolean goodWithPets,
             @RequestParam(required = false) Boolean houseTrained,
-            Pageable pageable) {
+            Pageable pageable,
+            @AuthenticationPrincipal UserPrincipal userPrincipal) {
         
-        Page<AnimalDto> animals = animalService.filterAnimals(
+        Long userId = userPrincipal != null ? userPrincipal.getId() : null;
+        AnimalFilterPage animals = animalService.filterAnimals(
             species, breed, size, gender, minAge, maxAge, 
-            goodWithKids, goodWithPets, houseTrained, pageable);
+            goodWithKids, goodWithPets, houseTrained, pageable, userId);
+        return ResponseEntity.ok(animals);
+    }
+    
+    @GetMapping("/nearby")
+    public ResponseEntity<Page<AnimalSummaryDto>> getAvailableAnimalsNearby(@RequestParam(required = false) String zipCode,
+                                                                     @RequestParam(required = false) Double latitude,
+                                                                     @RequestParam(required = false) Double longitude,
+                                                                     @RequestParam(defaultValue = "25") double radiusMiles,
+                                                                     Pageable pageable,
+                                                                     @AuthenticationPrincipal UserPrincipal userPrincipal) {
+        Long userId = userPrincipal != null ? userPrincipal.getId() : null;
+        GeoPoint origin = shelterGeoIndex.origin(zipCode, latitude, longitude);
+        Page<AnimalSummaryDto> animals = animalService.getAvailableAnimalsNear(origin, radiusMiles, pageable, userId);
         return ResponseEntity.ok(animals);
     }
     
     @GetMapping("/shelter/{shelterId}")
-    public ResponseEntity<Page<AnimalDto>> getAnimalsByShelterId(@PathVariable Long shelterId, 
+    public ResponseEntity<Page<AnimalSummaryDto>> getAnimalsByShelterId(@PathVariable Long shelterId, 
                                                                  Pageable pageable) {
-        Page<AnimalDto> animals = animalService.getAnimalsByShelterId(shelterId, pageable);
+        Page<AnimalSummaryDto> animals = animalService.getAnimalsByShelterId(shelterId, pageable);
         return ResponseEntity.ok(animals);
     }
     
@@ -101,6 +150,54 @@ public class AnimalController {
         return ResponseEntity.ok(animals);
     }
     
+    // Bodies are read as streams, so uploads of any size are parsed without being buffered
+    @PostMapping(value = "/import", consumes = TEXT_CSV)
+    @PreAuthorize("hasRole('SHELTER_ADMIN') or hasRole('ADMIN')")
+    public ResponseEntity<AnimalImportResult> importAnimalsCsv(@RequestParam Long shelterId,
+                                                               InputStream body,
+                                                               @AuthenticationPrincipal UserPrincipal userPrincipal) throws IOException {
+        animalBulkService.requireShelterAccess(shelterId, userPrincipal);
+        AnimalImportResult result = animalBulkService.importCsv(shelterId,
+            new InputStreamReader(body, StandardCharsets.UTF_8));
+        return ResponseEntity.ok(result);
+    }
+    
+    @PostMapping(value = "/import", consumes = MediaType.APPLICATION_NDJSON_VALUE)
+    @PreAuthorize("hasRole('SHELTER_ADMIN') or hasRole('ADMIN')")
+    public ResponseEntity<AnimalImportResult> importAnimalsNdjson(@RequestParam Long shelterId,
+                                                                  InputStream body,
+                                                                  @AuthenticationPrincipal UserPrincipal userPrincipal) throws IOException {
+        animalBulkService.requireShelterAccess(shelterId, userPrincipal);
+        AnimalImportResult result = animalBulkService.importNdjson(shelterId,
+            new InputStreamReader(body, StandardCharsets.UTF_8));
+        return ResponseEntity.ok(result);
+    }
+    
+    @GetMapping("/shelter/{shelterId}/export")
+    @PreAuthorize("hasRole('SHELTER_ADMIN') or hasRole('ADMIN')")
+    public ResponseEntity<StreamingResponseBody> exportAnimals(@PathVariable Long shelterId,
+                                                               @RequestParam(defaultValue = "ndjson") String format,
+                                                               @AuthenticationPrincipal UserPrincipal userPrincipal) {
+        animalBulkService.requireShelterAccess(shelterId, userPrincipal);
+        boolean csv = format.equalsIgnoreCase("csv");
+        if (!csv && !format.equalsIgnoreCase("ndjson")) {
+            throw new IllegalArgumentException("Unsupported export format: " + format);
+        }
+        
+        StreamingResponseBody body = output -> {
+            Writer writer = new OutputStreamWriter(output, StandardCharsets.UTF_8);
+            if (csv) {
+                animalBulkService.exportCsv(shelterId, writer);
+            } else {
+                animalBulkService.exportNdjson(shelterId, writer);
+            }
+        };
+        return ResponseEntity.ok()
+            .contentType(csv ? MediaType.parseMediaType(TEXT_CSV) : MediaType.APPLICATION_NDJSON)
+            .header("Content-Disposition", "attachment; filename=\"shelter-" + shelterId + "-animals." + format.toLowerCase() + "\"")
+            .body(body);
+    }
+    
     @GetMapping("/shelter/{shelterId}/count")
     public ResponseEntity<Long> getAvailableAnimalsCountByShelterId(@PathVariable Long shelterId) {
         long count = animalService.getAvailableAnimalsCountByShelterId(shelterId);
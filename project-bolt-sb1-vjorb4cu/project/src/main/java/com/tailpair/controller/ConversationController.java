@@ -0,0 +1,55 @@
+package com.tailpair.controller;
+
+import com.tailpair.dto.ConversationDto;
+import com.tailpair.dto.CursorPage;
+import com.tailpair.dto.MessageDto;
+import com.tailpair.security.UserPrincipal;
+import com.tailpair.service.ConversationService;
+import com.tailpair.service.MessageService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/conversations")
+@CrossOrigin(origins = "*")
+public class ConversationController {
+    
+    @Autowired
+    private ConversationService conversationService;
+    
+    @Autowired
+    private MessageService messageService;
+    
+    @GetMapping
+    public ResponseEntity<CursorPage<ConversationDto>> getInbox(@AuthenticationPrincipal UserPrincipal userPrincipal,
+                                                                @RequestParam(required = false) String cursor,
+                                                                @RequestParam(defaultValue = "20") int size) {
+        CursorPage<ConversationDto> conversations = conversationService.getInbox(userPrincipal.getId(), cursor, size);
+        return ResponseEntity.ok(conversations);
+    }
+    
+    @GetMapping("/{id}")
+    public ResponseEntity<ConversationDto> getConversation(@PathVariable Long id,
+                                                           @AuthenticationPrincipal UserPrincipal userPrincipal) {
+        ConversationDto conversation = conversationService.getConversation(id, userPrincipal.getId());
+        return ResponseEntity.ok(conversation);
+    }
+    
+    @GetMapping("/{id}/messages")
+    public ResponseEntity<CursorPage<MessageDto>> getMessages(@PathVariable Long id,
+                                                              @AuthenticationPrincipal UserPrincipal userPrincipal,
+                                                              @RequestParam(required = false) String cursor,
+                                                              @RequestParam(defaultValue = "20") int size) {
+        CursorPage<MessageDto> messages = conversationService.getMessages(id, userPrincipal.getId(), cursor, size);
+        return ResponseEntity.ok(messages);
+    }
+    
+    @PutMapping("/{id}/read")
+    public ResponseEntity<ConversationDto> markAsRead(@PathVariable Long id,
+                                                      @AuthenticationPrincipal UserPrincipal userPrincipal) {
+        ConversationDto conversation = messageService.markConversationAsRead(id, userPrincipal.getId());
+        return ResponseEntity.ok(conversation);
+    }
+}
@@ -0,0 +1,40 @@
+package com.tailpair.controller;
+
+import com.tailpair.dto.EventStreamTokenResponse;
+import com.tailpair.security.JwtTokenProvider;
+import com.tailpair.security.UserPrincipal;
+import com.tailpair.service.EventStreamService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+@RestController
+@RequestMapping("/api/events")
+@CrossOrigin(origins = "*")
+public class EventStreamController {
+    
+    @Autowired
+    private EventStreamService eventStreamService;
+    
+    @Autowired
+    private JwtTokenProvider tokenProvider;
+    
+    // Accepts the Authorization header, or ?token= from POST /api/events/token for EventSource.
+    // lastEventId lets a new EventSource resume where a previous one stopped.
+    @GetMapping(produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter subscribe(@AuthenticationPrincipal UserPrincipal userPrincipal,
+                                @RequestHeader(value = "Last-Event-ID", required = false) String lastEventId,
+                                @RequestParam(value = "lastEventId", required = false) String lastEventIdParam) {
+        return eventStreamService.subscribe(userPrincipal.getId(), lastEventId != null ? lastEventId : lastEventIdParam);
+    }
+    
+    @PostMapping("/token")
+    public ResponseEntity<EventStreamTokenResponse> createStreamToken(@AuthenticationPrincipal UserPrincipal userPrincipal) {
+        return ResponseEntity.ok(new EventStreamTokenResponse(
+            tokenProvider.generateEventStreamToken(userPrincipal.getId()),
+            tokenProvider.getEventStreamExpirationInMs()));
+    }
+}
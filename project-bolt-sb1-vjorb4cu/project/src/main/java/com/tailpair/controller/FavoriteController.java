@@ -1,6 +1,6 @@
 package com.tailpair.controller;
 
-import com.tailpair.dto.AnimalDto;
+import com.tailpair.dto.AnimalSummaryDto;
 import com.tailpair.security.UserPrincipal;
 import com.tailpair.service.FavoriteService;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -40,9 +40,9 @@ public class FavoriteController {
     }
     
     @GetMapping
-    public ResponseEntity<Page<AnimalDto>> getFavoriteAnimals(@AuthenticationPrincipal UserPrincipal userPrincipal,
+    public ResponseEntity<Page<AnimalSummaryDto>> getFavoriteAnimals(@AuthenticationPrincipal UserPrincipal userPrincipal,
                                                               Pageable pageable) {
-        Page<AnimalDto> favoriteAnimals = favoriteService.getFavoriteAnimals(userPrincipal.getId(), pageable);
+        Page<AnimalSummaryDto> favoriteAnimals = favoriteService.getFavoriteAnimals(userPrincipal.getId(), pageable);
         return ResponseEntity.ok(favoriteAnimals);
     }
     
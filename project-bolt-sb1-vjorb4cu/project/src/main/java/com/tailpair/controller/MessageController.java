@@ -1,5 +1,6 @@
 package com.tailpair.controller;
 
+import com.tailpair.dto.CursorPage;
 import com.tailpair.dto.MessageDto;
 import com.tailpair.security.UserPrincipal;
 import com.tailpair.service.MessageService;
@@ -53,6 +54,14 @@ public class MessageController {
         return ResponseEntity.ok(messages);
     }
     
+    @GetMapping("/user/feed")
+    public ResponseEntity<CursorPage<MessageDto>> getMessageFeed(@AuthenticationPrincipal UserPrincipal userPrincipal,
+                                                                 @RequestParam(required = false) String cursor,
+                                                                 @RequestParam(defaultValue = "20") int size) {
+        CursorPage<MessageDto> messages = messageService.getMessageFeed(userPrincipal.getId(), cursor, size);
+        return ResponseEntity.ok(messages);
+    }
+    
     @GetMapping("/sent")
     public ResponseEntity<Page<MessageDto>> getSentMessages(@AuthenticationPrincipal UserPrincipal userPrincipal,
                                                             Pageable pageable) {
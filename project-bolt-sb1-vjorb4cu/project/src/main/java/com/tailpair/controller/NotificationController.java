@@ -1,5 +1,6 @@
 package com.tailpair.controller;
 
+import com.tailpair.dto.CursorPage;
 import com.tailpair.dto.NotificationDto;
 import com.tailpair.entity.Notification;
 import com.tailpair.security.UserPrincipal;
@@ -56,6 +57,14 @@ public class NotificationController {
         return ResponseEntity.ok(notifications);
     }
     
+    @GetMapping("/user/feed")
+    public ResponseEntity<CursorPage<NotificationDto>> getNotificationFeed(@AuthenticationPrincipal UserPrincipal userPrincipal,
+                                                                           @RequestParam(required = false) String cursor,
+                                                                           @RequestParam(defaultValue = "20") int size) {
+        CursorPage<NotificationDto> notifications = notificationService.getNotificationFeed(userPrincipal.getId(), cursor, size);
+        return ResponseEntity.ok(notifications);
+    }
+    
     @GetMapping("/unread")
     public ResponseEntity<Page<NotificationDto>> getUnreadNotifications(@AuthenticationPrincipal UserPrincipal userPrincipal,
                                                                         Pageable pageable) {
@@ -1,6 +1,8 @@
 package com.tailpair.controller;
 
 import com.tailpair.dto.ShelterDto;
+import com.tailpair.service.GeoPoint;
+import com.tailpair.service.ShelterGeoIndex;
 import com.tailpair.service.ShelterService;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -20,6 +22,9 @@ public class ShelterController {
     @Autowired
     private ShelterService shelterService;
     
+    @Autowired
+    private ShelterGeoIndex shelterGeoIndex;
+    
     @PostMapping
     @PreAuthorize("hasRole('SHELTER_ADMIN') or hasRole('ADMIN')")
     public ResponseEntity<ShelterDto> createShelter(@Valid @RequestBody ShelterDto shelterDto, 
@@ -87,6 +92,27 @@ public class ShelterController {
         return ResponseEntity.ok(shelters);
     }
     
+    @GetMapping("/nearby")
+    public ResponseEntity<List<ShelterDto>> getSheltersNearby(@RequestParam(required = false) String zipCode,
+                                                              @RequestParam(required = false) Double latitude,
+                                                              @RequestParam(required = false) Double longitude,
+                                                              @RequestParam(defaultValue = "25") double radiusMiles,
+                                                              @RequestParam(defaultValue = "50") int limit) {
+        GeoPoint origin = shelterGeoIndex.origin(zipCode, latitude, longitude);
+        List<ShelterDto> shelters = shelterService.getSheltersNear(origin, radiusMiles, Math.min(limit, 500));
+        return ResponseEntity.ok(shelters);
+    }
+    
+    @GetMapping("/nearest")
+    public ResponseEntity<List<ShelterDto>> getNearestShelters(@RequestParam(required = false) String zipCode,
+                                                               @RequestParam(required = false) Double latitude,
+                                                               @RequestParam(required = false) Double longitude,
+                                                               @RequestParam(defaultValue = "10") int limit) {
+        GeoPoint origin = shelterGeoIndex.origin(zipCode, latitude, longitude);
+        List<ShelterDto> shelters = shelterService.getNearestShelters(origin, Math.min(limit, 100));
+        return ResponseEntity.ok(shelters);
+    }
+    
     @PutMapping("/{id}/verify")
     @PreAuthorize("hasRole('ADMIN')")
     public ResponseEntity<ShelterDto> verifyShelter(@PathVariable Long id) {
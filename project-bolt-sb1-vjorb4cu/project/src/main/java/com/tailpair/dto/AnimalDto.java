@@ -55,7 +55,8 @@ public class AnimalDto {
     @Positive
     private BigDecimal adoptionFee;
     
-    private Set<String> imageUrls;
+    // animal_images.image_url is VARCHAR(255)
+    private Set<@Size(max = 255) String> imageUrls;
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
     
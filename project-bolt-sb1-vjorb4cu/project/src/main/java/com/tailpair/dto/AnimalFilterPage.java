@@ -0,0 +1,19 @@
+package com.tailpair.dto;
+
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+
+import java.util.List;
+import java.util.Map;
+
+public class AnimalFilterPage extends PageImpl<AnimalSummaryDto> {
+    private final Map<String, Map<String, Long>> facets;
+
+    public AnimalFilterPage(List<AnimalSummaryDto> content, Pageable pageable, long total,
+                            Map<String, Map<String, Long>> facets) {
+        super(content, pageable, total);
+        this.facets = facets;
+    }
+
+    public Map<String, Map<String, Long>> getFacets() { return facets; }
+}
@@ -0,0 +1,121 @@
+package com.tailpair.dto;
+
+import com.tailpair.entity.Animal;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+// Card-level view of an animal for list endpoints. Built by JPQL constructor expressions
+// (AnimalRepository.SUMMARY), so listing animals never loads Animal entities.
+public class AnimalSummaryDto {
+    private Long id;
+    private String name;
+    private Animal.Species species;
+    private String breed;
+    private Integer age;
+    private Animal.Gender gender;
+    private Animal.Size size;
+    private Animal.Status status;
+    private BigDecimal adoptionFee;
+    private String description;
+    private boolean vaccinated;
+    private boolean spayedNeutered;
+    private boolean houseTrained;
+    private boolean goodWithKids;
+    private String imageUrl;
+    private LocalDateTime createdAt;
+    
+    private Long shelterId;
+    private String shelterName;
+    private boolean isFavorited;
+    private Double distanceMiles;
+
+    // Constructors
+    public AnimalSummaryDto() {}
+
+    public AnimalSummaryDto(Long id, String name, Animal.Species species, String breed, Integer age,
+                            Animal.Gender gender, Animal.Size size, Animal.Status status, BigDecimal adoptionFee,
+                            String description, boolean vaccinated, boolean spayedNeutered, boolean houseTrained,
+                            boolean goodWithKids, LocalDateTime createdAt, Long shelterId, String shelterName,
+                            String imageUrl) {
+        this.id = id;
+        this.name = name;
+        this.species = species;
+        this.breed = breed;
+        this.age = age;
+        this.gender = gender;
+        this.size = size;
+        this.status = status;
+        this.adoptionFee = adoptionFee;
+        this.description = description;
+        this.vaccinated = vaccinated;
+        this.spayedNeutered = spayedNeutered;
+        this.houseTrained = houseTrained;
+        this.goodWithKids = goodWithKids;
+        this.createdAt = createdAt;
+        this.shelterId = shelterId;
+        this.shelterName = shelterName;
+        this.imageUrl = imageUrl;
+    }
+
+    // Getters and Setters
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    public String getName() { return name; }
+    public void setName(String name) { this.name = name; }
+
+    public Animal.Species getSpecies() { return species; }
+    public void setSpecies(Animal.Species species) { this.species = species; }
+
+    public String getBreed() { return breed; }
+    public void setBreed(String breed) { this.breed = breed; }
+
+    public Integer getAge() { return age; }
+    public void setAge(Integer age) { this.age = age; }
+
+    public Animal.Gender getGender() { return gender; }
+    public void setGender(Animal.Gender gender) { this.gender = gender; }
+
+    public Animal.Size getSize() { return size; }
+    public void setSize(Animal.Size size) { this.size = size; }
+
+    public Animal.Status getStatus() { return status; }
+    public void setStatus(Animal.Status status) { this.status = status; }
+
+    public BigDecimal getAdoptionFee() { return adoptionFee; }
+    public void setAdoptionFee(BigDecimal adoptionFee) { this.adoptionFee = adoptionFee; }
+
+    public String getDescription() { return description; }
+    public void setDescription(String description) { this.description = description; }
+
+    public boolean isVaccinated() { return vaccinated; }
+    public void setVaccinated(boolean vaccinated) { this.vaccinated = vaccinated; }
+
+    public boolean isSpayedNeutered() { return spayedNeutered; }
+    public void setSpayedNeutered(boolean spayedNeutered) { this.spayedNeutered = spayedNeutered; }
+
+    public boolean isHouseTrained() { return houseTrained; }
+    public void setHouseTrained(boolean houseTrained) { this.houseTrained = houseTrained; }
+
+    public boolean isGoodWithKids() { return goodWithKids; }
+    public void setGoodWithKids(boolean goodWithKids) { this.goodWithKids = goodWithKids; }
+
+    public String getImageUrl() { return imageUrl; }
+    public void setImageUrl(String imageUrl) { this.imageUrl = imageUrl; }
+
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
+
+    public Long getShelterId() { return shelterId; }
+    public void setShelterId(Long shelterId) { this.shelterId = shelterId; }
+
+    public String getShelterName() { return shelterName; }
+    public void setShelterName(String shelterName) { this.shelterName = shelterName; }
+
+    public boolean isFavorited() { return isFavorited; }
+    public void setFavorited(boolean favorited) { isFavorited = favorited; }
+
+    public Double getDistanceMiles() { return distanceMiles; }
+    public void setDistanceMiles(Double distanceMiles) { this.distanceMiles = distanceMiles; }
+}
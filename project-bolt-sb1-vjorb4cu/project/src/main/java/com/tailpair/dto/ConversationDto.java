@@ -0,0 +1,74 @@
+package com.tailpair.dto;
+
+import com.tailpair.entity.Conversation;
+import com.tailpair.entity.ConversationParticipant;
+import com.tailpair.entity.User;
+
+import java.time.LocalDateTime;
+
+public class ConversationDto {
+    private Long id;
+    private Long animalId;
+    private String animalName;
+    private Long otherParticipantId;
+    private String otherParticipantName;
+    private String lastMessageSnippet;
+    private LocalDateTime lastMessageAt;
+    private Long lastSenderId;
+    private int unreadCount;
+
+    // Constructors
+    public ConversationDto() {}
+
+    // Built from the viewing user's side of the conversation
+    public ConversationDto(ConversationParticipant participant) {
+        Conversation conversation = participant.getConversation();
+        this.id = conversation.getId();
+        this.lastMessageSnippet = conversation.getLastMessageSnippet();
+        this.lastMessageAt = conversation.getLastMessageAt();
+        this.unreadCount = participant.getUnreadCount();
+        
+        if (conversation.getLastSender() != null) {
+            this.lastSenderId = conversation.getLastSender().getId();
+        }
+        
+        User other = conversation.getParticipantOne().getId().equals(participant.getUser().getId())
+            ? conversation.getParticipantTwo()
+            : conversation.getParticipantOne();
+        this.otherParticipantId = other.getId();
+        this.otherParticipantName = other.getFirstName() + " " + other.getLastName();
+        
+        if (conversation.getAnimal() != null) {
+            this.animalId = conversation.getAnimal().getId();
+            this.animalName = conversation.getAnimal().getName();
+        }
+    }
+
+    // Getters and Setters
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    public Long getAnimalId() { return animalId; }
+    public void setAnimalId(Long animalId) { this.animalId = animalId; }
+
+    public String getAnimalName() { return animalName; }
+    public void setAnimalName(String animalName) { this.animalName = animalName; }
+
+    public Long getOtherParticipantId() { return otherParticipantId; }
+    public void setOtherParticipantId(Long otherParticipantId) { this.otherParticipantId = otherParticipantId; }
+
+    public String getOtherParticipantName() { return otherParticipantName; }
+    public void setOtherParticipantName(String otherParticipantName) { this.otherParticipantName = otherParticipantName; }
+
+    public String getLastMessageSnippet() { return lastMessageSnippet; }
+    public void setLastMessageSnippet(String lastMessageSnippet) { this.lastMessageSnippet = lastMessageSnippet; }
+
+    public LocalDateTime getLastMessageAt() { return lastMessageAt; }
+    public void setLastMessageAt(LocalDateTime lastMessageAt) { this.lastMessageAt = lastMessageAt; }
+
+    public Long getLastSenderId() { return lastSenderId; }
+    public void setLastSenderId(Long lastSenderId) { this.lastSenderId = lastSenderId; }
+
+    public int getUnreadCount() { return unreadCount; }
+    public void setUnreadCount(int unreadCount) { this.unreadCount = unreadCount; }
+}
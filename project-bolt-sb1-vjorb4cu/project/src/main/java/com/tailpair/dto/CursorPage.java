@@ -0,0 +1,79 @@
+package com.tailpair.dto;
+
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.List;
+import java.util.function.Function;
+
+public class CursorPage<T> {
+    public static final int MAX_SIZE = 100;
+
+    private List<T> content;
+    private String nextCursor;
+    private boolean hasNext;
+
+    // Constructors
+    public CursorPage(List<T> content, String nextCursor, boolean hasNext) {
+        this.content = content;
+        this.nextCursor = nextCursor;
+        this.hasNext = hasNext;
+    }
+
+    public static <E, T> CursorPage<T> of(Slice<E> slice,
+                                          Function<E, T> mapper,
+                                          Function<E, LocalDateTime> createdAt,
+                                          Function<E, Long> id) {
+        List<E> items = slice.getContent();
+        String nextCursor = null;
+        if (slice.hasNext() && !items.isEmpty()) {
+            E last = items.get(items.size() - 1);
+            nextCursor = encodeCursor(createdAt.apply(last), id.apply(last));
+        }
+        return new CursorPage<>(items.stream().map(mapper).toList(), nextCursor, slice.hasNext());
+    }
+
+    // Sort order comes from the query itself; the slice only carries the limit
+    public static Pageable limit(int size) {
+        return PageRequest.of(0, Math.min(Math.max(size, 1), MAX_SIZE));
+    }
+
+    // Opaque continuation token over the (createdAt, id) sort key of the last item returned
+    public static String encodeCursor(LocalDateTime createdAt, Long id) {
+        String raw = createdAt + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static Cursor decodeCursor(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int separator = raw.lastIndexOf('|');
+            return new Cursor(LocalDateTime.parse(raw.substring(0, separator)), Long.parseLong(raw.substring(separator + 1)));
+        } catch (IllegalArgumentException | IndexOutOfBoundsException | DateTimeParseException ex) {
+            throw new IllegalArgumentException("Invalid cursor: " + token);
+        }
+    }
+
+    // Getters
+    public List<T> getContent() { return content; }
+    public String getNextCursor() { return nextCursor; }
+    public boolean isHasNext() { return hasNext; }
+
+    public static class Cursor {
+        private final LocalDateTime createdAt;
+        private final Long id;
+
+        public Cursor(LocalDateTime createdAt, Long id) {
+            this.createdAt = createdAt;
+            this.id = id;
+        }
+
+        public LocalDateTime getCreatedAt() { return createdAt; }
+        public Long getId() { return id; }
+    }
+}
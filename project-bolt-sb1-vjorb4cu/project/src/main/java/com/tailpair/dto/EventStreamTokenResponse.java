@@ -0,0 +1,21 @@
+package com.tailpair.dto;
+
+public class EventStreamTokenResponse {
+    private String token;
+    private long expiresInMs;
+
+    // Constructors
+    public EventStreamTokenResponse() {}
+
+    public EventStreamTokenResponse(String token, long expiresInMs) {
+        this.token = token;
+        this.expiresInMs = expiresInMs;
+    }
+
+    // Getters and Setters
+    public String getToken() { return token; }
+    public void setToken(String token) { this.token = token; }
+
+    public long getExpiresInMs() { return expiresInMs; }
+    public void setExpiresInMs(long expiresInMs) { this.expiresInMs = expiresInMs; }
+}
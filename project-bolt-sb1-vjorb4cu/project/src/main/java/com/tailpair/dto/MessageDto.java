@@ -26,6 +26,7 @@ public class MessageDto {
     private String recipientName;
     private Long animalId;
     private String animalName;
+    private Long conversationId;
 
     // Constructors
     public MessageDto() {}
@@ -51,6 +52,10 @@ public class MessageDto {
             this.animalId = message.getAnimal().getId();
             this.animalName = message.getAnimal().getName();
         }
+        
+        if (message.getConversation() != null) {
+            this.conversationId = message.getConversation().getId();
+        }
     }
 
     // Getters and Setters
@@ -86,4 +91,7 @@ public class MessageDto {
 
     public String getAnimalName() { return animalName; }
     public void setAnimalName(String animalName) { this.animalName = animalName; }
+
+    public Long getConversationId() { return conversationId; }
+    public void setConversationId(Long conversationId) { this.conversationId = conversationId; }
 }
\ No newline at end of file
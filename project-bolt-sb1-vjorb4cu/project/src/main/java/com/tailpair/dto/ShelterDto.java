@@ -1,6 +1,8 @@
 package com.tailpair.dto;
 
 import com.tailpair.entity.Shelter;
+import jakarta.validation.constraints.DecimalMax;
+import jakarta.validation.constraints.DecimalMin;
 import jakarta.validation.constraints.Email;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Size;
@@ -33,6 +35,14 @@ public class ShelterDto {
     @Size(max = 10)
     private String zipCode;
     
+    @DecimalMin("-90.0")
+    @DecimalMax("90.0")
+    private Double latitude;
+    
+    @DecimalMin("-180.0")
+    @DecimalMax("180.0")
+    private Double longitude;
+    
     @Size(max = 15)
     private String phone;
     
@@ -50,6 +60,7 @@ public class ShelterDto {
     private Long adminId;
     private String adminName;
     private int animalCount;
+    private Double distanceMiles;
 
     // Constructors
     public ShelterDto() {}
@@ -62,6 +73,8 @@ public class ShelterDto {
         this.city = shelter.getCity();
         this.state = shelter.getState();
         this.zipCode = shelter.getZipCode();
+        this.latitude = shelter.getLatitude();
+        this.longitude = shelter.getLongitude();
         this.phone = shelter.getPhone();
         this.email = shelter.getEmail();
         this.website = shelter.getWebsite();
@@ -73,8 +86,11 @@ public class ShelterDto {
             this.adminId = shelter.getAdmin().getId();
             this.adminName = shelter.getAdmin().getFirstName() + " " + shelter.getAdmin().getLastName();
         }
-        
-        this.animalCount = shelter.getAnimals().size();
+    }
+    
+    public ShelterDto(Shelter shelter, int animalCount) {
+        this(shelter);
+        this.animalCount = animalCount;
     }
 
     // Getters and Setters
@@ -99,6 +115,12 @@ public class ShelterDto {
     public String getZipCode() { return zipCode; }
     public void setZipCode(String zipCode) { this.zipCode = zipCode; }
 
+    public Double getLatitude() { return latitude; }
+    public void setLatitude(Double latitude) { this.latitude = latitude; }
+
+    public Double getLongitude() { return longitude; }
+    public void setLongitude(Double longitude) { this.longitude = longitude; }
+
     public String getPhone() { return phone; }
     public void setPhone(String phone) { this.phone = phone; }
 
@@ -125,4 +147,7 @@ public class ShelterDto {
 
     public int getAnimalCount() { return animalCount; }
     public void setAnimalCount(int animalCount) { this.animalCount = animalCount; }
+
+    public Double getDistanceMiles() { return distanceMiles; }
+    public void setDistanceMiles(Double distanceMiles) { this.distanceMiles = distanceMiles; }
 }
\ No newline at end of file
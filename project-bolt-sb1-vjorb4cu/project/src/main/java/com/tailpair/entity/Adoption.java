@@ -11,12 +11,23 @@ import java.time.LocalDateTime;
 
 @Entity
 @Table(name = "adoptions")
+@NamedEntityGraph(name = "Adoption.withParticipants",
+    attributeNodes = {
+        @NamedAttributeNode("adopter"),
+        @NamedAttributeNode(value = "animal", subgraph = "animal")
+    },
+    subgraphs = @NamedSubgraph(name = "animal", attributeNodes = @NamedAttributeNode("shelter")))
 @EntityListeners(AuditingEntityListener.class)
 public class Adoption {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "adoptions_seq")
+    @SequenceGenerator(name = "adoptions_seq", sequenceName = "adoptions_seq", allocationSize = 50)
     private Long id;
 
+    // Also bumped by the conditional status updates in AdoptionRepository
+    @Version
+    private Long version;
+
     @NotNull
     @Enumerated(EnumType.STRING)
     private Status status = Status.PENDING;
@@ -63,6 +74,9 @@ public class Adoption {
     public Long getId() { return id; }
     public void setId(Long id) { this.id = id; }
 
+    public Long getVersion() { return version; }
+    public void setVersion(Long version) { this.version = version; }
+
     public Status getStatus() { return status; }
     public void setStatus(Status status) { this.status = status; }
 
@@ -4,7 +4,8 @@ import jakarta.persistence.*;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Positive;
-import jakarta.validation.constraints.Size;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.springframework.data.annotation.CreatedDate;
 import org.springframework.data.annotation.LastModifiedDate;
 import org.springframework.data.jpa.domain.support.AuditingEntityListener;
@@ -16,21 +17,29 @@ import java.util.Set;
 
 @Entity
 @Table(name = "animals")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
+@NamedEntityGraph(name = "Animal.withShelter", attributeNodes = @NamedAttributeNode("shelter"))
 @EntityListeners(AuditingEntityListener.class)
 public class Animal {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "animals_seq")
+    @SequenceGenerator(name = "animals_seq", sequenceName = "animals_seq", allocationSize = 50)
     private Long id;
 
+    // Optimistic lock: concurrent status changes (e.g. two adoption requests) can't both commit
+    @Version
+    private Long version;
+
     @NotBlank
-    @Size(max = 50)
+    @jakarta.validation.constraints.Size(max = 50)
     private String name;
 
     @NotNull
     @Enumerated(EnumType.STRING)
     private Species species;
 
-    @Size(max = 50)
+    @jakarta.validation.constraints.Size(max = 50)
     private String breed;
 
     @Positive
@@ -47,13 +56,13 @@ public class Animal {
     @Column(precision = 5, scale = 2)
     private BigDecimal weight;
 
-    @Size(max = 50)
+    @jakarta.validation.constraints.Size(max = 50)
     private String color;
 
-    @Size(max = 1000)
+    @jakarta.validation.constraints.Size(max = 1000)
     private String description;
 
-    @Size(max = 500)
+    @jakarta.validation.constraints.Size(max = 500)
     private String medicalHistory;
 
     private boolean vaccinated = false;
@@ -71,6 +80,7 @@ public class Animal {
 
     @ElementCollection
     @CollectionTable(name = "animal_images", joinColumns = @JoinColumn(name = "animal_id"))
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
     @Column(name = "image_url")
     private Set<String> imageUrls = new HashSet<>();
 
@@ -122,6 +132,9 @@ public class Animal {
     public Long getId() { return id; }
     public void setId(Long id) { this.id = id; }
 
+    public Long getVersion() { return version; }
+    public void setVersion(Long version) { this.version = version; }
+
     public String getName() { return name; }
     public void setName(String name) { this.name = name; }
 
@@ -0,0 +1,79 @@
+package com.tailpair.entity;
+
+import jakarta.persistence.*;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import org.springframework.data.annotation.CreatedDate;
+import org.springframework.data.jpa.domain.support.AuditingEntityListener;
+
+import java.time.LocalDateTime;
+
+// One thread per pair of users and animal (or no animal). participantOne always holds the lower user id,
+// so the pair has a single canonical key. The last-message columns are denormalized from messages.
+@Entity
+@Table(name = "conversations")
+@EntityListeners(AuditingEntityListener.class)
+public class Conversation {
+    public static final int SNIPPET_LENGTH = 200;
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "conversations_seq")
+    @SequenceGenerator(name = "conversations_seq", sequenceName = "conversations_seq", allocationSize = 50)
+    private Long id;
+
+    @NotNull
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "participant_one_id", nullable = false)
+    private User participantOne;
+
+    @NotNull
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "participant_two_id", nullable = false)
+    private User participantTwo;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "animal_id")
+    private Animal animal;
+
+    @Size(max = SNIPPET_LENGTH)
+    private String lastMessageSnippet;
+
+    @NotNull
+    private LocalDateTime lastMessageAt;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "last_sender_id")
+    private User lastSender;
+
+    @CreatedDate
+    @Column(updatable = false)
+    private LocalDateTime createdAt;
+
+    // Constructors
+    public Conversation() {}
+
+    // Getters and Setters
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    public User getParticipantOne() { return participantOne; }
+    public void setParticipantOne(User participantOne) { this.participantOne = participantOne; }
+
+    public User getParticipantTwo() { return participantTwo; }
+    public void setParticipantTwo(User participantTwo) { this.participantTwo = participantTwo; }
+
+    public Animal getAnimal() { return animal; }
+    public void setAnimal(Animal animal) { this.animal = animal; }
+
+    public String getLastMessageSnippet() { return lastMessageSnippet; }
+    public void setLastMessageSnippet(String lastMessageSnippet) { this.lastMessageSnippet = lastMessageSnippet; }
+
+    public LocalDateTime getLastMessageAt() { return lastMessageAt; }
+    public void setLastMessageAt(LocalDateTime lastMessageAt) { this.lastMessageAt = lastMessageAt; }
+
+    public User getLastSender() { return lastSender; }
+    public void setLastSender(User lastSender) { this.lastSender = lastSender; }
+
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
+}
@@ -0,0 +1,66 @@
+package com.tailpair.entity;
+
+import jakarta.persistence.*;
+import jakarta.validation.constraints.NotNull;
+
+import java.time.LocalDateTime;
+
+// Per-user view of a conversation. lastMessageAt is copied from the conversation so the inbox
+// is a single scan of (user_id, last_message_at DESC, id DESC).
+@Entity
+@Table(name = "conversation_participants", uniqueConstraints = {
+    @UniqueConstraint(columnNames = {"conversation_id", "user_id"})
+})
+@NamedEntityGraph(name = "ConversationParticipant.withConversation",
+    attributeNodes = @NamedAttributeNode(value = "conversation", subgraph = "conversation"),
+    subgraphs = @NamedSubgraph(name = "conversation", attributeNodes = {
+        @NamedAttributeNode("participantOne"),
+        @NamedAttributeNode("participantTwo"),
+        @NamedAttributeNode("animal")
+    }))
+public class ConversationParticipant {
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "conversation_participants_seq")
+    @SequenceGenerator(name = "conversation_participants_seq", sequenceName = "conversation_participants_seq", allocationSize = 50)
+    private Long id;
+
+    @NotNull
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "conversation_id", nullable = false)
+    private Conversation conversation;
+
+    @NotNull
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "user_id", nullable = false)
+    private User user;
+
+    private int unreadCount = 0;
+
+    @NotNull
+    private LocalDateTime lastMessageAt;
+
+    // Constructors
+    public ConversationParticipant() {}
+
+    public ConversationParticipant(Conversation conversation, User user, LocalDateTime lastMessageAt) {
+        this.conversation = conversation;
+        this.user = user;
+        this.lastMessageAt = lastMessageAt;
+    }
+
+    // Getters and Setters
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    public Conversation getConversation() { return conversation; }
+    public void setConversation(Conversation conversation) { this.conversation = conversation; }
+
+    public User getUser() { return user; }
+    public void setUser(User user) { this.user = user; }
+
+    public int getUnreadCount() { return unreadCount; }
+    public void setUnreadCount(int unreadCount) { this.unreadCount = unreadCount; }
+
+    public LocalDateTime getLastMessageAt() { return lastMessageAt; }
+    public void setLastMessageAt(LocalDateTime lastMessageAt) { this.lastMessageAt = lastMessageAt; }
+}
@@ -11,10 +11,14 @@ import java.time.LocalDateTime;
 @Table(name = "favorites", uniqueConstraints = {
     @UniqueConstraint(columnNames = {"user_id", "animal_id"})
 })
+@NamedEntityGraph(name = "Favorite.withAnimal",
+    attributeNodes = @NamedAttributeNode(value = "animal", subgraph = "animal"),
+    subgraphs = @NamedSubgraph(name = "animal", attributeNodes = @NamedAttributeNode("shelter")))
 @EntityListeners(AuditingEntityListener.class)
 public class Favorite {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "favorites_seq")
+    @SequenceGenerator(name = "favorites_seq", sequenceName = "favorites_seq", allocationSize = 50)
     private Long id;
 
     @CreatedDate
@@ -11,10 +11,17 @@ import java.time.LocalDateTime;
 
 @Entity
 @Table(name = "messages")
+@NamedEntityGraph(name = "Message.withParticipants",
+    attributeNodes = {
+        @NamedAttributeNode("sender"),
+        @NamedAttributeNode("recipient"),
+        @NamedAttributeNode("animal")
+    })
 @EntityListeners(AuditingEntityListener.class)
 public class Message {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "messages_seq")
+    @SequenceGenerator(name = "messages_seq", sequenceName = "messages_seq", allocationSize = 50)
     private Long id;
 
     @NotBlank
@@ -45,6 +52,10 @@ public class Message {
     @JoinColumn(name = "animal_id")
     private Animal animal;
 
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "conversation_id")
+    private Conversation conversation;
+
     // Constructors
     public Message() {}
 
@@ -79,4 +90,7 @@ public class Message {
 
     public Animal getAnimal() { return animal; }
     public void setAnimal(Animal animal) { this.animal = animal; }
+
+    public Conversation getConversation() { return conversation; }
+    public void setConversation(Conversation conversation) { this.conversation = conversation; }
 }
\ No newline at end of file
@@ -11,10 +11,12 @@ import java.time.LocalDateTime;
 
 @Entity
 @Table(name = "notifications")
+@NamedEntityGraph(name = "Notification.withAnimal", attributeNodes = @NamedAttributeNode("animal"))
 @EntityListeners(AuditingEntityListener.class)
 public class Notification {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "notifications_seq")
+    @SequenceGenerator(name = "notifications_seq", sequenceName = "notifications_seq", allocationSize = 50)
     private Long id;
 
     @NotBlank
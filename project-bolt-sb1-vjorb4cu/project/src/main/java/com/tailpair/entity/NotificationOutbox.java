@@ -0,0 +1,123 @@
+package com.tailpair.entity;
+
+import jakarta.persistence.*;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import org.springframework.data.annotation.CreatedDate;
+import org.springframework.data.jpa.domain.support.AuditingEntityListener;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "notification_outbox")
+@EntityListeners(AuditingEntityListener.class)
+public class NotificationOutbox {
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "notification_outbox_seq")
+    @SequenceGenerator(name = "notification_outbox_seq", sequenceName = "notification_outbox_seq", allocationSize = 50)
+    private Long id;
+
+    @NotNull
+    @Enumerated(EnumType.STRING)
+    private Notification.Type type;
+
+    @NotBlank
+    @Size(max = 100)
+    private String title;
+
+    @NotBlank
+    @Size(max = 500)
+    private String message;
+
+    // Recipient of a single notification; null when fanning out to favoriters
+    private Long userId;
+
+    private Long animalId;
+
+    // Fan out to every user who favorited animalId, except excludedUserId
+    private boolean fanOut = false;
+
+    private Long excludedUserId;
+
+    // Last favoriter a fan-out has been committed for; a retry resumes after it
+    private Long fanOutCursor;
+
+    @NotNull
+    @Enumerated(EnumType.STRING)
+    private Status status = Status.PENDING;
+
+    private int attempts = 0;
+
+    @NotNull
+    private LocalDateTime nextAttemptAt;
+
+    @Size(max = 500)
+    private String lastError;
+
+    @CreatedDate
+    @Column(updatable = false)
+    private LocalDateTime createdAt;
+
+    private LocalDateTime processedAt;
+
+    public enum Status {
+        PENDING, DELIVERED, FAILED
+    }
+
+    // Constructors
+    public NotificationOutbox() {}
+
+    public NotificationOutbox(Notification.Type type, String title, String message) {
+        this.type = type;
+        this.title = title;
+        this.message = message;
+        this.nextAttemptAt = LocalDateTime.now();
+    }
+
+    // Getters and Setters
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    public Notification.Type getType() { return type; }
+    public void setType(Notification.Type type) { this.type = type; }
+
+    public String getTitle() { return title; }
+    public void setTitle(String title) { this.title = title; }
+
+    public String getMessage() { return message; }
+    public void setMessage(String message) { this.message = message; }
+
+    public Long getUserId() { return userId; }
+    public void setUserId(Long userId) { this.userId = userId; }
+
+    public Long getAnimalId() { return animalId; }
+    public void setAnimalId(Long animalId) { this.animalId = animalId; }
+
+    public boolean isFanOut() { return fanOut; }
+    public void setFanOut(boolean fanOut) { this.fanOut = fanOut; }
+
+    public Long getExcludedUserId() { return excludedUserId; }
+    public void setExcludedUserId(Long excludedUserId) { this.excludedUserId = excludedUserId; }
+
+    public Long getFanOutCursor() { return fanOutCursor; }
+    public void setFanOutCursor(Long fanOutCursor) { this.fanOutCursor = fanOutCursor; }
+
+    public Status getStatus() { return status; }
+    public void setStatus(Status status) { this.status = status; }
+
+    public int getAttempts() { return attempts; }
+    public void setAttempts(int attempts) { this.attempts = attempts; }
+
+    public LocalDateTime getNextAttemptAt() { return nextAttemptAt; }
+    public void setNextAttemptAt(LocalDateTime nextAttemptAt) { this.nextAttemptAt = nextAttemptAt; }
+
+    public String getLastError() { return lastError; }
+    public void setLastError(String lastError) { this.lastError = lastError; }
+
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
+
+    public LocalDateTime getProcessedAt() { return processedAt; }
+    public void setProcessedAt(LocalDateTime processedAt) { this.processedAt = processedAt; }
+}
@@ -1,9 +1,13 @@
 package com.tailpair.entity;
 
 import jakarta.persistence.*;
+import jakarta.validation.constraints.DecimalMax;
+import jakarta.validation.constraints.DecimalMin;
 import jakarta.validation.constraints.Email;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Size;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.springframework.data.annotation.CreatedDate;
 import org.springframework.data.annotation.LastModifiedDate;
 import org.springframework.data.jpa.domain.support.AuditingEntityListener;
@@ -14,10 +18,14 @@ import java.util.Set;
 
 @Entity
 @Table(name = "shelters")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
+@NamedEntityGraph(name = "Shelter.withAdmin", attributeNodes = @NamedAttributeNode("admin"))
 @EntityListeners(AuditingEntityListener.class)
 public class Shelter {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "shelters_seq")
+    @SequenceGenerator(name = "shelters_seq", sequenceName = "shelters_seq", allocationSize = 50)
     private Long id;
 
     @NotBlank
@@ -43,6 +51,15 @@ public class Shelter {
     @Size(max = 10)
     private String zipCode;
 
+    // Null when unknown; proximity search then falls back to the zip code centroid
+    @DecimalMin("-90.0")
+    @DecimalMax("90.0")
+    private Double latitude;
+
+    @DecimalMin("-180.0")
+    @DecimalMax("180.0")
+    private Double longitude;
+
     @Size(max = 15)
     private String phone;
 
@@ -102,6 +119,12 @@ public class Shelter {
     public String getZipCode() { return zipCode; }
     public void setZipCode(String zipCode) { this.zipCode = zipCode; }
 
+    public Double getLatitude() { return latitude; }
+    public void setLatitude(Double latitude) { this.latitude = latitude; }
+
+    public Double getLongitude() { return longitude; }
+    public void setLongitude(Double longitude) { this.longitude = longitude; }
+
     public String getPhone() { return phone; }
     public void setPhone(String phone) { this.phone = phone; }
 
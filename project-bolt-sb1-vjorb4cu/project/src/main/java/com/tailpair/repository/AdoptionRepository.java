@@ -3,26 +3,37 @@ package com.tailpair.repository;
 import com.tailpair.entity.Adoption;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.Optional;
 
 @Repository
 public interface AdoptionRepository extends JpaRepository<Adoption, Long> {
+    @EntityGraph("Adoption.withParticipants")
     Page<Adoption> findByAdopterId(Long adopterId, Pageable pageable);
+    
+    @EntityGraph("Adoption.withParticipants")
     Page<Adoption> findByAnimalId(Long animalId, Pageable pageable);
+    
+    @EntityGraph("Adoption.withParticipants")
     Page<Adoption> findByStatus(Adoption.Status status, Pageable pageable);
     
     Optional<Adoption> findByAdopterIdAndAnimalId(Long adopterId, Long animalId);
     boolean existsByAdopterIdAndAnimalId(Long adopterId, Long animalId);
     
+    @EntityGraph("Adoption.withParticipants")
     @Query("SELECT a FROM Adoption a WHERE " +
            "a.animal.shelter.id = :shelterId")
     Page<Adoption> findByShelterId(@Param("shelterId") Long shelterId, Pageable pageable);
     
+    @EntityGraph("Adoption.withParticipants")
     @Query("SELECT a FROM Adoption a WHERE " +
            "a.animal.shelter.id = :shelterId AND a.status = :status")
     Page<Adoption> findByShelterIdAndStatus(@Param("shelterId") Long shelterId, @Param("status") Adoption.Status status, Pageable pageable);
@@ -30,4 +41,22 @@ public interface AdoptionRepository extends JpaRepository<Adoption, Long> {
     @Query("SELECT COUNT(a) FROM Adoption a WHERE " +
            "a.animal.shelter.id = :shelterId AND a.status = 'PENDING'")
     long countPendingAdoptionsByShelterId(@Param("shelterId") Long shelterId);
+    
+    // Moves the adoption to status "to" only while it is still in one of the "from" statuses, so two
+    // racing transitions can't both apply; returns 0 if another request changed it first.
+    // Null timestamps and reason leave the current values in place; the casts give the null parameters a type.
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Adoption a SET a.status = :to, " +
+           "a.approvedAt = COALESCE(CAST(:approvedAt AS LocalDateTime), a.approvedAt), " +
+           "a.completedAt = COALESCE(CAST(:completedAt AS LocalDateTime), a.completedAt), " +
+           "a.rejectionReason = COALESCE(CAST(:rejectionReason AS String), a.rejectionReason), " +
+           "a.updatedAt = :now, a.version = a.version + 1 " +
+           "WHERE a.id = :id AND a.status IN :from")
+    int transition(@Param("id") Long id,
+                   @Param("from") Collection<Adoption.Status> from,
+                   @Param("to") Adoption.Status to,
+                   @Param("approvedAt") LocalDateTime approvedAt,
+                   @Param("completedAt") LocalDateTime completedAt,
+                   @Param("rejectionReason") String rejectionReason,
+                   @Param("now") LocalDateTime now);
 }
\ No newline at end of file
@@ -1,35 +1,75 @@
 package com.tailpair.repository;
 
+import com.tailpair.dto.AnimalSummaryDto;
 import com.tailpair.entity.Animal;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
 public interface AnimalRepository extends JpaRepository<Animal, Long> {
+    // Must match the expression of idx_animals_search so Postgres can use the GIN index
+    String SEARCH_VECTOR = "to_tsvector('english', coalesce(a.name, '') || ' ' || " +
+                           "coalesce(a.breed, '') || ' ' || coalesce(a.description, ''))";
+    
+    // Columns AnimalCard renders, for list endpoints over "Animal a JOIN a.shelter s"; the first image by URL stands in
+    // for the cover photo and is read from the animal_images primary key
+    String SUMMARY = "new com.tailpair.dto.AnimalSummaryDto(a.id, a.name, a.species, a.breed, a.age, a.gender, " +
+                     "a.size, a.status, a.adoptionFee, a.description, a.vaccinated, a.spayedNeutered, " +
+                     "a.houseTrained, a.goodWithKids, a.createdAt, s.id, s.name, " +
+                     "(SELECT MIN(i) FROM Animal x JOIN x.imageUrls i WHERE x.id = a.id))";
+    
+    String FILTERS = "(:species IS NULL OR a.species = :species) AND " +
+                     "(:breed IS NULL OR LOWER(a.breed) LIKE LOWER(CONCAT('%', :breed, '%'))) AND " +
+                     "(:size IS NULL OR a.size = :size) AND " +
+                     "(:gender IS NULL OR a.gender = :gender) AND " +
+                     "(:minAge IS NULL OR a.age >= :minAge) AND " +
+                     "(:maxAge IS NULL OR a.age <= :maxAge) AND " +
+                     "(:goodWithKids IS NULL OR a.goodWithKids = :goodWithKids) AND " +
+                     "(:goodWithPets IS NULL OR a.goodWithPets = :goodWithPets) AND " +
+                     "(:houseTrained IS NULL OR a.houseTrained = :houseTrained)";
+    
+    String SEARCH_TERM = "(LOWER(a.name) LIKE LOWER(CONCAT('%', :search, '%')) OR " +
+                         "LOWER(a.breed) LIKE LOWER(CONCAT('%', :search, '%')) OR " +
+                         "LOWER(a.description) LIKE LOWER(CONCAT('%', :search, '%')))";
+    
+    @EntityGraph("Animal.withShelter")
     Page<Animal> findByStatus(Animal.Status status, Pageable pageable);
+    
+    @EntityGraph("Animal.withShelter")
     Page<Animal> findBySpecies(Animal.Species species, Pageable pageable);
+    
+    @EntityGraph("Animal.withShelter")
     Page<Animal> findByShelterId(Long shelterId, Pageable pageable);
     
+    @EntityGraph("Animal.withShelter")
     @Query("SELECT a FROM Animal a WHERE a.status = 'AVAILABLE'")
     Page<Animal> findAvailableAnimals(Pageable pageable);
     
+    @EntityGraph("Animal.withShelter")
+    @Query("SELECT a FROM Animal a WHERE a.status = 'AVAILABLE' " +
+           "ORDER BY a.createdAt DESC, a.id DESC")
+    Slice<Animal> findAvailableAnimalsFeed(Pageable pageable);
+    
+    @EntityGraph("Animal.withShelter")
+    @Query("SELECT a FROM Animal a WHERE a.status = 'AVAILABLE' AND " +
+           "(a.createdAt < :createdAt OR (a.createdAt = :createdAt AND a.id < :id)) " +
+           "ORDER BY a.createdAt DESC, a.id DESC")
+    Slice<Animal> findAvailableAnimalsFeedBefore(@Param("createdAt") LocalDateTime createdAt, @Param("id") Long id,
+                                                 Pageable pageable);
+    
+    @EntityGraph("Animal.withShelter")
     @Query("SELECT a FROM Animal a WHERE " +
-           "a.status = 'AVAILABLE' AND " +
-           "(:species IS NULL OR a.species = :species) AND " +
-           "(:breed IS NULL OR LOWER(a.breed) LIKE LOWER(CONCAT('%', :breed, '%'))) AND " +
-           "(:size IS NULL OR a.size = :size) AND " +
-           "(:gender IS NULL OR a.gender = :gender) AND " +
-           "(:minAge IS NULL OR a.age >= :minAge) AND " +
-           "(:maxAge IS NULL OR a.age <= :maxAge) AND " +
-           "(:goodWithKids IS NULL OR a.goodWithKids = :goodWithKids) AND " +
-           "(:goodWithPets IS NULL OR a.goodWithPets = :goodWithPets) AND " +
-           "(:houseTrained IS NULL OR a.houseTrained = :houseTrained)")
+           "a.status = 'AVAILABLE' AND " + FILTERS)
     Page<Animal> findAvailableAnimalsWithFilters(
         @Param("species") Animal.Species species,
         @Param("breed") String breed,
@@ -43,15 +83,93 @@ public interface AnimalRepository extends JpaRepository<Animal, Long> {
         Pageable pageable
     );
     
+    @EntityGraph("Animal.withShelter")
     @Query("SELECT a FROM Animal a WHERE " +
-           "a.status = 'AVAILABLE' AND " +
-           "(LOWER(a.name) LIKE LOWER(CONCAT('%', :search, '%')) OR " +
-           "LOWER(a.breed) LIKE LOWER(CONCAT('%', :search, '%')) OR " +
-           "LOWER(a.description) LIKE LOWER(CONCAT('%', :search, '%')))")
+           "a.status = 'AVAILABLE' AND " + SEARCH_TERM)
     Page<Animal> searchAvailableAnimals(@Param("search") String search, Pageable pageable);
     
+    @EntityGraph("Animal.withShelter")
     List<Animal> findByShelterId(Long shelterId);
     
+    @EntityGraph("Animal.withShelter")
+    List<Animal> findByIdIn(Collection<Long> ids);
+    
+    @Query("SELECT a.id, a.species, a.size, a.gender, a.age, a.goodWithKids, a.goodWithPets, a.houseTrained, " +
+           "a.createdAt FROM Animal a WHERE a.status = 'AVAILABLE'")
+    List<Object[]> findAvailableFilterAttributes();
+    
+    long countByShelterId(Long shelterId);
+    
+    @EntityGraph("Animal.withShelter")
+    @Query("SELECT a FROM Animal a WHERE a.shelter.id = :shelterId AND a.id > :afterId ORDER BY a.id")
+    Slice<Animal> findExportPage(@Param("shelterId") Long shelterId, @Param("afterId") Long afterId, Pageable pageable);
+    
+    @Query("SELECT a.shelter.id, COUNT(a) FROM Animal a WHERE " +
+           "a.shelter.id IN :shelterIds GROUP BY a.shelter.id")
+    List<Object[]> countAnimalsByShelterIds(@Param("shelterIds") Collection<Long> shelterIds);
+    
     @Query("SELECT COUNT(a) FROM Animal a WHERE a.shelter.id = :shelterId AND a.status = 'AVAILABLE'")
     long countAvailableAnimalsByShelterId(@Param("shelterId") Long shelterId);
+    
+    @Query("SELECT a.shelter.id, COUNT(a) FROM Animal a WHERE " +
+           "a.shelter.id IN :shelterIds AND a.status = 'AVAILABLE' GROUP BY a.shelter.id")
+    List<Object[]> countAvailableAnimalsByShelterIds(@Param("shelterIds") Collection<Long> shelterIds);
+    
+    @Query(value = "SELECT " + SUMMARY + " FROM Animal a JOIN a.shelter s WHERE a.status = 'AVAILABLE'",
+           countQuery = "SELECT COUNT(a) FROM Animal a WHERE a.status = 'AVAILABLE'")
+    Page<AnimalSummaryDto> findAvailableAnimalSummaries(Pageable pageable);
+    
+    @Query("SELECT " + SUMMARY + " FROM Animal a JOIN a.shelter s WHERE a.status = 'AVAILABLE' " +
+           "ORDER BY a.createdAt DESC, a.id DESC")
+    Slice<AnimalSummaryDto> findAvailableAnimalSummariesFeed(Pageable pageable);
+    
+    @Query("SELECT " + SUMMARY + " FROM Animal a JOIN a.shelter s WHERE a.status = 'AVAILABLE' AND " +
+           "(a.createdAt < :createdAt OR (a.createdAt = :createdAt AND a.id < :id)) " +
+           "ORDER BY a.createdAt DESC, a.id DESC")
+    Slice<AnimalSummaryDto> findAvailableAnimalSummariesFeedBefore(@Param("createdAt") LocalDateTime createdAt,
+                                                                   @Param("id") Long id, Pageable pageable);
+    
+    @Query(value = "SELECT " + SUMMARY + " FROM Animal a JOIN a.shelter s WHERE " +
+                   "a.status = 'AVAILABLE' AND " + FILTERS,
+           countQuery = "SELECT COUNT(a) FROM Animal a WHERE " +
+                        "a.status = 'AVAILABLE' AND " + FILTERS)
+    Page<AnimalSummaryDto> findAvailableAnimalSummariesWithFilters(
+        @Param("species") Animal.Species species,
+        @Param("breed") String breed,
+        @Param("size") Animal.Size size,
+        @Param("gender") Animal.Gender gender,
+        @Param("minAge") Integer minAge,
+        @Param("maxAge") Integer maxAge,
+        @Param("goodWithKids") Boolean goodWithKids,
+        @Param("goodWithPets") Boolean goodWithPets,
+        @Param("houseTrained") Boolean houseTrained,
+        Pageable pageable
+    );
+    
+    @Query(value = "SELECT " + SUMMARY + " FROM Animal a JOIN a.shelter s WHERE " +
+                   "a.status = 'AVAILABLE' AND " + SEARCH_TERM,
+           countQuery = "SELECT COUNT(a) FROM Animal a WHERE " +
+                        "a.status = 'AVAILABLE' AND " + SEARCH_TERM)
+    Page<AnimalSummaryDto> searchAvailableAnimalSummaries(@Param("search") String search, Pageable pageable);
+    
+    // Ranked ids only; the cards are then read with findSummariesByIdIn
+    @Query(value = "SELECT a.id FROM animals a WHERE " +
+                   "a.status = 'AVAILABLE' AND " + SEARCH_VECTOR + " @@ to_tsquery('english', :query) " +
+                   "ORDER BY ts_rank(" + SEARCH_VECTOR + ", to_tsquery('english', :query)) DESC, a.id",
+           countQuery = "SELECT COUNT(*) FROM animals a WHERE " +
+                        "a.status = 'AVAILABLE' AND " + SEARCH_VECTOR + " @@ to_tsquery('english', :query)",
+           nativeQuery = true)
+    Page<Long> fullTextSearchAvailableAnimalIds(@Param("query") String query, Pageable pageable);
+    
+    @Query("SELECT " + SUMMARY + " FROM Animal a JOIN a.shelter s WHERE a.id IN :ids")
+    List<AnimalSummaryDto> findSummariesByIdIn(@Param("ids") Collection<Long> ids);
+    
+    @Query(value = "SELECT " + SUMMARY + " FROM Animal a JOIN a.shelter s WHERE s.id = :shelterId",
+           countQuery = "SELECT COUNT(a) FROM Animal a WHERE a.shelter.id = :shelterId")
+    Page<AnimalSummaryDto> findSummariesByShelterId(@Param("shelterId") Long shelterId, Pageable pageable);
+    
+    // One shelter's slice of the proximity search; pass an OffsetPageable to start mid-page
+    @Query("SELECT " + SUMMARY + " FROM Animal a JOIN a.shelter s WHERE " +
+           "s.id = :shelterId AND a.status = 'AVAILABLE'")
+    List<AnimalSummaryDto> findAvailableSummariesByShelterId(@Param("shelterId") Long shelterId, Pageable pageable);
 }
\ No newline at end of file
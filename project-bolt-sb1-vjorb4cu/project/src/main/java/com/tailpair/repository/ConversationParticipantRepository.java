@@ -0,0 +1,60 @@
+package com.tailpair.repository;
+
+import com.tailpair.entity.ConversationParticipant;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.repository.EntityGraph;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+@Repository
+public interface ConversationParticipantRepository extends JpaRepository<ConversationParticipant, Long> {
+    @EntityGraph("ConversationParticipant.withConversation")
+    Optional<ConversationParticipant> findByConversationIdAndUserId(Long conversationId, Long userId);
+    
+    boolean existsByConversationIdAndUserId(Long conversationId, Long userId);
+    
+    @EntityGraph("ConversationParticipant.withConversation")
+    @Query("SELECT p FROM ConversationParticipant p WHERE " +
+           "p.user.id = :userId " +
+           "ORDER BY p.lastMessageAt DESC, p.id DESC")
+    Slice<ConversationParticipant> findInboxByUserId(@Param("userId") Long userId, Pageable pageable);
+    
+    @EntityGraph("ConversationParticipant.withConversation")
+    @Query("SELECT p FROM ConversationParticipant p WHERE " +
+           "p.user.id = :userId AND " +
+           "(p.lastMessageAt < :lastMessageAt OR (p.lastMessageAt = :lastMessageAt AND p.id < :id)) " +
+           "ORDER BY p.lastMessageAt DESC, p.id DESC")
+    Slice<ConversationParticipant> findInboxByUserIdBefore(@Param("userId") Long userId,
+                                                           @Param("lastMessageAt") LocalDateTime lastMessageAt,
+                                                           @Param("id") Long id, Pageable pageable);
+    
+    // Moves the thread to the top of every participant's inbox; only the recipient's unread count grows
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE ConversationParticipant p SET p.lastMessageAt = :sentAt, " +
+           "p.unreadCount = p.unreadCount + CASE WHEN p.user.id = :recipientId THEN :unread ELSE 0 END " +
+           "WHERE p.conversation.id = :conversationId")
+    int recordMessage(@Param("conversationId") Long conversationId,
+                      @Param("recipientId") Long recipientId,
+                      @Param("unread") int unread,
+                      @Param("sentAt") LocalDateTime sentAt);
+    
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE ConversationParticipant p SET " +
+           "p.unreadCount = CASE WHEN p.unreadCount > :amount THEN p.unreadCount - :amount ELSE 0 END " +
+           "WHERE p.conversation.id = :conversationId AND p.user.id = :userId")
+    int decrementUnread(@Param("conversationId") Long conversationId,
+                        @Param("userId") Long userId,
+                        @Param("amount") int amount);
+    
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE ConversationParticipant p SET p.unreadCount = 0 " +
+           "WHERE p.conversation.id = :conversationId AND p.user.id = :userId")
+    int clearUnread(@Param("conversationId") Long conversationId, @Param("userId") Long userId);
+}
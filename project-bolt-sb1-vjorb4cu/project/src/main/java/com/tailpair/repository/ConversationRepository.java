@@ -0,0 +1,49 @@
+package com.tailpair.repository;
+
+import com.tailpair.entity.Conversation;
+import com.tailpair.entity.User;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+@Repository
+public interface ConversationRepository extends JpaRepository<Conversation, Long> {
+    // animalKey is the animal id, or 0 for conversations not about an animal; it matches the
+    // COALESCE(animal_id, 0) expression of uk_conversations_key. The query space limits the flush and
+    // cache invalidation Hibernate does for a native statement to conversations, instead of everything.
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "conversations"))
+    @Query(value = "INSERT INTO conversations (id, participant_one_id, participant_two_id, animal_id, last_message_at, created_at) " +
+                   "VALUES (nextval('conversations_seq'), :participantOneId, :participantTwoId, NULLIF(:animalKey, 0), :now, :now) " +
+                   "ON CONFLICT (participant_one_id, participant_two_id, (COALESCE(animal_id, 0))) DO NOTHING",
+           nativeQuery = true)
+    int insertIfAbsent(@Param("participantOneId") Long participantOneId,
+                       @Param("participantTwoId") Long participantTwoId,
+                       @Param("animalKey") long animalKey,
+                       @Param("now") LocalDateTime now);
+    
+    @Query(value = "SELECT id FROM conversations WHERE " +
+                   "participant_one_id = :participantOneId AND participant_two_id = :participantTwoId AND " +
+                   "COALESCE(animal_id, 0) = :animalKey",
+           nativeQuery = true)
+    Optional<Long> findIdByKey(@Param("participantOneId") Long participantOneId,
+                               @Param("participantTwoId") Long participantTwoId,
+                               @Param("animalKey") long animalKey);
+    
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE Conversation c SET c.lastMessageSnippet = :snippet, " +
+           "c.lastMessageAt = :sentAt, c.lastSender = :sender " +
+           "WHERE c.id = :id")
+    int recordLastMessage(@Param("id") Long id,
+                          @Param("snippet") String snippet,
+                          @Param("sentAt") LocalDateTime sentAt,
+                          @Param("sender") User sender);
+}
@@ -1,23 +1,45 @@
 package com.tailpair.repository;
 
+import com.tailpair.dto.AnimalSummaryDto;
 import com.tailpair.entity.Favorite;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 @Repository
 public interface FavoriteRepository extends JpaRepository<Favorite, Long> {
+    @EntityGraph("Favorite.withAnimal")
     Page<Favorite> findByUserId(Long userId, Pageable pageable);
+    
+    @Query(value = "SELECT " + AnimalRepository.SUMMARY + " FROM Favorite f JOIN f.animal a JOIN a.shelter s " +
+                   "WHERE f.user.id = :userId",
+           countQuery = "SELECT COUNT(f) FROM Favorite f WHERE f.user.id = :userId")
+    Page<AnimalSummaryDto> findFavoriteAnimalSummaries(@Param("userId") Long userId, Pageable pageable);
+    
     Optional<Favorite> findByUserIdAndAnimalId(Long userId, Long animalId);
     boolean existsByUserIdAndAnimalId(Long userId, Long animalId);
     
+    @Query("SELECT f.animal.id FROM Favorite f WHERE " +
+           "f.user.id = :userId AND f.animal.id IN :animalIds")
+    Set<Long> findFavoritedAnimalIds(@Param("userId") Long userId, @Param("animalIds") Collection<Long> animalIds);
+    
     @Query("SELECT COUNT(f) FROM Favorite f WHERE f.animal.id = :animalId")
     long countByAnimalId(@Param("animalId") Long animalId);
     
     void deleteByUserIdAndAnimalId(Long userId, Long animalId);
+    
+    @Query("SELECT f.user.id FROM Favorite f WHERE " +
+           "f.animal.id = :animalId AND f.user.id > :afterUserId " +
+           "ORDER BY f.user.id")
+    List<Long> findUserIdsByAnimalIdAfter(@Param("animalId") Long animalId, @Param("afterUserId") Long afterUserId,
+                                          Pageable pageable);
 }
\ No newline at end of file
@@ -3,20 +3,32 @@ package com.tailpair.repository;
 import com.tailpair.entity.Message;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
 @Repository
 public interface MessageRepository extends JpaRepository<Message, Long> {
+    @EntityGraph("Message.withParticipants")
     Page<Message> findBySenderId(Long senderId, Pageable pageable);
+    
+    @EntityGraph("Message.withParticipants")
     Page<Message> findByRecipientId(Long recipientId, Pageable pageable);
     
+    @EntityGraph("Message.withParticipants")
     @Query("SELECT m FROM Message m WHERE " +
            "(m.sender.id = :userId OR m.recipient.id = :userId)")
     Page<Message> findByUserId(@Param("userId") Long userId, Pageable pageable);
     
+    @EntityGraph("Message.withParticipants")
     @Query("SELECT m FROM Message m WHERE " +
            "m.recipient.id = :userId AND m.isRead = false")
     Page<Message> findUnreadMessagesByRecipientId(@Param("userId") Long userId, Pageable pageable);
@@ -25,8 +37,47 @@ public interface MessageRepository extends JpaRepository<Message, Long> {
            "m.recipient.id = :userId AND m.isRead = false")
     long countUnreadMessagesByRecipientId(@Param("userId") Long userId);
     
+    @Query("SELECT m.recipient.id, COUNT(m) FROM Message m WHERE " +
+           "m.recipient.id IN :userIds AND m.isRead = false GROUP BY m.recipient.id")
+    List<Object[]> countUnreadMessagesByRecipientIds(@Param("userIds") Collection<Long> userIds);
+    
+    @EntityGraph("Message.withParticipants")
     @Query("SELECT m FROM Message m WHERE " +
            "m.animal.id = :animalId AND " +
            "(m.sender.id = :userId OR m.recipient.id = :userId)")
     Page<Message> findByAnimalIdAndUserId(@Param("animalId") Long animalId, @Param("userId") Long userId, Pageable pageable);
+    
+    @EntityGraph("Message.withParticipants")
+    @Query("SELECT m FROM Message m WHERE " +
+           "(m.sender.id = :userId OR m.recipient.id = :userId) " +
+           "ORDER BY m.createdAt DESC, m.id DESC")
+    Slice<Message> findFeedByUserId(@Param("userId") Long userId, Pageable pageable);
+    
+    @EntityGraph("Message.withParticipants")
+    @Query("SELECT m FROM Message m WHERE " +
+           "(m.sender.id = :userId OR m.recipient.id = :userId) AND " +
+           "(m.createdAt < :createdAt OR (m.createdAt = :createdAt AND m.id < :id)) " +
+           "ORDER BY m.createdAt DESC, m.id DESC")
+    Slice<Message> findFeedByUserIdBefore(@Param("userId") Long userId, @Param("createdAt") LocalDateTime createdAt,
+                                          @Param("id") Long id, Pageable pageable);
+    
+    @EntityGraph("Message.withParticipants")
+    @Query("SELECT m FROM Message m WHERE " +
+           "m.conversation.id = :conversationId " +
+           "ORDER BY m.createdAt DESC, m.id DESC")
+    Slice<Message> findByConversationId(@Param("conversationId") Long conversationId, Pageable pageable);
+    
+    @EntityGraph("Message.withParticipants")
+    @Query("SELECT m FROM Message m WHERE " +
+           "m.conversation.id = :conversationId AND " +
+           "(m.createdAt < :createdAt OR (m.createdAt = :createdAt AND m.id < :id)) " +
+           "ORDER BY m.createdAt DESC, m.id DESC")
+    Slice<Message> findByConversationIdBefore(@Param("conversationId") Long conversationId,
+                                              @Param("createdAt") LocalDateTime createdAt,
+                                              @Param("id") Long id, Pageable pageable);
+    
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Message m SET m.isRead = true WHERE " +
+           "m.conversation.id = :conversationId AND m.recipient.id = :userId AND m.isRead = false")
+    int markConversationAsRead(@Param("conversationId") Long conversationId, @Param("userId") Long userId);
 }
\ No newline at end of file
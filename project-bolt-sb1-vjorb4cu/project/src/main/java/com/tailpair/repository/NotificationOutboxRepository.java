@@ -0,0 +1,31 @@
+package com.tailpair.repository;
+
+import com.tailpair.entity.NotificationOutbox;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface NotificationOutboxRepository extends JpaRepository<NotificationOutbox, Long> {
+    @Query("SELECT o.id FROM NotificationOutbox o WHERE " +
+           "o.status = 'PENDING' AND o.nextAttemptAt <= :now ORDER BY o.id")
+    List<Long> findDueIds(@Param("now") LocalDateTime now, Pageable pageable);
+    
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT o FROM NotificationOutbox o WHERE o.id = :id")
+    Optional<NotificationOutbox> findByIdForUpdate(@Param("id") Long id);
+    
+    @Modifying
+    @Query("DELETE FROM NotificationOutbox o WHERE " +
+           "o.status = 'DELIVERED' AND o.processedAt < :before")
+    int deleteDeliveredBefore(@Param("before") LocalDateTime before);
+}
@@ -3,16 +3,26 @@ package com.tailpair.repository;
 import com.tailpair.entity.Notification;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
 @Repository
 public interface NotificationRepository extends JpaRepository<Notification, Long> {
+    @EntityGraph("Notification.withAnimal")
     Page<Notification> findByUserId(Long userId, Pageable pageable);
+    
+    @EntityGraph("Notification.withAnimal")
     Page<Notification> findByUserIdOrderByCreatedAtDesc(Long userId, Pageable pageable);
     
+    @EntityGraph("Notification.withAnimal")
     @Query("SELECT n FROM Notification n WHERE " +
            "n.user.id = :userId AND n.isRead = false " +
            "ORDER BY n.createdAt DESC")
@@ -22,5 +32,24 @@ public interface NotificationRepository extends JpaRepository<Notification, Long
            "n.user.id = :userId AND n.isRead = false")
     long countUnreadNotificationsByUserId(@Param("userId") Long userId);
     
+    @Query("SELECT n.user.id, COUNT(n) FROM Notification n WHERE " +
+           "n.user.id IN :userIds AND n.isRead = false GROUP BY n.user.id")
+    List<Object[]> countUnreadNotificationsByUserIds(@Param("userIds") Collection<Long> userIds);
+    
+    @EntityGraph("Notification.withAnimal")
     Page<Notification> findByUserIdAndType(Long userId, Notification.Type type, Pageable pageable);
+    
+    @EntityGraph("Notification.withAnimal")
+    @Query("SELECT n FROM Notification n WHERE " +
+           "n.user.id = :userId " +
+           "ORDER BY n.createdAt DESC, n.id DESC")
+    Slice<Notification> findFeedByUserId(@Param("userId") Long userId, Pageable pageable);
+    
+    @EntityGraph("Notification.withAnimal")
+    @Query("SELECT n FROM Notification n WHERE " +
+           "n.user.id = :userId AND " +
+           "(n.createdAt < :createdAt OR (n.createdAt = :createdAt AND n.id < :id)) " +
+           "ORDER BY n.createdAt DESC, n.id DESC")
+    Slice<Notification> findFeedByUserIdBefore(@Param("userId") Long userId, @Param("createdAt") LocalDateTime createdAt,
+                                               @Param("id") Long id, Pageable pageable);
 }
\ No newline at end of file
@@ -1,33 +1,58 @@
 package com.tailpair.repository;
 
 import com.tailpair.entity.Shelter;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface ShelterRepository extends JpaRepository<Shelter, Long> {
+    @EntityGraph("Shelter.withAdmin")
+    Page<Shelter> findAll(Pageable pageable);
+    
+    // Shelters rarely change, so these results stay in the query cache until a shelter write invalidates them
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     Optional<Shelter> findByAdminId(Long adminId);
-    List<Shelter> findByVerified(boolean verified);
+    
+    // Also caches the page's count query
+    @EntityGraph("Shelter.withAdmin")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     Page<Shelter> findByVerified(boolean verified, Pageable pageable);
     
+    @EntityGraph("Shelter.withAdmin")
     @Query("SELECT s FROM Shelter s WHERE " +
            "LOWER(s.name) LIKE LOWER(CONCAT('%', :search, '%')) OR " +
            "LOWER(s.city) LIKE LOWER(CONCAT('%', :search, '%')) OR " +
            "LOWER(s.state) LIKE LOWER(CONCAT('%', :search, '%'))")
     Page<Shelter> findBySearchTerm(@Param("search") String search, Pageable pageable);
     
+    @EntityGraph("Shelter.withAdmin")
     @Query("SELECT s FROM Shelter s WHERE " +
            "s.city = :city AND s.state = :state")
     List<Shelter> findByCityAndState(@Param("city") String city, @Param("state") String state);
     
+    @EntityGraph("Shelter.withAdmin")
     @Query("SELECT s FROM Shelter s WHERE " +
            "s.zipCode = :zipCode")
     List<Shelter> findByZipCode(@Param("zipCode") String zipCode);
+    
+    @EntityGraph("Shelter.withAdmin")
+    List<Shelter> findByIdIn(Collection<Long> ids);
+    
+    boolean existsByIdAndAdminId(Long id, Long adminId);
+    
+    // Rows of (id, latitude, longitude, zipCode) for ShelterGeoIndex
+    @Query("SELECT s.id, s.latitude, s.longitude, s.zipCode FROM Shelter s")
+    List<Object[]> findLocations();
 }
\ No newline at end of file
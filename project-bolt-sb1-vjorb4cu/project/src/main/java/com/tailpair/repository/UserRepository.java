@@ -8,6 +8,8 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
@@ -25,4 +27,9 @@ public interface UserRepository extends JpaRepository<User, Long> {
            "LOWER(u.username) LIKE LOWER(CONCAT('%', :search, '%')) OR " +
            "LOWER(u.email) LIKE LOWER(CONCAT('%', :search, '%'))")
     Page<User> findBySearchTerm(@Param("search") String search, Pageable pageable);
+    
+    // id, email and first name of the enabled users among userIds
+    @Query("SELECT u.id, u.email, u.firstName FROM User u WHERE " +
+           "u.id IN :userIds AND u.enabled = true")
+    List<Object[]> findMailRecipients(@Param("userIds") Collection<Long> userIds);
 }
\ No newline at end of file
@@ -1,5 +1,7 @@
 package com.tailpair.security;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -18,31 +20,56 @@ import java.io.IOException;
 @Component
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
     
+    private static final String EVENT_STREAM_PATH = "/api/events";
+    
     @Autowired
     private JwtTokenProvider tokenProvider;
     
     @Autowired
     private CustomUserDetailsService customUserDetailsService;
     
+    @Autowired
+    private UserPrincipalCache userPrincipalCache;
+    
+    @Autowired
+    private MeterRegistry meterRegistry;
+    
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, 
                                     FilterChain filterChain) throws ServletException, IOException {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = "anonymous";
         try {
             String jwt = getJwtFromRequest(request);
             
-            if (StringUtils.hasText(jwt) && tokenProvider.validateToken(jwt)) {
-                Long userId = tokenProvider.getUserIdFromToken(jwt);
-                
-                UserDetails userDetails = customUserDetailsService.loadUserById(userId);
+            Long userId = StringUtils.hasText(jwt) ? tokenProvider.getUserIdFromValidToken(jwt) : null;
+            
+            // EventSource can't send headers; the stream alone accepts a short-lived token in the query
+            if (jwt == null && EVENT_STREAM_PATH.equals(request.getServletPath())) {
+                jwt = request.getParameter("token");
+                userId = StringUtils.hasText(jwt) ? tokenProvider.getUserIdFromValidEventStreamToken(jwt) : null;
+            }
+            
+            if (userId != null) {
+                UserDetails userDetails = userPrincipalCache.get(userId, customUserDetailsService::loadUserById);
                 UsernamePasswordAuthenticationToken authentication = 
                     new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities());
                 authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
                 
                 SecurityContextHolder.getContext().setAuthentication(authentication);
+                outcome = "authenticated";
+            } else if (jwt != null) {
+                outcome = "invalid";
             }
         } catch (Exception ex) {
+            outcome = "error";
             logger.error("Could not set user authentication in security context", ex);
         }
+        // Covers token parsing and principal lookup only, not the rest of the chain
+        sample.stop(Timer.builder("tailpair.security.jwt")
+            .description("Time spent authenticating the request token")
+            .tag("outcome", outcome)
+            .register(meterRegistry));
         
         filterChain.doFilter(request, response);
     }
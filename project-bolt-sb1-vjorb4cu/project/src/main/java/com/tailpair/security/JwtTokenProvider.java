@@ -2,6 +2,8 @@ package com.tailpair.security;
 
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.security.Keys;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.Authentication;
 import org.springframework.stereotype.Component;
@@ -12,16 +14,36 @@ import java.util.Date;
 @Component
 public class JwtTokenProvider {
     
+    private static final Logger logger = LoggerFactory.getLogger(JwtTokenProvider.class);
+    
+    private static final String SCOPE_CLAIM = "scope";
+    
+    private static final String EVENT_STREAM_SCOPE = "events";
+    
     @Value("${app.jwt.secret}")
     private String jwtSecret;
     
     @Value("${app.jwt.expiration}")
     private int jwtExpirationInMs;
     
+    @Value("${app.jwt.event-stream-expiration:60000}")
+    private int eventStreamExpirationInMs;
+    
+    private volatile JwtParser parser;
+    
     private SecretKey getSigningKey() {
         return Keys.hmacShaKeyFor(jwtSecret.getBytes());
     }
     
+    private JwtParser getParser() {
+        if (parser == null) {
+            parser = Jwts.parserBuilder()
+                    .setSigningKey(getSigningKey())
+                    .build();
+        }
+        return parser;
+    }
+    
     public String generateToken(Authentication authentication) {
         UserPrincipal userPrincipal = (UserPrincipal) authentication.getPrincipal();
         
@@ -35,10 +57,24 @@ public class JwtTokenProvider {
                 .compact();
     }
     
+    // Short-lived token an EventSource can pass as ?token=, since browsers can't set its headers.
+    // Its scope keeps it from being accepted as a bearer token anywhere else.
+    public String generateEventStreamToken(Long userId) {
+        return Jwts.builder()
+                .setSubject(Long.toString(userId))
+                .claim(SCOPE_CLAIM, EVENT_STREAM_SCOPE)
+                .setIssuedAt(new Date())
+                .setExpiration(new Date(System.currentTimeMillis() + eventStreamExpirationInMs))
+                .signWith(getSigningKey(), SignatureAlgorithm.HS512)
+                .compact();
+    }
+    
+    public int getEventStreamExpirationInMs() {
+        return eventStreamExpirationInMs;
+    }
+    
     public Long getUserIdFromToken(String token) {
-        Claims claims = Jwts.parserBuilder()
-                .setSigningKey(getSigningKey())
-                .build()
+        Claims claims = getParser()
                 .parseClaimsJws(token)
                 .getBody();
         
@@ -46,23 +82,33 @@ public class JwtTokenProvider {
     }
     
     public boolean validateToken(String authToken) {
+        return getUserIdFromValidToken(authToken) != null;
+    }
+    
+    // Validates and reads the subject in a single parse; returns null for an invalid or scoped token
+    public Long getUserIdFromValidToken(String authToken) {
+        Claims claims = getValidClaims(authToken);
+        return claims != null && claims.get(SCOPE_CLAIM) == null ? Long.parseLong(claims.getSubject()) : null;
+    }
+    
+    public Long getUserIdFromValidEventStreamToken(String token) {
+        Claims claims = getValidClaims(token);
+        return claims != null && EVENT_STREAM_SCOPE.equals(claims.get(SCOPE_CLAIM, String.class))
+            ? Long.parseLong(claims.getSubject())
+            : null;
+    }
+    
+    private Claims getValidClaims(String authToken) {
         try {
-            Jwts.parserBuilder()
-                .setSigningKey(getSigningKey())
-                .build()
-                .parseClaimsJws(authToken);
-            return true;
-        } catch (SecurityException ex) {
-            System.err.println("Invalid JWT signature");
-        } catch (MalformedJwtException ex) {
-            System.err.println("Invalid JWT token");
+            return getParser().parseClaimsJws(authToken).getBody();
         } catch (ExpiredJwtException ex) {
-            System.err.println("Expired JWT token");
-        } catch (UnsupportedJwtException ex) {
-            System.err.println("Unsupported JWT token");
+            logger.debug("Expired JWT token");
+        } catch (JwtException ex) {
+            // Bad signature, malformed or unsupported token
+            logger.warn("Invalid JWT token: {}", ex.getMessage());
         } catch (IllegalArgumentException ex) {
-            System.err.println("JWT claims string is empty");
+            logger.debug("JWT claims string is empty");
         }
-        return false;
+        return null;
     }
 }
\ No newline at end of file
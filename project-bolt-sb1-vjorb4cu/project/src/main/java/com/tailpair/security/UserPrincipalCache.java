@@ -0,0 +1,76 @@
+package com.tailpair.security;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Function;
+
+@Component
+public class UserPrincipalCache {
+
+    @Value("${app.jwt.principal-cache.max-size:10000}")
+    private int maxSize;
+
+    @Value("${app.jwt.principal-cache.ttl:300000}")
+    private long ttlInMs;
+
+    private final Map<Long, Entry> entries = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Long, Entry> eldest) {
+            return size() > maxSize;
+        }
+    };
+
+    // Bumped by every eviction; a load that started before one may have read the evicted state
+    private long generation;
+
+    public UserPrincipal get(Long userId, Function<Long, UserPrincipal> loader) {
+        long now = System.currentTimeMillis();
+        long loadGeneration;
+
+        synchronized (entries) {
+            Entry entry = entries.get(userId);
+            if (entry != null && entry.expiresAt > now) {
+                return entry.principal;
+            }
+            loadGeneration = generation;
+        }
+
+        // Load outside the lock so a slow lookup does not block other requests
+        UserPrincipal principal = loader.apply(userId);
+
+        synchronized (entries) {
+            // Not cached if an eviction happened meanwhile; the next request loads again
+            if (generation == loadGeneration) {
+                entries.put(userId, new Entry(principal, now + ttlInMs));
+            }
+        }
+        return principal;
+    }
+
+    public void evict(Long userId) {
+        synchronized (entries) {
+            entries.remove(userId);
+            generation++;
+        }
+    }
+
+    public void clear() {
+        synchronized (entries) {
+            entries.clear();
+            generation++;
+        }
+    }
+
+    private static class Entry {
+        private final UserPrincipal principal;
+        private final long expiresAt;
+
+        Entry(UserPrincipal principal, long expiresAt) {
+            this.principal = principal;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
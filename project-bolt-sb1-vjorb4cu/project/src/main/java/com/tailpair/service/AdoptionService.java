@@ -4,6 +4,7 @@ import com.tailpair.dto.AdoptionDto;
 import com.tailpair.entity.Adoption;
 import com.tailpair.entity.Animal;
 import com.tailpair.entity.User;
+import com.tailpair.exception.ConflictException;
 import com.tailpair.exception.ResourceNotFoundException;
 import com.tailpair.repository.AdoptionRepository;
 import com.tailpair.repository.AnimalRepository;
@@ -11,15 +12,20 @@ import com.tailpair.repository.UserRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.security.access.AccessDeniedException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.EnumSet;
+import java.util.Set;
 
 @Service
 @Transactional
 public class AdoptionService {
     
+    private static final Set<Adoption.Status> CANCELLABLE = EnumSet.of(Adoption.Status.PENDING, Adoption.Status.APPROVED);
+    
     @Autowired
     private AdoptionRepository adoptionRepository;
     
@@ -32,6 +38,12 @@ public class AdoptionService {
     @Autowired
     private NotificationService notificationService;
     
+    @Autowired
+    private AnimalFilterIndex animalFilterIndex;
+    
+    @Autowired
+    private RenderedResponseCache renderedResponseCache;
+    
     public AdoptionDto createAdoptionRequest(Long adopterId, Long animalId, String notes) {
         User adopter = userRepository.findById(adopterId)
             .orElseThrow(() -> new ResourceNotFoundException("User not found with id: " + adopterId));
@@ -39,23 +51,27 @@ public class AdoptionService {
         Animal animal = animalRepository.findById(animalId)
             .orElseThrow(() -> new ResourceNotFoundException("Animal not found with id: " + animalId));
         
+        // A request that read the animal after another one took it lost the same race
         if (animal.getStatus() != Animal.Status.AVAILABLE) {
-            throw new IllegalArgumentException("Animal is not available for adoption");
+            throw new ConflictException("Animal is not available for adoption");
         }
         
         if (adoptionRepository.existsByAdopterIdAndAnimalId(adopterId, animalId)) {
             throw new IllegalArgumentException("Adoption request already exists for this animal");
         }
         
+        // Update animal status to pending. The versioned update only succeeds for the first of
+        // several concurrent requests; the others fail here and roll back with a 409.
+        animal.setStatus(Animal.Status.PENDING);
+        animalRepository.saveAndFlush(animal);
+        animalFilterIndex.update(animal);
+        renderedResponseCache.invalidateAfterCommit();
+        
         Adoption adoption = new Adoption(adopter, animal);
         adoption.setNotes(notes);
         
         Adoption savedAdoption = adoptionRepository.save(adoption);
         
-        // Update animal status to pending
-        animal.setStatus(Animal.Status.PENDING);
-        animalRepository.save(animal);
-        
         // Notify shelter admin
         if (animal.getShelter().getAdmin() != null) {
             notificationService.createAdoptionRequestNotification(
@@ -70,22 +86,20 @@ public class AdoptionService {
             .orElseThrow(() -> new ResourceNotFoundException("Adoption not found with id: " + adoptionId));
         
         if (!adoption.getAnimal().getShelter().getId().equals(shelterId)) {
-            throw new IllegalArgumentException("You can only approve adoptions for your shelter");
+            throw new AccessDeniedException("You can only approve adoptions for your shelter");
         }
         
         if (adoption.getStatus() != Adoption.Status.PENDING) {
-            throw new IllegalArgumentException("Adoption is not in pending status");
+            throw new ConflictException("Adoption is not in pending status");
         }
         
-        adoption.setStatus(Adoption.Status.APPROVED);
-        adoption.setApprovedAt(LocalDateTime.now());
-        
-        Adoption updatedAdoption = adoptionRepository.save(adoption);
-        
         // Notify adopter
         notificationService.createAdoptionApprovedNotification(
             adoption.getAdopter(), adoption.getAnimal());
         
+        LocalDateTime now = LocalDateTime.now();
+        Adoption updatedAdoption = transition(adoptionId, EnumSet.of(Adoption.Status.PENDING),
+            Adoption.Status.APPROVED, now, null, null);
         return new AdoptionDto(updatedAdoption);
     }
     
@@ -94,27 +108,26 @@ public class AdoptionService {
             .orElseThrow(() -> new ResourceNotFoundException("Adoption not found with id: " + adoptionId));
         
         if (!adoption.getAnimal().getShelter().getId().equals(shelterId)) {
-            throw new IllegalArgumentException("You can only reject adoptions for your shelter");
+            throw new AccessDeniedException("You can only reject adoptions for your shelter");
         }
         
         if (adoption.getStatus() != Adoption.Status.PENDING) {
-            throw new IllegalArgumentException("Adoption is not in pending status");
+            throw new ConflictException("Adoption is not in pending status");
         }
         
-        adoption.setStatus(Adoption.Status.REJECTED);
-        adoption.setRejectionReason(rejectionReason);
-        
         // Make animal available again
         Animal animal = adoption.getAnimal();
         animal.setStatus(Animal.Status.AVAILABLE);
         animalRepository.save(animal);
-        
-        Adoption updatedAdoption = adoptionRepository.save(adoption);
+        animalFilterIndex.update(animal);
+        renderedResponseCache.invalidateAfterCommit();
         
         // Notify adopter
         notificationService.createAdoptionRejectedNotification(
-            adoption.getAdopter(), adoption.getAnimal(), rejectionReason);
+            adoption.getAdopter(), animal, rejectionReason);
         
+        Adoption updatedAdoption = transition(adoptionId, EnumSet.of(Adoption.Status.PENDING),
+            Adoption.Status.REJECTED, null, null, rejectionReason);
         return new AdoptionDto(updatedAdoption);
     }
     
@@ -123,26 +136,30 @@ public class AdoptionService {
             .orElseThrow(() -> new ResourceNotFoundException("Adoption not found with id: " + adoptionId));
         
         if (!adoption.getAnimal().getShelter().getId().equals(shelterId)) {
-            throw new IllegalArgumentException("You can only complete adoptions for your shelter");
+            throw new AccessDeniedException("You can only complete adoptions for your shelter");
         }
         
         if (adoption.getStatus() != Adoption.Status.APPROVED) {
-            throw new IllegalArgumentException("Adoption must be approved before completion");
+            throw new ConflictException("Adoption must be approved before completion");
         }
         
-        adoption.setStatus(Adoption.Status.COMPLETED);
-        adoption.setCompletedAt(LocalDateTime.now());
-        
         // Mark animal as adopted
         Animal animal = adoption.getAnimal();
         animal.setStatus(Animal.Status.ADOPTED);
         animalRepository.save(animal);
+        animalFilterIndex.update(animal);
+        renderedResponseCache.invalidateAfterCommit();
         
-        Adoption updatedAdoption = adoptionRepository.save(adoption);
+        // Let everyone else who favorited the animal know; delivered asynchronously
+        notificationService.createFavoriteAdoptedNotifications(animal, adoption.getAdopter());
         
+        LocalDateTime now = LocalDateTime.now();
+        Adoption updatedAdoption = transition(adoptionId, EnumSet.of(Adoption.Status.APPROVED),
+            Adoption.Status.COMPLETED, null, now, null);
         return new AdoptionDto(updatedAdoption);
     }
     
+    @Transactional(readOnly = true)
     public AdoptionDto getAdoptionById(Long id) {
         Adoption adoption = adoptionRepository.findById(id)
             .orElseThrow(() -> new ResourceNotFoundException("Adoption not found with id: " + id));
@@ -154,46 +171,69 @@ public class AdoptionService {
             .orElseThrow(() -> new ResourceNotFoundException("Adoption not found with id: " + adoptionId));
         
         if (!adoption.getAdopter().getId().equals(userId)) {
-            throw new IllegalArgumentException("You can only cancel your own adoption requests");
+            throw new AccessDeniedException("You can only cancel your own adoption requests");
         }
         
         if (adoption.getStatus() == Adoption.Status.COMPLETED) {
-            throw new IllegalArgumentException("Cannot cancel completed adoption");
+            throw new ConflictException("Cannot cancel completed adoption");
         }
         
-        adoption.setStatus(Adoption.Status.CANCELLED);
+        if (!CANCELLABLE.contains(adoption.getStatus())) {
+            throw new ConflictException("Adoption is already " + adoption.getStatus().name().toLowerCase());
+        }
         
         // Make animal available again if it was pending
         if (adoption.getAnimal().getStatus() == Animal.Status.PENDING) {
             Animal animal = adoption.getAnimal();
             animal.setStatus(Animal.Status.AVAILABLE);
             animalRepository.save(animal);
+            animalFilterIndex.update(animal);
+            renderedResponseCache.invalidateAfterCommit();
         }
         
-        adoptionRepository.save(adoption);
+        transition(adoptionId, CANCELLABLE, Adoption.Status.CANCELLED, null, null, null);
     }
     
+    @Transactional(readOnly = true)
     public Page<AdoptionDto> getAdoptionsByAdopterId(Long adopterId, Pageable pageable) {
         return adoptionRepository.findByAdopterId(adopterId, pageable)
             .map(AdoptionDto::new);
     }
     
+    @Transactional(readOnly = true)
     public Page<AdoptionDto> getAdoptionsByShelterId(Long shelterId, Pageable pageable) {
         return adoptionRepository.findByShelterId(shelterId, pageable)
             .map(AdoptionDto::new);
     }
     
+    @Transactional(readOnly = true)
     public Page<AdoptionDto> getPendingAdoptionsByShelterId(Long shelterId, Pageable pageable) {
         return adoptionRepository.findByShelterIdAndStatus(shelterId, Adoption.Status.PENDING, pageable)
             .map(AdoptionDto::new);
     }
     
+    @Transactional(readOnly = true)
     public long getPendingAdoptionsCountByShelterId(Long shelterId) {
         return adoptionRepository.countPendingAdoptionsByShelterId(shelterId);
     }
     
+    @Transactional(readOnly = true)
     public Page<AdoptionDto> getAdoptionsByStatus(Adoption.Status status, Pageable pageable) {
         return adoptionRepository.findByStatus(status, pageable)
             .map(AdoptionDto::new);
     }
+    
+    // Applies the status change only if the adoption is still in one of the expected statuses. The
+    // update flushes pending entity changes first (the versioned animal update may fail there too)
+    // and clears the persistence context, so the adoption is reloaded afterwards.
+    private Adoption transition(Long adoptionId, Set<Adoption.Status> from, Adoption.Status to,
+                                LocalDateTime approvedAt, LocalDateTime completedAt, String rejectionReason) {
+        int updated = adoptionRepository.transition(
+            adoptionId, from, to, approvedAt, completedAt, rejectionReason, LocalDateTime.now());
+        if (updated == 0) {
+            throw new ConflictException("Adoption " + adoptionId + " was changed by another request; reload it and try again");
+        }
+        return adoptionRepository.findById(adoptionId)
+            .orElseThrow(() -> new ResourceNotFoundException("Adoption not found with id: " + adoptionId));
+    }
 }
\ No newline at end of file
@@ -0,0 +1,401 @@
+package com.tailpair.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.tailpair.config.ReplicaRoutingDataSource;
+import com.tailpair.dto.AnimalDto;
+import com.tailpair.dto.AnimalImportResult;
+import com.tailpair.entity.Animal;
+import com.tailpair.exception.ResourceNotFoundException;
+import com.tailpair.repository.AnimalRepository;
+import com.tailpair.repository.ShelterRepository;
+import com.tailpair.security.UserPrincipal;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+// Streaming CSV/NDJSON import and export of a shelter's animals. Not @Transactional at class level:
+// imports commit one batch at a time and exports read one page at a time, so neither holds a
+// transaction or the whole data set for the length of the upload or download.
+@Service
+public class AnimalBulkService {
+
+    private static final int BATCH_SIZE = 500;
+
+    private static final int EXPORT_PAGE_SIZE = 500;
+
+    // Must match the allocationSize of Animal's @SequenceGenerator
+    private static final int ID_ALLOCATION_SIZE = 50;
+
+    public static final List<String> CSV_COLUMNS = List.of(
+        "name", "species", "breed", "age", "gender", "size", "weight", "color", "description",
+        "medicalHistory", "vaccinated", "spayedNeutered", "houseTrained", "goodWithKids", "goodWithPets",
+        "status", "adoptionFee", "imageUrls");
+
+    private static final Set<String> ENUM_COLUMNS = Set.of("species", "gender", "size", "status");
+
+    // Image URLs share one CSV cell
+    private static final String IMAGE_URL_SEPARATOR = "|";
+
+    private static final String INSERT_ANIMAL = "INSERT INTO animals (id, name, species, breed, age, gender, size, " +
+        "weight, color, description, medical_history, vaccinated, spayed_neutered, house_trained, good_with_kids, " +
+        "good_with_pets, status, adoption_fee, created_at, updated_at, shelter_id, version) " +
+        "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, 0)";
+
+    private static final String INSERT_IMAGE = "INSERT INTO animal_images (animal_id, image_url) VALUES (?, ?)";
+
+    @Autowired
+    private AnimalRepository animalRepository;
+
+    @Autowired
+    private ShelterRepository shelterRepository;
+
+    @Autowired
+    private AnimalFilterIndex animalFilterIndex;
+
+    @Autowired
+    private RenderedResponseCache renderedResponseCache;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private Validator validator;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    public AnimalImportResult importCsv(Long shelterId, Reader input) throws IOException {
+        CsvReader csv = new CsvReader(input);
+        List<String> header = csv.readRecord();
+        if (header == null) {
+            throw new IllegalArgumentException("CSV upload is empty");
+        }
+        List<String> columns = header.stream().map(String::trim).toList();
+        for (String column : columns) {
+            if (!CSV_COLUMNS.contains(column)) {
+                throw new IllegalArgumentException("Unknown CSV column: " + column + ". Expected any of " + CSV_COLUMNS);
+            }
+        }
+
+        return importRows(shelterId, () -> {
+            List<String> record = csv.readRecord();
+            while (record != null && record.size() == 1 && record.get(0).isBlank()) {
+                record = csv.readRecord();
+            }
+            return record != null ? fromCsv(columns, record) : null;
+        });
+    }
+
+    public AnimalImportResult importNdjson(Long shelterId, Reader input) throws IOException {
+        BufferedReader lines = new BufferedReader(input);
+        return importRows(shelterId, () -> {
+            String line = lines.readLine();
+            while (line != null && line.isBlank()) {
+                line = lines.readLine();
+            }
+            if (line == null) {
+                return null;
+            }
+            try {
+                return objectMapper.readValue(line, AnimalDto.class);
+            } catch (JsonProcessingException ex) {
+                throw new IllegalArgumentException("Invalid JSON: " + ex.getOriginalMessage());
+            }
+        });
+    }
+
+    public void exportCsv(Long shelterId, Writer output) throws IOException {
+        output.write(String.join(",", CSV_COLUMNS));
+        output.write("\r\n");
+        export(shelterId, animal -> {
+            output.write(toCsv(animal));
+            output.write("\r\n");
+        });
+        output.flush();
+    }
+
+    public void exportNdjson(Long shelterId, Writer output) throws IOException {
+        export(shelterId, animal -> {
+            output.write(objectMapper.writeValueAsString(animal));
+            output.write('\n');
+        });
+        output.flush();
+    }
+
+    public void requireShelter(Long shelterId) {
+        if (!shelterRepository.existsById(shelterId)) {
+            throw new ResourceNotFoundException("Shelter not found with id: " + shelterId);
+        }
+    }
+
+    // Shelter admins may only import into and export (medical history included) the shelter they administer
+    public void requireShelterAccess(Long shelterId, UserPrincipal user) {
+        requireShelter(shelterId);
+        boolean siteAdmin = user.getAuthorities().stream()
+            .anyMatch(authority -> authority.getAuthority().equals("ROLE_ADMIN"));
+        if (!siteAdmin && !shelterRepository.existsByIdAndAdminId(shelterId, user.getId())) {
+            throw new AccessDeniedException("You can only import or export animals of your own shelter");
+        }
+    }
+
+    private AnimalImportResult importRows(Long shelterId, RowParser parser) throws IOException {
+        requireShelter(shelterId);
+
+        AnimalImportResult result = new AnimalImportResult();
+        List<AnimalDto> batch = new ArrayList<>(BATCH_SIZE);
+        List<Long> batchRows = new ArrayList<>(BATCH_SIZE);
+        for (long row = 1; ; row++) {
+            AnimalDto animal;
+            try {
+                animal = parser.next();
+            } catch (IllegalArgumentException ex) {
+                result.addError(row, ex.getMessage());
+                continue;
+            }
+            if (animal == null) {
+                break;
+            }
+
+            if (animal.getStatus() == null) {
+                animal.setStatus(Animal.Status.AVAILABLE);
+            }
+            Set<ConstraintViolation<AnimalDto>> violations = validator.validate(animal);
+            if (!violations.isEmpty()) {
+                result.addError(row, violations.stream()
+                    .map(violation -> violation.getPropertyPath() + " " + violation.getMessage())
+                    .sorted()
+                    .collect(Collectors.joining("; ")));
+                continue;
+            }
+
+            batch.add(animal);
+            batchRows.add(row);
+            if (batch.size() == BATCH_SIZE) {
+                insertBatch(shelterId, batch, batchRows, result);
+                batch.clear();
+                batchRows.clear();
+            }
+        }
+        if (!batch.isEmpty()) {
+            insertBatch(shelterId, batch, batchRows, result);
+        }
+        return result;
+    }
+
+    // One transaction and two JDBC batches per chunk: animals, then their image URLs. When the database
+    // rejects a row's data, the chunk's rows are retried one per transaction so only the offending rows
+    // are reported; other failures (e.g. a lost connection) fail the whole chunk.
+    private void insertBatch(Long shelterId, List<AnimalDto> batch, List<Long> rows, AnimalImportResult result) {
+        try {
+            insert(shelterId, batch);
+            result.addImported(batch.size());
+        } catch (DataIntegrityViolationException ex) {
+            if (batch.size() == 1) {
+                result.addError(rows.get(0), "Insert failed: " + ex.getMostSpecificCause().getMessage());
+                return;
+            }
+            for (int i = 0; i < batch.size(); i++) {
+                insertBatch(shelterId, List.of(batch.get(i)), List.of(rows.get(i)), result);
+            }
+        } catch (DataAccessException ex) {
+            String message = "Batch insert failed: " + ex.getMostSpecificCause().getMessage();
+            rows.forEach(row -> result.addError(row, message));
+        }
+    }
+
+    private void insert(Long shelterId, List<AnimalDto> batch) {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            List<Long> ids = allocateIds(batch.size());
+            Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+
+            List<Object[]> animalRows = new ArrayList<>(batch.size());
+            List<Object[]> imageRows = new ArrayList<>();
+            for (int i = 0; i < batch.size(); i++) {
+                AnimalDto animal = batch.get(i);
+                Long id = ids.get(i);
+                animalRows.add(new Object[] {
+                    id, animal.getName(), animal.getSpecies().name(), animal.getBreed(), animal.getAge(),
+                    animal.getGender().name(), animal.getSize().name(), animal.getWeight(), animal.getColor(),
+                    animal.getDescription(), animal.getMedicalHistory(), animal.isVaccinated(),
+                    animal.isSpayedNeutered(), animal.isHouseTrained(), animal.isGoodWithKids(),
+                    animal.isGoodWithPets(), animal.getStatus().name(), animal.getAdoptionFee(), now, now, shelterId
+                });
+                if (animal.getImageUrls() != null) {
+                    for (String imageUrl : animal.getImageUrls()) {
+                        imageRows.add(new Object[] { id, imageUrl });
+                    }
+                }
+                animalFilterIndex.update(toEntity(id, animal, now.toLocalDateTime()));
+            }
+
+            jdbcTemplate.batchUpdate(INSERT_ANIMAL, animalRows, new int[] {
+                Types.BIGINT, Types.VARCHAR, Types.VARCHAR, Types.VARCHAR, Types.INTEGER, Types.VARCHAR,
+                Types.VARCHAR, Types.NUMERIC, Types.VARCHAR, Types.VARCHAR, Types.VARCHAR, Types.BOOLEAN,
+                Types.BOOLEAN, Types.BOOLEAN, Types.BOOLEAN, Types.BOOLEAN, Types.VARCHAR, Types.NUMERIC,
+                Types.TIMESTAMP, Types.TIMESTAMP, Types.BIGINT
+            });
+            if (!imageRows.isEmpty()) {
+                jdbcTemplate.batchUpdate(INSERT_IMAGE, imageRows, new int[] { Types.BIGINT, Types.VARCHAR });
+            }
+            // Plain JDBC, so not seen by StatementCounter
+            ReplicaRoutingDataSource.recordWrite();
+            renderedResponseCache.invalidateAfterCommit();
+        });
+    }
+
+    // Reserves ids from animals_seq the way Hibernate's pooled optimizer does: each nextval value v
+    // owns the block (v - ID_ALLOCATION_SIZE, v], so imported rows never collide with entity inserts
+    private List<Long> allocateIds(int count) {
+        List<Long> ids = new ArrayList<>(count);
+        // A fresh sequence's first value owns fewer than ID_ALLOCATION_SIZE ids (none below 1), so keep
+        // drawing blocks until there are enough
+        while (ids.size() < count) {
+            int blocks = (count - ids.size() + ID_ALLOCATION_SIZE - 1) / ID_ALLOCATION_SIZE;
+            List<Long> blockEnds = jdbcTemplate.queryForList(
+                "SELECT nextval('animals_seq') FROM generate_series(1, ?)", Long.class, blocks);
+            for (Long blockEnd : blockEnds) {
+                for (long id = Math.max(1, blockEnd - ID_ALLOCATION_SIZE + 1); id <= blockEnd && ids.size() < count; id++) {
+                    ids.add(id);
+                }
+            }
+        }
+        return ids;
+    }
+
+    private void export(Long shelterId, AnimalWriter writer) throws IOException {
+        TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+
+        Long afterId = 0L;
+        List<AnimalDto> page;
+        do {
+            Long after = afterId;
+            // Mapped inside the transaction so image URLs load in batches; nothing outlives the page
+            page = readOnly.execute(status -> animalRepository
+                .findExportPage(shelterId, after, PageRequest.of(0, EXPORT_PAGE_SIZE))
+                .map(AnimalDto::new)
+                .getContent());
+            for (AnimalDto animal : page) {
+                writer.write(animal);
+            }
+            if (!page.isEmpty()) {
+                afterId = page.get(page.size() - 1).getId();
+            }
+        } while (page.size() == EXPORT_PAGE_SIZE);
+    }
+
+    private AnimalDto fromCsv(List<String> columns, List<String> record) {
+        if (record.size() != columns.size()) {
+            throw new IllegalArgumentException("Expected " + columns.size() + " fields but found " + record.size());
+        }
+
+        Map<String, Object> values = new LinkedHashMap<>();
+        for (int i = 0; i < columns.size(); i++) {
+            String column = columns.get(i);
+            String value = record.get(i).trim();
+            if (value.isEmpty()) {
+                continue;
+            }
+            if (column.equals("imageUrls")) {
+                values.put(column, Arrays.stream(value.split("\\" + IMAGE_URL_SEPARATOR))
+                    .map(String::trim)
+                    .filter(url -> !url.isEmpty())
+                    .toList());
+            } else if (ENUM_COLUMNS.contains(column)) {
+                values.put(column, value.toUpperCase(Locale.ROOT));
+            } else {
+                values.put(column, value);
+            }
+        }
+        // Jackson coerces the string cells to numbers, booleans and enums, and throws IllegalArgumentException otherwise
+        return objectMapper.convertValue(values, AnimalDto.class);
+    }
+
+    private String toCsv(AnimalDto animal) {
+        return CSV_COLUMNS.stream().map(column -> csvField(switch (column) {
+            case "name" -> animal.getName();
+            case "species" -> animal.getSpecies();
+            case "breed" -> animal.getBreed();
+            case "age" -> animal.getAge();
+            case "gender" -> animal.getGender();
+            case "size" -> animal.getSize();
+            case "weight" -> animal.getWeight();
+            case "color" -> animal.getColor();
+            case "description" -> animal.getDescription();
+            case "medicalHistory" -> animal.getMedicalHistory();
+            case "vaccinated" -> animal.isVaccinated();
+            case "spayedNeutered" -> animal.isSpayedNeutered();
+            case "houseTrained" -> animal.isHouseTrained();
+            case "goodWithKids" -> animal.isGoodWithKids();
+            case "goodWithPets" -> animal.isGoodWithPets();
+            case "status" -> animal.getStatus();
+            case "adoptionFee" -> animal.getAdoptionFee();
+            case "imageUrls" -> animal.getImageUrls() != null
+                ? String.join(IMAGE_URL_SEPARATOR, animal.getImageUrls())
+                : null;
+            default -> null;
+        })).collect(Collectors.joining(","));
+    }
+
+    private String csvField(Object value) {
+        if (value == null) {
+            return "";
+        }
+        String text = value.toString();
+        if (text.indexOf(',') >= 0 || text.indexOf('"') >= 0 || text.indexOf('\n') >= 0 || text.indexOf('\r') >= 0) {
+            return "\"" + text.replace("\"", "\"\"") + "\"";
+        }
+        return text;
+    }
+
+    private Animal toEntity(Long id, AnimalDto dto, LocalDateTime createdAt) {
+        Animal animal = new Animal(dto.getName(), dto.getSpecies(), dto.getGender(), dto.getSize(), null);
+        animal.setId(id);
+        animal.setCreatedAt(createdAt);
+        animal.setAge(dto.getAge());
+        animal.setStatus(dto.getStatus());
+        animal.setGoodWithKids(dto.isGoodWithKids());
+        animal.setGoodWithPets(dto.isGoodWithPets());
+        animal.setHouseTrained(dto.isHouseTrained());
+        return animal;
+    }
+
+    @FunctionalInterface
+    private interface RowParser {
+        // Returns null at end of input; throws IllegalArgumentException for a row that cannot be parsed
+        AnimalDto next() throws IOException;
+    }
+
+    @FunctionalInterface
+    private interface AnimalWriter {
+        void write(AnimalDto animal) throws IOException;
+    }
+}
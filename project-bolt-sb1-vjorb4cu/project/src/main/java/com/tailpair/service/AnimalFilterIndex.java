@@ -0,0 +1,377 @@
+package com.tailpair.service;
+
+import com.tailpair.config.ReplicaRoutingDataSource;
+import com.tailpair.entity.Animal;
+import com.tailpair.repository.AnimalRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Sort;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+
+// One bitset of animal slots per filterable attribute value; filters are bitset intersections.
+// Results come back newest first (createdAt, then id, descending), the only order the index keeps;
+// requests with any other sort are left to the database.
+@Component
+public class AnimalFilterIndex {
+
+    public static final Sort NEWEST_FIRST = Sort.by(Sort.Direction.DESC, "createdAt", "id");
+
+    @Autowired
+    private AnimalRepository animalRepository;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private State state = new State();
+
+    // Changes committed while a rebuild reads the database, replayed onto the rebuilt state; null otherwise
+    private List<Consumer<State>> changesDuringRebuild;
+
+    private volatile boolean ready = false;
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    public boolean supports(Sort sort) {
+        return sort.isUnsorted() || sort.equals(NEWEST_FIRST) || sort.equals(Sort.by(Sort.Direction.DESC, "createdAt"));
+    }
+
+    // Full reload from the database; also repairs drift from writes made by other instances, and
+    // compacts away the slots of animals that stopped being available since the last rebuild
+    @Scheduled(fixedDelayString = "${app.animal-filter-index.refresh-interval:300000}")
+    public synchronized void rebuild() {
+        // Started before the read, so any change the snapshot might miss is recorded
+        recordChanges(new ArrayList<>());
+        State rebuilt = new State();
+        try (ReplicaRoutingDataSource.PrimaryScope ignored = ReplicaRoutingDataSource.primaryOnly()) {
+            for (Object[] row : animalRepository.findAvailableFilterAttributes()) {
+                rebuilt.put(new Attributes(
+                    (Long) row[0],
+                    true,
+                    (Animal.Species) row[1],
+                    (Animal.Size) row[2],
+                    (Animal.Gender) row[3],
+                    (Integer) row[4],
+                    (Boolean) row[5],
+                    (Boolean) row[6],
+                    (Boolean) row[7],
+                    (LocalDateTime) row[8]
+                ));
+            }
+        } catch (RuntimeException ex) {
+            recordChanges(null);
+            throw ex;
+        }
+
+        lock.writeLock().lock();
+        try {
+            changesDuringRebuild.forEach(change -> change.accept(rebuilt));
+            changesDuringRebuild = null;
+            state = rebuilt;
+            ready = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void update(Animal animal) {
+        Attributes attributes = new Attributes(
+            animal.getId(),
+            animal.getStatus() == Animal.Status.AVAILABLE,
+            animal.getSpecies(),
+            animal.getSize(),
+            animal.getGender(),
+            animal.getAge(),
+            animal.isGoodWithKids(),
+            animal.isGoodWithPets(),
+            animal.isHouseTrained(),
+            animal.getCreatedAt()
+        );
+        TransactionHooks.afterCommit(() -> apply(current -> current.put(attributes)));
+    }
+
+    public void remove(Long animalId) {
+        TransactionHooks.afterCommit(() -> apply(current -> current.remove(animalId)));
+    }
+
+    private void recordChanges(List<Consumer<State>> changes) {
+        lock.writeLock().lock();
+        try {
+            changesDuringRebuild = changes;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void apply(Consumer<State> change) {
+        lock.writeLock().lock();
+        try {
+            change.accept(state);
+            if (changesDuringRebuild != null) {
+                changesDuringRebuild.add(change);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public Result filter(Animal.Species species,
+                         Animal.Size size,
+                         Animal.Gender gender,
+                         Integer minAge,
+                         Integer maxAge,
+                         Boolean goodWithKids,
+                         Boolean goodWithPets,
+                         Boolean houseTrained,
+                         long offset,
+                         int limit) {
+        lock.readLock().lock();
+        try {
+            BitSet matches = (BitSet) state.available.clone();
+            if (species != null) {
+                matches.and(state.species.get(species));
+            }
+            if (size != null) {
+                matches.and(state.sizes.get(size));
+            }
+            if (gender != null) {
+                matches.and(state.genders.get(gender));
+            }
+            applyFlag(matches, state.goodWithKids, goodWithKids);
+            applyFlag(matches, state.goodWithPets, goodWithPets);
+            applyFlag(matches, state.houseTrained, houseTrained);
+            if (minAge != null || maxAge != null) {
+                for (int slot = matches.nextSetBit(0); slot >= 0; slot = matches.nextSetBit(slot + 1)) {
+                    int age = state.ages[slot];
+                    if (age < 0 || (minAge != null && age < minAge) || (maxAge != null && age > maxAge)) {
+                        matches.clear(slot);
+                    }
+                }
+            }
+
+            return new Result(page(matches, offset, limit), matches.cardinality(), facets(matches));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Slots are in insertion order, so only the matches up to the end of the page are ordered, in a heap
+    // that keeps the offset + limit newest and drops the oldest
+    private List<Long> page(BitSet matches, long offset, int limit) {
+        if (offset >= matches.cardinality()) {
+            return Collections.emptyList();
+        }
+        long wanted = offset + limit;
+        Comparator<Integer> oldestFirst = Comparator.<Integer>comparingLong(slot -> state.createdAt[slot])
+            .thenComparingLong(slot -> state.ids.get(slot));
+        PriorityQueue<Integer> newest = new PriorityQueue<>(oldestFirst);
+        for (int slot = matches.nextSetBit(0); slot >= 0; slot = matches.nextSetBit(slot + 1)) {
+            newest.add(slot);
+            if (newest.size() > wanted) {
+                newest.poll();
+            }
+        }
+
+        List<Integer> ordered = new ArrayList<>(newest);
+        ordered.sort(oldestFirst.reversed());
+        List<Long> pageIds = new ArrayList<>(limit);
+        for (int i = (int) offset; i < ordered.size(); i++) {
+            pageIds.add(state.ids.get(ordered.get(i)));
+        }
+        return pageIds;
+    }
+
+    private Map<String, Map<String, Long>> facets(BitSet matches) {
+        long total = matches.cardinality();
+        Map<String, Map<String, Long>> facets = new LinkedHashMap<>();
+        facets.put("species", valueCounts(matches, state.species));
+        facets.put("size", valueCounts(matches, state.sizes));
+        facets.put("gender", valueCounts(matches, state.genders));
+        facets.put("goodWithKids", flagCounts(matches, state.goodWithKids, total));
+        facets.put("goodWithPets", flagCounts(matches, state.goodWithPets, total));
+        facets.put("houseTrained", flagCounts(matches, state.houseTrained, total));
+        return facets;
+    }
+
+    private <E extends Enum<E>> Map<String, Long> valueCounts(BitSet matches, Map<E, BitSet> bitsByValue) {
+        Map<String, Long> counts = new LinkedHashMap<>();
+        bitsByValue.forEach((value, bits) -> counts.put(value.name(), (long) intersectionCount(matches, bits)));
+        return counts;
+    }
+
+    private Map<String, Long> flagCounts(BitSet matches, BitSet bits, long total) {
+        long count = intersectionCount(matches, bits);
+        Map<String, Long> counts = new LinkedHashMap<>();
+        counts.put("true", count);
+        counts.put("false", total - count);
+        return counts;
+    }
+
+    private int intersectionCount(BitSet matches, BitSet bits) {
+        BitSet intersection = (BitSet) matches.clone();
+        intersection.and(bits);
+        return intersection.cardinality();
+    }
+
+    private void applyFlag(BitSet matches, BitSet bits, Boolean expected) {
+        if (expected == null) {
+            return;
+        }
+        if (expected) {
+            matches.and(bits);
+        } else {
+            matches.andNot(bits);
+        }
+    }
+
+    public static class Result {
+        private final List<Long> ids;
+        private final long total;
+        private final Map<String, Map<String, Long>> facets;
+
+        Result(List<Long> ids, long total, Map<String, Map<String, Long>> facets) {
+            this.ids = ids;
+            this.total = total;
+            this.facets = facets;
+        }
+
+        public List<Long> getIds() { return ids; }
+        public long getTotal() { return total; }
+        public Map<String, Map<String, Long>> getFacets() { return facets; }
+    }
+
+    private static class Attributes {
+        private final Long id;
+        private final boolean available;
+        private final Animal.Species species;
+        private final Animal.Size size;
+        private final Animal.Gender gender;
+        private final Integer age;
+        private final boolean goodWithKids;
+        private final boolean goodWithPets;
+        private final boolean houseTrained;
+        private final LocalDateTime createdAt;
+
+        Attributes(Long id, boolean available, Animal.Species species, Animal.Size size, Animal.Gender gender,
+                   Integer age, boolean goodWithKids, boolean goodWithPets, boolean houseTrained,
+                   LocalDateTime createdAt) {
+            this.id = id;
+            this.available = available;
+            this.species = species;
+            this.size = size;
+            this.gender = gender;
+            this.age = age;
+            this.goodWithKids = goodWithKids;
+            this.goodWithPets = goodWithPets;
+            this.houseTrained = houseTrained;
+            this.createdAt = createdAt;
+        }
+    }
+
+    private static class State {
+        private final Map<Long, Integer> slots = new HashMap<>();
+        private final List<Long> ids = new ArrayList<>();
+        private int[] ages = new int[1024];
+        // Creation time in microseconds since the epoch (UTC), the precision PostgreSQL keeps
+        private long[] createdAt = new long[1024];
+        private final BitSet available = new BitSet();
+        private final Map<Animal.Species, BitSet> species = new EnumMap<>(Animal.Species.class);
+        private final Map<Animal.Size, BitSet> sizes = new EnumMap<>(Animal.Size.class);
+        private final Map<Animal.Gender, BitSet> genders = new EnumMap<>(Animal.Gender.class);
+        private final BitSet goodWithKids = new BitSet();
+        private final BitSet goodWithPets = new BitSet();
+        private final BitSet houseTrained = new BitSet();
+
+        State() {
+            for (Animal.Species value : Animal.Species.values()) {
+                species.put(value, new BitSet());
+            }
+            for (Animal.Size value : Animal.Size.values()) {
+                sizes.put(value, new BitSet());
+            }
+            for (Animal.Gender value : Animal.Gender.values()) {
+                genders.put(value, new BitSet());
+            }
+        }
+
+        void put(Attributes attributes) {
+            if (!attributes.available) {
+                remove(attributes.id);
+                return;
+            }
+
+            Integer slot = slots.get(attributes.id);
+            if (slot == null) {
+                slot = appendSlot(attributes.id);
+            } else {
+                clear(slot);
+            }
+
+            available.set(slot);
+            if (attributes.species != null) {
+                species.get(attributes.species).set(slot);
+            }
+            if (attributes.size != null) {
+                sizes.get(attributes.size).set(slot);
+            }
+            if (attributes.gender != null) {
+                genders.get(attributes.gender).set(slot);
+            }
+            goodWithKids.set(slot, attributes.goodWithKids);
+            goodWithPets.set(slot, attributes.goodWithPets);
+            houseTrained.set(slot, attributes.houseTrained);
+            ages[slot] = attributes.age != null ? attributes.age : -1;
+            createdAt[slot] = attributes.createdAt != null
+                ? attributes.createdAt.toEpochSecond(ZoneOffset.UTC) * 1_000_000 + attributes.createdAt.getNano() / 1000
+                : Long.MIN_VALUE;
+        }
+
+        // The slot stays allocated but matches nothing until the next rebuild leaves it out
+        void remove(Long id) {
+            Integer slot = slots.remove(id);
+            if (slot != null) {
+                clear(slot);
+            }
+        }
+
+        // Animals that come back to AVAILABLE get a new slot; their old one was freed by remove()
+        private int appendSlot(Long id) {
+            int slot = ids.size();
+            if (slot == ages.length) {
+                ages = Arrays.copyOf(ages, slot * 2);
+                createdAt = Arrays.copyOf(createdAt, slot * 2);
+            }
+            ids.add(id);
+            slots.put(id, slot);
+            return slot;
+        }
+
+        private void clear(int slot) {
+            available.clear(slot);
+            species.values().forEach(bits -> bits.clear(slot));
+            sizes.values().forEach(bits -> bits.clear(slot));
+            genders.values().forEach(bits -> bits.clear(slot));
+            goodWithKids.clear(slot);
+            goodWithPets.clear(slot);
+            houseTrained.clear(slot);
+            ages[slot] = -1;
+        }
+    }
+}
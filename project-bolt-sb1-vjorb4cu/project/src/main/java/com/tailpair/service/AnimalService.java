@@ -1,25 +1,44 @@
 package com.tailpair.service;
 
 import com.tailpair.dto.AnimalDto;
+import com.tailpair.dto.AnimalFilterPage;
+import com.tailpair.dto.AnimalSummaryDto;
+import com.tailpair.dto.CursorPage;
 import com.tailpair.entity.Animal;
 import com.tailpair.entity.Shelter;
 import com.tailpair.entity.User;
 import com.tailpair.exception.ResourceNotFoundException;
 import com.tailpair.repository.AnimalRepository;
 import com.tailpair.repository.FavoriteRepository;
+import com.tailpair.repository.OffsetPageable;
 import com.tailpair.repository.ShelterRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 @Transactional
 public class AnimalService {
     
+    private static final int SHELTER_BATCH_SIZE = 1000;
+    
     @Autowired
     private AnimalRepository animalRepository;
     
@@ -29,6 +48,15 @@ public class AnimalService {
     @Autowired
     private FavoriteRepository favoriteRepository;
     
+    @Autowired
+    private AnimalFilterIndex animalFilterIndex;
+    
+    @Autowired
+    private RenderedResponseCache renderedResponseCache;
+    
+    @Autowired
+    private ShelterGeoIndex shelterGeoIndex;
+    
     public AnimalDto createAnimal(AnimalDto animalDto, Long shelterId) {
         Shelter shelter = shelterRepository.findById(shelterId)
             .orElseThrow(() -> new ResourceNotFoundException("Shelter not found with id: " + shelterId));
@@ -38,15 +66,19 @@ public class AnimalService {
         animal.setShelter(shelter);
         
         Animal savedAnimal = animalRepository.save(animal);
+        animalFilterIndex.update(savedAnimal);
+        renderedResponseCache.invalidateAfterCommit();
         return new AnimalDto(savedAnimal);
     }
     
+    @Transactional(readOnly = true)
     public AnimalDto getAnimalById(Long id) {
         Animal animal = animalRepository.findById(id)
             .orElseThrow(() -> new ResourceNotFoundException("Animal not found with id: " + id));
         return new AnimalDto(animal);
     }
     
+    @Transactional(readOnly = true)
     public AnimalDto getAnimalById(Long id, Long userId) {
         Animal animal = animalRepository.findById(id)
             .orElseThrow(() -> new ResourceNotFoundException("Animal not found with id: " + id));
@@ -66,6 +98,8 @@ public class AnimalService {
         
         mapDtoToEntity(animalDto, animal);
         Animal updatedAnimal = animalRepository.save(animal);
+        animalFilterIndex.update(updatedAnimal);
+        renderedResponseCache.invalidateAfterCommit();
         return new AnimalDto(updatedAnimal);
     }
     
@@ -74,33 +108,57 @@ public class AnimalService {
             throw new ResourceNotFoundException("Animal not found with id: " + id);
         }
         animalRepository.deleteById(id);
+        animalFilterIndex.remove(id);
+        renderedResponseCache.invalidateAfterCommit();
     }
     
-    public Page<AnimalDto> getAvailableAnimals(Pageable pageable) {
-        return animalRepository.findAvailableAnimals(pageable)
-            .map(AnimalDto::new);
+    @Transactional(readOnly = true)
+    public Page<AnimalSummaryDto> getAvailableAnimals(Pageable pageable) {
+        return animalRepository.findAvailableAnimalSummaries(pageable);
     }
     
-    public Page<AnimalDto> getAvailableAnimals(Pageable pageable, Long userId) {
-        Page<AnimalDto> animals = animalRepository.findAvailableAnimals(pageable)
-            .map(AnimalDto::new);
+    @Transactional(readOnly = true)
+    public Page<AnimalSummaryDto> getAvailableAnimals(Pageable pageable, Long userId) {
+        return applyFavorites(animalRepository.findAvailableAnimalSummaries(pageable), userId);
+    }
+    
+    @Transactional(readOnly = true)
+    public CursorPage<AnimalSummaryDto> getAvailableAnimalsFeed(String cursor, int size, Long userId) {
+        Slice<AnimalSummaryDto> animals;
+        if (cursor == null) {
+            animals = animalRepository.findAvailableAnimalSummariesFeed(CursorPage.limit(size));
+        } else {
+            CursorPage.Cursor position = CursorPage.decodeCursor(cursor);
+            animals = animalRepository.findAvailableAnimalSummariesFeedBefore(
+                position.getCreatedAt(), position.getId(), CursorPage.limit(size));
+        }
         
-        if (userId != null) {
-            animals.getContent().forEach(animalDto -> {
-                boolean isFavorited = favoriteRepository.existsByUserIdAndAnimalId(userId, animalDto.getId());
-                animalDto.setFavorited(isFavorited);
-            });
+        CursorPage<AnimalSummaryDto> feed = CursorPage.of(animals, Function.identity(),
+            AnimalSummaryDto::getCreatedAt, AnimalSummaryDto::getId);
+        markFavorites(feed.getContent(), userId);
+        return feed;
+    }
+    
+    @Transactional(readOnly = true)
+    public Page<AnimalSummaryDto> searchAnimals(String searchTerm, Pageable pageable) {
+        String query = toPrefixTsQuery(searchTerm);
+        if (query.isEmpty()) {
+            return animalRepository.searchAvailableAnimalSummaries(searchTerm, pageable);
         }
         
-        return animals;
+        // Results are ordered by relevance, so any client-supplied sort is dropped
+        Pageable unsorted = PageRequest.of(pageable.getPageNumber(), pageable.getPageSize());
+        Page<Long> ids = animalRepository.fullTextSearchAvailableAnimalIds(query, unsorted);
+        return new PageImpl<>(findSummariesInOrder(ids.getContent()), unsorted, ids.getTotalElements());
     }
     
-    public Page<AnimalDto> searchAnimals(String searchTerm, Pageable pageable) {
-        return animalRepository.searchAvailableAnimals(searchTerm, pageable)
-            .map(AnimalDto::new);
+    @Transactional(readOnly = true)
+    public Page<AnimalSummaryDto> searchAnimals(String searchTerm, Pageable pageable, Long userId) {
+        return applyFavorites(searchAnimals(searchTerm, pageable), userId);
     }
     
-    public Page<AnimalDto> filterAnimals(
+    @Transactional(readOnly = true)
+    public AnimalFilterPage filterAnimals(
             Animal.Species species,
             String breed,
             Animal.Size size,
@@ -112,17 +170,101 @@ public class AnimalService {
             Boolean houseTrained,
             Pageable pageable) {
         
-        return animalRepository.findAvailableAnimalsWithFilters(
-            species, breed, size, gender, minAge, maxAge, 
-            goodWithKids, goodWithPets, houseTrained, pageable
-        ).map(AnimalDto::new);
+        // Breed is free text and other sorts need the database, so only those fall back to SQL;
+        // unsorted requests get the index's newest-first order there too
+        if (breed != null || !animalFilterIndex.supports(pageable.getSort()) || !animalFilterIndex.isReady()) {
+            Pageable sorted = pageable.getSort().isSorted() ? pageable
+                : PageRequest.of(pageable.getPageNumber(), pageable.getPageSize(), AnimalFilterIndex.NEWEST_FIRST);
+            Page<AnimalSummaryDto> animals = animalRepository.findAvailableAnimalSummariesWithFilters(
+                species, breed, size, gender, minAge, maxAge, 
+                goodWithKids, goodWithPets, houseTrained, sorted
+            );
+            return new AnimalFilterPage(animals.getContent(), pageable, animals.getTotalElements(),
+                Collections.emptyMap());
+        }
+        
+        AnimalFilterIndex.Result result = animalFilterIndex.filter(
+            species, size, gender, minAge, maxAge,
+            goodWithKids, goodWithPets, houseTrained,
+            pageable.getOffset(), pageable.getPageSize());
+        
+        return new AnimalFilterPage(findSummariesInOrder(result.getIds()), pageable, result.getTotal(),
+            result.getFacets());
+    }
+    
+    @Transactional(readOnly = true)
+    public AnimalFilterPage filterAnimals(
+            Animal.Species species,
+            String breed,
+            Animal.Size size,
+            Animal.Gender gender,
+            Integer minAge,
+            Integer maxAge,
+            Boolean goodWithKids,
+            Boolean goodWithPets,
+            Boolean houseTrained,
+            Pageable pageable,
+            Long userId) {
+        
+        return applyFavorites(filterAnimals(
+            species, breed, size, gender, minAge, maxAge,
+            goodWithKids, goodWithPets, houseTrained, pageable), userId);
+    }
+    
+    // Available animals at shelters within the radius, nearest shelter first and then in the requested
+    // order (newest first by default) within a shelter. Per-shelter counts locate the page; each shelter
+    // on it is then read with its own OFFSET/LIMIT, so no more rows are loaded than the page shows.
+    @Transactional(readOnly = true)
+    public Page<AnimalSummaryDto> getAvailableAnimalsNear(GeoPoint origin, double radiusMiles, Pageable pageable,
+                                                          Long userId) {
+        List<GeoGrid.Hit> shelters = shelterGeoIndex.within(origin, radiusMiles);
+        if (shelters.isEmpty()) {
+            return Page.empty(pageable);
+        }
+        
+        Map<Long, Long> availableCounts = new HashMap<>();
+        List<Long> shelterIds = shelters.stream().map(GeoGrid.Hit::getId).toList();
+        for (int from = 0; from < shelterIds.size(); from += SHELTER_BATCH_SIZE) {
+            List<Long> batch = shelterIds.subList(from, Math.min(from + SHELTER_BATCH_SIZE, shelterIds.size()));
+            for (Object[] row : animalRepository.countAvailableAnimalsByShelterIds(batch)) {
+                availableCounts.put((Long) row[0], (Long) row[1]);
+            }
+        }
+        long total = availableCounts.values().stream().mapToLong(Long::longValue).sum();
+        
+        // Ties on the requested sort are broken by id so consecutive OFFSETs don't overlap
+        Sort sort = pageable.getSort().isUnsorted() ? Sort.by(Sort.Direction.DESC, "createdAt", "id")
+            : pageable.getSort().getOrderFor("id") != null ? pageable.getSort()
+            : pageable.getSort().and(Sort.by(Sort.Direction.DESC, "id"));
+        List<AnimalSummaryDto> content = new ArrayList<>(pageable.getPageSize());
+        long seen = 0;
+        for (GeoGrid.Hit shelter : shelters) {
+            long count = availableCounts.getOrDefault(shelter.getId(), 0L);
+            long offset = Math.max(pageable.getOffset() - seen, 0);
+            seen += count;
+            if (offset >= count) {
+                continue;
+            }
+            int limit = (int) Math.min(count - offset, pageable.getPageSize() - content.size());
+            for (AnimalSummaryDto animal : animalRepository.findAvailableSummariesByShelterId(
+                    shelter.getId(), new OffsetPageable(offset, limit, sort))) {
+                animal.setDistanceMiles(shelter.getDistanceMiles());
+                content.add(animal);
+            }
+            if (content.size() >= pageable.getPageSize()) {
+                break;
+            }
+        }
+        markFavorites(content, userId);
+        return new PageImpl<>(content, pageable, total);
     }
     
-    public Page<AnimalDto> getAnimalsByShelterId(Long shelterId, Pageable pageable) {
-        return animalRepository.findByShelterId(shelterId, pageable)
-            .map(AnimalDto::new);
+    @Transactional(readOnly = true)
+    public Page<AnimalSummaryDto> getAnimalsByShelterId(Long shelterId, Pageable pageable) {
+        return animalRepository.findSummariesByShelterId(shelterId, pageable);
     }
     
+    @Transactional(readOnly = true)
     public List<AnimalDto> getAnimalsByShelterId(Long shelterId) {
         return animalRepository.findByShelterId(shelterId)
             .stream()
@@ -130,10 +272,57 @@ public class AnimalService {
             .toList();
     }
     
+    @Transactional(readOnly = true)
     public long getAvailableAnimalsCountByShelterId(Long shelterId) {
         return animalRepository.countAvailableAnimalsByShelterId(shelterId);
     }
     
+    // Resolves isFavorited for a whole page with a single query instead of one per animal
+    private <P extends Page<AnimalSummaryDto>> P applyFavorites(P animals, Long userId) {
+        markFavorites(animals.getContent(), userId);
+        return animals;
+    }
+    
+    private void markFavorites(List<AnimalSummaryDto> animals, Long userId) {
+        if (userId == null || animals.isEmpty()) {
+            return;
+        }
+        
+        List<Long> animalIds = animals.stream()
+            .map(AnimalSummaryDto::getId)
+            .toList();
+        Set<Long> favoritedIds = favoriteRepository.findFavoritedAnimalIds(userId, animalIds);
+        animals.forEach(animal ->
+            animal.setFavorited(favoritedIds.contains(animal.getId())));
+    }
+    
+    // Summaries for ids ranked elsewhere (filter index, full-text rank), returned in that order
+    private List<AnimalSummaryDto> findSummariesInOrder(List<Long> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        
+        Map<Long, AnimalSummaryDto> summariesById = animalRepository.findSummariesByIdIn(ids)
+            .stream()
+            .collect(Collectors.toMap(AnimalSummaryDto::getId, Function.identity()));
+        return ids.stream()
+            .map(summariesById::get)
+            .filter(Objects::nonNull)
+            .toList();
+    }
+    
+    // Turns free text into a prefix tsquery, e.g. "golden retr" -> "golden:* & retr:*"
+    private String toPrefixTsQuery(String searchTerm) {
+        if (searchTerm == null) {
+            return "";
+        }
+        
+        return Arrays.stream(searchTerm.toLowerCase().split("[^\\p{L}\\p{N}]+"))
+            .filter(term -> !term.isEmpty())
+            .map(term -> term + ":*")
+            .collect(Collectors.joining(" & "));
+    }
+    
     private void mapDtoToEntity(AnimalDto dto, Animal entity) {
         entity.setName(dto.getName());
         entity.setSpecies(dto.getSpecies());
@@ -0,0 +1,139 @@
+package com.tailpair.service;
+
+import com.tailpair.dto.ConversationDto;
+import com.tailpair.dto.CursorPage;
+import com.tailpair.dto.MessageDto;
+import com.tailpair.entity.Animal;
+import com.tailpair.entity.Conversation;
+import com.tailpair.entity.ConversationParticipant;
+import com.tailpair.entity.Message;
+import com.tailpair.entity.User;
+import com.tailpair.exception.ResourceNotFoundException;
+import com.tailpair.repository.ConversationParticipantRepository;
+import com.tailpair.repository.ConversationRepository;
+import com.tailpair.repository.MessageRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Slice;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+@Service
+@Transactional
+public class ConversationService {
+    
+    @Autowired
+    private ConversationRepository conversationRepository;
+    
+    @Autowired
+    private ConversationParticipantRepository participantRepository;
+    
+    @Autowired
+    private MessageRepository messageRepository;
+    
+    // Returns the thread for the two users and animal, creating it on the first message. Racing first
+    // messages meet on the unique key: the loser's insert waits for the winner and then finds its row.
+    public Conversation conversationFor(User sender, User recipient, Animal animal) {
+        User participantOne = sender.getId() <= recipient.getId() ? sender : recipient;
+        User participantTwo = participantOne == sender ? recipient : sender;
+        long animalKey = animal != null ? animal.getId() : 0;
+        
+        Optional<Long> existing = conversationRepository.findIdByKey(participantOne.getId(), participantTwo.getId(), animalKey);
+        if (existing.isPresent()) {
+            return conversationRepository.getReferenceById(existing.get());
+        }
+        
+        LocalDateTime now = LocalDateTime.now();
+        boolean created = conversationRepository.insertIfAbsent(
+            participantOne.getId(), participantTwo.getId(), animalKey, now) == 1;
+        Long id = conversationRepository.findIdByKey(participantOne.getId(), participantTwo.getId(), animalKey)
+            .orElseThrow(() -> new IllegalStateException("Conversation vanished after insert"));
+        Conversation conversation = conversationRepository.getReferenceById(id);
+        
+        // Only the transaction that created the conversation adds its participants
+        if (created) {
+            participantRepository.save(new ConversationParticipant(conversation, participantOne, now));
+            if (!participantOne.getId().equals(participantTwo.getId())) {
+                participantRepository.save(new ConversationParticipant(conversation, participantTwo, now));
+            }
+        }
+        return conversation;
+    }
+    
+    // Updates the thread summary for a message that has just been saved into it
+    public void recordMessage(Message message) {
+        Long conversationId = message.getConversation().getId();
+        LocalDateTime sentAt = message.getCreatedAt() != null ? message.getCreatedAt() : LocalDateTime.now();
+        conversationRepository.recordLastMessage(conversationId, snippet(message.getContent()), sentAt, message.getSender());
+        participantRepository.recordMessage(conversationId, message.getRecipient().getId(), message.isRead() ? 0 : 1, sentAt);
+    }
+    
+    // Called when an unread message is read or deleted. A deleted message's snippet stays on the
+    // thread until the next message replaces it.
+    public void messageRead(Message message) {
+        if (message.getConversation() != null) {
+            participantRepository.decrementUnread(message.getConversation().getId(), message.getRecipient().getId(), 1);
+        }
+    }
+    
+    public void clearUnread(Long conversationId, Long userId) {
+        participantRepository.clearUnread(conversationId, userId);
+    }
+    
+    @Transactional(readOnly = true)
+    public void requireParticipant(Long conversationId, Long userId) {
+        if (!conversationRepository.existsById(conversationId)) {
+            throw new ResourceNotFoundException("Conversation not found with id: " + conversationId);
+        }
+        if (!participantRepository.existsByConversationIdAndUserId(conversationId, userId)) {
+            throw new IllegalArgumentException("Only participants can view the conversation");
+        }
+    }
+    
+    @Transactional(readOnly = true)
+    public ConversationDto getConversation(Long conversationId, Long userId) {
+        requireParticipant(conversationId, userId);
+        return participantRepository.findByConversationIdAndUserId(conversationId, userId)
+            .map(ConversationDto::new)
+            .orElseThrow(() -> new ResourceNotFoundException("Conversation not found with id: " + conversationId));
+    }
+    
+    // Cursor over (lastMessageAt, id); a thread that receives a message while the client is paging
+    // moves to the top and shows up on the next refresh instead
+    @Transactional(readOnly = true)
+    public CursorPage<ConversationDto> getInbox(Long userId, String cursor, int size) {
+        Slice<ConversationParticipant> threads;
+        if (cursor == null) {
+            threads = participantRepository.findInboxByUserId(userId, CursorPage.limit(size));
+        } else {
+            CursorPage.Cursor position = CursorPage.decodeCursor(cursor);
+            threads = participantRepository.findInboxByUserIdBefore(
+                userId, position.getCreatedAt(), position.getId(), CursorPage.limit(size));
+        }
+        return CursorPage.of(threads, ConversationDto::new,
+            ConversationParticipant::getLastMessageAt, ConversationParticipant::getId);
+    }
+    
+    @Transactional(readOnly = true)
+    public CursorPage<MessageDto> getMessages(Long conversationId, Long userId, String cursor, int size) {
+        requireParticipant(conversationId, userId);
+        Slice<Message> messages;
+        if (cursor == null) {
+            messages = messageRepository.findByConversationId(conversationId, CursorPage.limit(size));
+        } else {
+            CursorPage.Cursor position = CursorPage.decodeCursor(cursor);
+            messages = messageRepository.findByConversationIdBefore(
+                conversationId, position.getCreatedAt(), position.getId(), CursorPage.limit(size));
+        }
+        return CursorPage.of(messages, MessageDto::new, Message::getCreatedAt, Message::getId);
+    }
+    
+    private static String snippet(String content) {
+        String flattened = content.strip().replaceAll("\\s+", " ");
+        return flattened.length() <= Conversation.SNIPPET_LENGTH
+            ? flattened
+            : flattened.substring(0, Conversation.SNIPPET_LENGTH - 3) + "...";
+    }
+}
@@ -0,0 +1,276 @@
+package com.tailpair.service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Server-sent event channel; idle connections are async emitters and hold no request thread.
+// Each connection has its own queue, drained by at most one task at a time, so its events go out
+// in order and a slow client only holds up itself. Publishing never blocks: a connection that falls
+// max-pending events behind is closed and catches up through Last-Event-ID when it reconnects.
+@Service
+public class EventStreamService {
+
+    private static final Event HEARTBEAT = new Event(-1, null, null);
+
+    @Value("${app.events.timeout:1800000}")
+    private long timeoutInMs;
+
+    @Value("${app.events.replay-size:50}")
+    private int replaySize;
+
+    @Value("${app.events.idle-stream-ttl:600000}")
+    private long idleStreamTtlInMs;
+
+    @Value("${app.events.max-pending:100}")
+    private int maxPending;
+
+    @Value("${app.events.sender-threads:16}")
+    private int senderThreads;
+
+    // Seeded from the clock so ids keep increasing across restarts and stale Last-Event-IDs are detected
+    private final AtomicLong sequence = new AtomicLong(System.currentTimeMillis() * 1000);
+
+    private final ConcurrentMap<Long, UserStream> streams = new ConcurrentHashMap<>();
+
+    // A send blocks on the client's socket, so a connection holds a thread only while it has events to drain.
+    // The pool is fixed: each connection has at most one drain task queued, and one whose sends stall falls
+    // max-pending events behind and is closed instead of taking more threads.
+    private ExecutorService senders;
+
+    @PostConstruct
+    public void init() {
+        senders = Executors.newFixedThreadPool(senderThreads);
+    }
+
+    public SseEmitter subscribe(Long userId, String lastEventId) {
+        SseEmitter emitter = new SseEmitter(timeoutInMs);
+        Long lastId = parseEventId(lastEventId);
+        // Registered and replayed inside compute, so the idle sweep can't drop the stream in between
+        Subscriber subscriber = new Subscriber(emitter);
+        streams.compute(userId, (id, stream) -> {
+            UserStream current = stream != null ? stream : new UserStream(sequence.get() + 1);
+            current.subscribe(subscriber, lastId, sequence.get());
+            return current;
+        });
+
+        emitter.onCompletion(subscriber::discard);
+        emitter.onTimeout(subscriber::discard);
+        emitter.onError(ex -> subscriber.discard());
+        return emitter;
+    }
+
+    // Only users with a live or recently closed stream are buffered; others load their inbox on connect
+    public void publish(Long userId, String name, Object data) {
+        UserStream stream = streams.get(userId);
+        if (stream != null) {
+            stream.publish(new Event(sequence.incrementAndGet(), name, data), replaySize);
+        }
+    }
+
+    public void publishAfterCommit(Long userId, String name, Object data) {
+        TransactionHooks.afterCommit(() -> publish(userId, name, data));
+    }
+
+    public void publishAfterCommit(String name, Map<Long, ?> dataByUserId) {
+        TransactionHooks.afterCommit(() -> dataByUserId.forEach((userId, data) -> publish(userId, name, data)));
+    }
+
+    @Scheduled(fixedRateString = "${app.events.heartbeat-interval:25000}")
+    public void heartbeat() {
+        long now = System.currentTimeMillis();
+        for (Long userId : streams.keySet()) {
+            streams.computeIfPresent(userId, (id, stream) -> {
+                if (stream.subscribers.isEmpty()) {
+                    return now - stream.lastActivity > idleStreamTtlInMs ? null : stream;
+                }
+                stream.subscribers.forEach(subscriber -> subscriber.offer(HEARTBEAT));
+                return stream;
+            });
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        senders.shutdownNow();
+        streams.values().forEach(stream -> stream.subscribers.forEach(subscriber -> subscriber.emitter.complete()));
+    }
+
+    // Returns -1 for an id that can't be ours, which always resyncs
+    private static Long parseEventId(String lastEventId) {
+        if (lastEventId == null) {
+            return null;
+        }
+        try {
+            return Long.parseLong(lastEventId);
+        } catch (NumberFormatException ex) {
+            return -1L;
+        }
+    }
+
+    private static class Event {
+        private final long id;
+        private final String name;
+        private final Object data;
+
+        Event(long id, String name, Object data) {
+            this.id = id;
+            this.name = name;
+            this.data = data;
+        }
+
+        // A builder accumulates its output as it is sent, so each send needs a fresh one
+        SseEmitter.SseEventBuilder toSse() {
+            if (this == HEARTBEAT) {
+                return SseEmitter.event().comment("heartbeat");
+            }
+            return SseEmitter.event().id(Long.toString(id)).name(name).data(data);
+        }
+    }
+
+    private class Subscriber {
+        private final SseEmitter emitter;
+        private final Queue<Event> pending = new ConcurrentLinkedQueue<>();
+        private final AtomicInteger pendingCount = new AtomicInteger();
+        private final AtomicBoolean draining = new AtomicBoolean();
+        private volatile UserStream stream;
+        private volatile boolean closed;
+
+        Subscriber(SseEmitter emitter) {
+            this.emitter = emitter;
+        }
+
+        void offer(Event event) {
+            if (closed) {
+                return;
+            }
+            if (pendingCount.incrementAndGet() > maxPending) {
+                // Too far behind; the drain completes the emitter once its current send returns
+                discard();
+            } else {
+                pending.add(event);
+            }
+            schedule();
+        }
+
+        void discard() {
+            closed = true;
+            pending.clear();
+            UserStream current = stream;
+            if (current != null) {
+                current.remove(this);
+            }
+        }
+
+        private void schedule() {
+            if (draining.compareAndSet(false, true)) {
+                try {
+                    senders.execute(this::drain);
+                } catch (RejectedExecutionException ex) {
+                    draining.set(false);
+                }
+            }
+        }
+
+        private void drain() {
+            try {
+                Event event;
+                while (!closed && (event = pending.poll()) != null) {
+                    pendingCount.decrementAndGet();
+                    emitter.send(event.toSse());
+                }
+                if (closed) {
+                    emitter.complete();
+                }
+            } catch (IOException | IllegalStateException ex) {
+                discard();
+            } finally {
+                draining.set(false);
+            }
+            // Picks up an event offered after the last poll but before the flag was cleared
+            if (!closed && !pending.isEmpty()) {
+                schedule();
+            }
+        }
+    }
+
+    private static class UserStream {
+        private final Set<Subscriber> subscribers = new CopyOnWriteArraySet<>();
+        private final Deque<Event> recent = new ArrayDeque<>();
+        private long firstAvailableId;
+        private volatile long lastActivity = System.currentTimeMillis();
+
+        UserStream(long firstAvailableId) {
+            this.firstAvailableId = firstAvailableId;
+        }
+
+        void touch() {
+            lastActivity = System.currentTimeMillis();
+        }
+
+        // Under the same lock as publish, so replayed events are queued before any live one
+        synchronized void subscribe(Subscriber subscriber, Long lastId, long currentId) {
+            subscriber.stream = this;
+            if (lastId != null) {
+                List<Event> missed = since(lastId);
+                if (missed == null) {
+                    subscriber.offer(new Event(currentId, "resync", ""));
+                } else {
+                    missed.forEach(subscriber::offer);
+                }
+            }
+            subscribers.add(subscriber);
+            touch();
+        }
+
+        synchronized void publish(Event event, int maxSize) {
+            recent.addLast(event);
+            while (recent.size() > maxSize) {
+                firstAvailableId = recent.removeFirst().id + 1;
+            }
+            subscribers.forEach(subscriber -> subscriber.offer(event));
+            touch();
+        }
+
+        void remove(Subscriber subscriber) {
+            subscribers.remove(subscriber);
+            touch();
+        }
+
+        // Returns null when events after lastId were already dropped, so the client must re-query
+        private List<Event> since(long lastId) {
+            if (lastId < 0 || lastId + 1 < firstAvailableId) {
+                return null;
+            }
+            List<Event> events = new ArrayList<>();
+            for (Event event : recent) {
+                if (event.id > lastId) {
+                    events.add(event);
+                }
+            }
+            return events;
+        }
+    }
+}
@@ -1,6 +1,6 @@
 package com.tailpair.service;
 
-import com.tailpair.dto.AnimalDto;
+import com.tailpair.dto.AnimalSummaryDto;
 import com.tailpair.entity.Animal;
 import com.tailpair.entity.Favorite;
 import com.tailpair.entity.User;
@@ -50,19 +50,19 @@ public class FavoriteService {
         favoriteRepository.deleteByUserIdAndAnimalId(userId, animalId);
     }
     
+    @Transactional(readOnly = true)
     public boolean isFavorited(Long userId, Long animalId) {
         return favoriteRepository.existsByUserIdAndAnimalId(userId, animalId);
     }
     
-    public Page<AnimalDto> getFavoriteAnimals(Long userId, Pageable pageable) {
-        return favoriteRepository.findByUserId(userId, pageable)
-            .map(favorite -> {
-                AnimalDto animalDto = new AnimalDto(favorite.getAnimal());
-                animalDto.setFavorited(true);
-                return animalDto;
-            });
+    @Transactional(readOnly = true)
+    public Page<AnimalSummaryDto> getFavoriteAnimals(Long userId, Pageable pageable) {
+        Page<AnimalSummaryDto> animals = favoriteRepository.findFavoriteAnimalSummaries(userId, pageable);
+        animals.forEach(animal -> animal.setFavorited(true));
+        return animals;
     }
     
+    @Transactional(readOnly = true)
     public long getFavoriteCount(Long animalId) {
         return favoriteRepository.countByAnimalId(animalId);
     }
@@ -0,0 +1,179 @@
+package com.tailpair.service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+// Immutable uniform grid over points in degrees. Points live in parallel primitive arrays sorted by
+// cell, with a compressed index of the occupied cells, so 100k points take about 2 MB.
+// Cells do not wrap at the antimeridian, which no US location is close to.
+public final class GeoGrid {
+
+    private final double cellDegrees;
+    private final int rows;
+    private final int columns;
+    private final long[] ids;
+    private final float[] latitudes;
+    private final float[] longitudes;
+    // Occupied cells in ascending order; the points of cells[i] are cellStarts[i] until cellStarts[i + 1]
+    private final int[] cells;
+    private final int[] cellStarts;
+
+    private GeoGrid(double cellDegrees, long[] ids, float[] latitudes, float[] longitudes, int[] cells, int[] cellStarts) {
+        this.cellDegrees = cellDegrees;
+        this.rows = (int) Math.ceil(180 / cellDegrees);
+        this.columns = (int) Math.ceil(360 / cellDegrees);
+        this.ids = ids;
+        this.latitudes = latitudes;
+        this.longitudes = longitudes;
+        this.cells = cells;
+        this.cellStarts = cellStarts;
+    }
+
+    public static GeoGrid empty(double cellDegrees) {
+        return build(new long[0], new float[0], new float[0], 0, cellDegrees);
+    }
+
+    // Uses the first count entries of the arrays
+    public static GeoGrid build(long[] ids, float[] latitudes, float[] longitudes, int count, double cellDegrees) {
+        if (cellDegrees < 0.01 || cellDegrees > 10) {
+            throw new IllegalArgumentException("Cell size must be between 0.01 and 10 degrees: " + cellDegrees);
+        }
+        int rows = (int) Math.ceil(180 / cellDegrees);
+        int columns = (int) Math.ceil(360 / cellDegrees);
+
+        // Sort point indexes by cell with a single primitive sort of (cell << 32 | index)
+        long[] keys = new long[count];
+        for (int i = 0; i < count; i++) {
+            long cell = (long) cellIndex(latitudes[i], 90, cellDegrees, rows) * columns
+                + cellIndex(longitudes[i], 180, cellDegrees, columns);
+            keys[i] = (cell << 32) | i;
+        }
+        Arrays.sort(keys);
+
+        long[] sortedIds = new long[count];
+        float[] sortedLatitudes = new float[count];
+        float[] sortedLongitudes = new float[count];
+        int[] cells = new int[count];
+        int[] cellStarts = new int[count + 1];
+        int occupied = 0;
+        for (int position = 0; position < count; position++) {
+            int cell = (int) (keys[position] >>> 32);
+            int index = (int) keys[position];
+            sortedIds[position] = ids[index];
+            sortedLatitudes[position] = latitudes[index];
+            sortedLongitudes[position] = longitudes[index];
+            if (occupied == 0 || cells[occupied - 1] != cell) {
+                cells[occupied] = cell;
+                cellStarts[occupied] = position;
+                occupied++;
+            }
+        }
+        cellStarts[occupied] = count;
+
+        return new GeoGrid(cellDegrees, sortedIds, sortedLatitudes, sortedLongitudes,
+            Arrays.copyOf(cells, occupied), Arrays.copyOf(cellStarts, occupied + 1));
+    }
+
+    // Copy with the point for id moved, added, or removed when the coordinates are null
+    public GeoGrid update(long id, Double latitude, Double longitude) {
+        int count = ids.length;
+        long[] newIds = new long[count + 1];
+        float[] newLatitudes = new float[count + 1];
+        float[] newLongitudes = new float[count + 1];
+        int size = 0;
+        for (int i = 0; i < count; i++) {
+            if (ids[i] != id) {
+                newIds[size] = ids[i];
+                newLatitudes[size] = latitudes[i];
+                newLongitudes[size] = longitudes[i];
+                size++;
+            }
+        }
+        if (latitude != null && longitude != null) {
+            newIds[size] = id;
+            newLatitudes[size] = latitude.floatValue();
+            newLongitudes[size] = longitude.floatValue();
+            size++;
+        }
+        return build(newIds, newLatitudes, newLongitudes, size, cellDegrees);
+    }
+
+    public int size() {
+        return ids.length;
+    }
+
+    // Every point within radiusMiles of the origin, nearest first
+    public List<Hit> within(double latitude, double longitude, double radiusMiles) {
+        double milesPerDegree = GeoPoint.milesPerDegreeLatitude();
+        double latitudeDelta = radiusMiles / milesPerDegree;
+        // Widest longitude span of the circle is at the edge of the box nearest the pole
+        double poleward = Math.min(90, Math.abs(latitude) + latitudeDelta);
+        double cosine = Math.cos(Math.toRadians(poleward));
+        double longitudeDelta = cosine < 1e-6 ? 360 : Math.min(360, radiusMiles / (milesPerDegree * cosine));
+
+        int firstRow = row(latitude - latitudeDelta);
+        int lastRow = row(latitude + latitudeDelta);
+        int firstColumn = column(longitude - longitudeDelta);
+        int lastColumn = column(longitude + longitudeDelta);
+
+        List<Hit> hits = new ArrayList<>();
+        for (int row = firstRow; row <= lastRow; row++) {
+            int rowEnd = row * columns + lastColumn;
+            for (int c = firstCellAtOrAfter(row * columns + firstColumn); c < cells.length && cells[c] <= rowEnd; c++) {
+                for (int p = cellStarts[c]; p < cellStarts[c + 1]; p++) {
+                    double distance = GeoPoint.distanceMiles(latitude, longitude, latitudes[p], longitudes[p]);
+                    if (distance <= radiusMiles) {
+                        hits.add(new Hit(ids[p], distance));
+                    }
+                }
+            }
+        }
+        hits.sort(Comparator.comparingDouble(Hit::getDistanceMiles));
+        return hits;
+    }
+
+    // The limit nearest points within maxRadiusMiles. Searches a circle that doubles until it holds
+    // enough points; every point inside the circle is found, so its nearest are the global nearest.
+    public List<Hit> nearest(double latitude, double longitude, int limit, double maxRadiusMiles) {
+        double radius = Math.min(cellDegrees * GeoPoint.milesPerDegreeLatitude(), maxRadiusMiles);
+        while (true) {
+            List<Hit> hits = within(latitude, longitude, radius);
+            if (hits.size() >= limit || radius >= maxRadiusMiles) {
+                return new ArrayList<>(hits.subList(0, Math.min(limit, hits.size())));
+            }
+            radius = Math.min(radius * 2, maxRadiusMiles);
+        }
+    }
+
+    private int row(double latitude) {
+        return cellIndex(latitude, 90, cellDegrees, rows);
+    }
+
+    private int column(double longitude) {
+        return cellIndex(longitude, 180, cellDegrees, columns);
+    }
+
+    private static int cellIndex(double degrees, double offset, double cellDegrees, int count) {
+        return Math.max(0, Math.min(count - 1, (int) Math.floor((degrees + offset) / cellDegrees)));
+    }
+
+    private int firstCellAtOrAfter(int cell) {
+        int index = Arrays.binarySearch(cells, cell);
+        return index >= 0 ? index : -index - 1;
+    }
+
+    public static final class Hit {
+        private final long id;
+        private final double distanceMiles;
+
+        Hit(long id, double distanceMiles) {
+            this.id = id;
+            this.distanceMiles = distanceMiles;
+        }
+
+        public long getId() { return id; }
+        public double getDistanceMiles() { return distanceMiles; }
+    }
+}
@@ -1,5 +1,7 @@
 package com.tailpair.service;
 
+import com.tailpair.dto.ConversationDto;
+import com.tailpair.dto.CursorPage;
 import com.tailpair.dto.MessageDto;
 import com.tailpair.entity.Animal;
 import com.tailpair.entity.Message;
@@ -8,9 +10,13 @@ import com.tailpair.exception.ResourceNotFoundException;
 import com.tailpair.repository.AnimalRepository;
 import com.tailpair.repository.MessageRepository;
 import com.tailpair.repository.UserRepository;
+import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -30,6 +36,25 @@ public class MessageService {
     @Autowired
     private NotificationService notificationService;
     
+    @Autowired
+    private EventStreamService eventStreamService;
+    
+    @Autowired
+    private ConversationService conversationService;
+    
+    @Value("${app.unread-counters.max-size:100000}")
+    private int unreadCountersMaxSize;
+    
+    @Value("${app.unread-counters.idle-ttl:1800000}")
+    private long unreadCountersIdleTtlInMs;
+    
+    private UnreadCounter unreadCounter;
+    
+    @PostConstruct
+    public void init() {
+        unreadCounter = new UnreadCounter(unreadCountersMaxSize, unreadCountersIdleTtlInMs);
+    }
+    
     public MessageDto sendMessage(MessageDto messageDto, Long senderId) {
         User sender = userRepository.findById(senderId)
             .orElseThrow(() -> new ResourceNotFoundException("Sender not found with id: " + senderId));
@@ -48,15 +73,21 @@ public class MessageService {
                 .orElseThrow(() -> new ResourceNotFoundException("Animal not found with id: " + messageDto.getAnimalId()));
             message.setAnimal(animal);
         }
+        message.setConversation(conversationService.conversationFor(sender, recipient, message.getAnimal()));
         
         Message savedMessage = messageRepository.save(message);
+        conversationService.recordMessage(savedMessage);
+        unreadCounter.increment(recipient.getId());
         
         // Send notification to recipient
         notificationService.createMessageNotification(recipient, sender, savedMessage);
         
-        return new MessageDto(savedMessage);
+        MessageDto sentMessage = new MessageDto(savedMessage);
+        eventStreamService.publishAfterCommit(recipient.getId(), "message", sentMessage);
+        return sentMessage;
     }
     
+    @Transactional(readOnly = true)
     public MessageDto getMessageById(Long id) {
         Message message = messageRepository.findById(id)
             .orElseThrow(() -> new ResourceNotFoundException("Message not found with id: " + id));
@@ -72,7 +103,11 @@ public class MessageService {
             throw new IllegalArgumentException("Only the recipient can mark the message as read");
         }
         
-        message.setRead(true);
+        if (!message.isRead()) {
+            message.setRead(true);
+            conversationService.messageRead(message);
+            unreadCounter.decrement(userId);
+        }
         Message updatedMessage = messageRepository.save(message);
         return new MessageDto(updatedMessage);
     }
@@ -88,32 +123,69 @@ public class MessageService {
         }
         
         messageRepository.deleteById(id);
+        if (!message.isRead()) {
+            conversationService.messageRead(message);
+            unreadCounter.decrement(message.getRecipient().getId());
+        }
     }
     
+    public ConversationDto markConversationAsRead(Long conversationId, Long userId) {
+        conversationService.requireParticipant(conversationId, userId);
+        int updated = messageRepository.markConversationAsRead(conversationId, userId);
+        conversationService.clearUnread(conversationId, userId);
+        unreadCounter.decrement(userId, updated);
+        return conversationService.getConversation(conversationId, userId);
+    }
+    
+    @Transactional(readOnly = true)
     public Page<MessageDto> getMessagesByUserId(Long userId, Pageable pageable) {
         return messageRepository.findByUserId(userId, pageable)
             .map(MessageDto::new);
     }
     
+    @Transactional(readOnly = true)
+    public CursorPage<MessageDto> getMessageFeed(Long userId, String cursor, int size) {
+        Slice<Message> messages;
+        if (cursor == null) {
+            messages = messageRepository.findFeedByUserId(userId, CursorPage.limit(size));
+        } else {
+            CursorPage.Cursor position = CursorPage.decodeCursor(cursor);
+            messages = messageRepository.findFeedByUserIdBefore(
+                userId, position.getCreatedAt(), position.getId(), CursorPage.limit(size));
+        }
+        return CursorPage.of(messages, MessageDto::new, Message::getCreatedAt, Message::getId);
+    }
+    
+    @Transactional(readOnly = true)
     public Page<MessageDto> getSentMessages(Long userId, Pageable pageable) {
         return messageRepository.findBySenderId(userId, pageable)
             .map(MessageDto::new);
     }
     
+    @Transactional(readOnly = true)
     public Page<MessageDto> getReceivedMessages(Long userId, Pageable pageable) {
         return messageRepository.findByRecipientId(userId, pageable)
             .map(MessageDto::new);
     }
     
+    @Transactional(readOnly = true)
     public Page<MessageDto> getUnreadMessages(Long userId, Pageable pageable) {
         return messageRepository.findUnreadMessagesByRecipientId(userId, pageable)
             .map(MessageDto::new);
     }
     
+    // Seeds the shared counter, so it reads from the primary rather than a replica
     public long getUnreadMessageCount(Long userId) {
-        return messageRepository.countUnreadMessagesByRecipientId(userId);
+        return unreadCounter.get(userId, messageRepository::countUnreadMessagesByRecipientId);
+    }
+    
+    // Repairs drift in the in-memory counters, e.g. from writes made by other instances
+    @Scheduled(fixedDelayString = "${app.unread-counters.reconcile-interval:60000}")
+    public void reconcileUnreadCounts() {
+        unreadCounter.reconcile(messageRepository::countUnreadMessagesByRecipientIds);
     }
     
+    @Transactional(readOnly = true)
     public Page<MessageDto> getMessagesByAnimalAndUser(Long animalId, Long userId, Pageable pageable) {
         return messageRepository.findByAnimalIdAndUserId(animalId, userId, pageable)
             .map(MessageDto::new);
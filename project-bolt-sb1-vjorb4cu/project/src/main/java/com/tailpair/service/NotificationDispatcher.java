@@ -0,0 +1,128 @@
+package com.tailpair.service;
+
+import com.tailpair.entity.NotificationOutbox;
+import com.tailpair.repository.FavoriteRepository;
+import com.tailpair.repository.NotificationOutboxRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+// Delivers notification outbox entries outside the business transactions that wrote them
+@Component
+public class NotificationDispatcher {
+
+    private static final Logger logger = LoggerFactory.getLogger(NotificationDispatcher.class);
+
+    @Autowired
+    private NotificationOutboxRepository notificationOutboxRepository;
+
+    @Autowired
+    private FavoriteRepository favoriteRepository;
+
+    @Autowired
+    private NotificationService notificationService;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${app.notification-outbox.batch-size:100}")
+    private int batchSize;
+
+    @Value("${app.notification-outbox.fan-out-chunk-size:500}")
+    private int fanOutChunkSize;
+
+    @Value("${app.notification-outbox.max-attempts:5}")
+    private int maxAttempts;
+
+    @Value("${app.notification-outbox.retention-days:7}")
+    private int retentionDays;
+
+    @Scheduled(fixedDelayString = "${app.notification-outbox.poll-interval:1000}")
+    public void dispatch() {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+
+        List<Long> dueIds;
+        do {
+            dueIds = transaction.execute(status ->
+                notificationOutboxRepository.findDueIds(LocalDateTime.now(), PageRequest.of(0, batchSize)));
+            for (Long id : dueIds) {
+                try {
+                    // A fan-out commits each chunk on its own, so a failure only repeats the chunk it hit
+                    boolean delivered;
+                    do {
+                        delivered = transaction.execute(status -> deliverChunk(id));
+                    } while (!delivered);
+                } catch (RuntimeException ex) {
+                    logger.warn("Could not deliver notification outbox entry {}", id, ex);
+                    transaction.executeWithoutResult(status -> scheduleRetry(id, ex));
+                }
+            }
+        } while (dueIds.size() == batchSize);
+    }
+
+    @Scheduled(cron = "${app.notification-outbox.purge-cron:0 0 3 * * *}")
+    public void purgeDelivered() {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status ->
+            notificationOutboxRepository.deleteDeliveredBefore(LocalDateTime.now().minusDays(retentionDays)));
+    }
+
+    // Delivers the entry, or the next chunk of a fan-out, and records the progress in the same
+    // transaction. Returns false while a fan-out has chunks left.
+    private boolean deliverChunk(Long id) {
+        // The row lock is held for one chunk; a dispatcher on another instance waits and then continues
+        // from the committed cursor or skips the delivered entry
+        NotificationOutbox entry = notificationOutboxRepository.findByIdForUpdate(id).orElse(null);
+        if (entry == null || entry.getStatus() != NotificationOutbox.Status.PENDING) {
+            return true;
+        }
+
+        if (entry.isFanOut()) {
+            Long afterUserId = entry.getFanOutCursor() != null ? entry.getFanOutCursor() : 0L;
+            List<Long> userIds = favoriteRepository.findUserIdsByAnimalIdAfter(
+                entry.getAnimalId(), afterUserId, PageRequest.of(0, fanOutChunkSize));
+            if (!userIds.isEmpty()) {
+                notificationService.deliver(entry, userIds.stream()
+                    .filter(userId -> !userId.equals(entry.getExcludedUserId()))
+                    .toList());
+                entry.setFanOutCursor(userIds.get(userIds.size() - 1));
+            }
+            if (userIds.size() == fanOutChunkSize) {
+                return false;
+            }
+        } else {
+            notificationService.deliver(entry, List.of(entry.getUserId()));
+        }
+
+        entry.setStatus(NotificationOutbox.Status.DELIVERED);
+        entry.setProcessedAt(LocalDateTime.now());
+        return true;
+    }
+
+    private void scheduleRetry(Long id, RuntimeException failure) {
+        notificationOutboxRepository.findById(id).ifPresent(entry -> {
+            int attempts = entry.getAttempts() + 1;
+            entry.setAttempts(attempts);
+            entry.setLastError(truncate(String.valueOf(failure.getMessage())));
+            if (attempts >= maxAttempts) {
+                entry.setStatus(NotificationOutbox.Status.FAILED);
+                entry.setProcessedAt(LocalDateTime.now());
+            } else {
+                // Exponential backoff: 2s, 4s, 8s, ...
+                entry.setNextAttemptAt(LocalDateTime.now().plusSeconds(1L << attempts));
+            }
+        });
+    }
+
+    private String truncate(String message) {
+        return message.length() > 500 ? message.substring(0, 500) : message;
+    }
+}
@@ -0,0 +1,189 @@
+package com.tailpair.service;
+
+import com.tailpair.entity.Notification;
+import com.tailpair.repository.UserRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.mail.MailException;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.SimpleMailMessage;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+// Emails committed notifications as per-user digests. Notifications are queued after commit and never
+// sent from the business transaction; a scheduled flush coalesces everything a user received since the
+// last flush into one email and sends the digests in batches over a single SMTP connection. When the
+// queue is full new notifications are not emailed (they are still in the in-app inbox).
+@Component
+public class NotificationMailer {
+
+    private static final Logger logger = LoggerFactory.getLogger(NotificationMailer.class);
+
+    private static final int RECIPIENT_BATCH_SIZE = 500;
+
+    @Autowired
+    private JavaMailSender mailSender;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${app.mail.enabled:false}")
+    private boolean enabled;
+
+    @Value("${app.mail.from:no-reply@tailpair.com}")
+    private String fromAddress;
+
+    @Value("${app.mail.queue-capacity:10000}")
+    private int queueCapacity;
+
+    @Value("${app.mail.send-batch-size:50}")
+    private int sendBatchSize;
+
+    @Value("${app.mail.max-items-per-digest:10}")
+    private int maxItemsPerDigest;
+
+    private BlockingQueue<PendingMail> queue;
+    private Counter dropped;
+    private Counter sent;
+    private Counter failed;
+
+    @PostConstruct
+    public void init() {
+        queue = new ArrayBlockingQueue<>(queueCapacity);
+        meterRegistry.gauge("tailpair.mail.queue.size", queue, BlockingQueue::size);
+        dropped = meterRegistry.counter("tailpair.mail.notifications", "outcome", "dropped");
+        sent = meterRegistry.counter("tailpair.mail.digests", "outcome", "sent");
+        failed = meterRegistry.counter("tailpair.mail.digests", "outcome", "failed");
+    }
+
+    public void enqueueAfterCommit(Notification notification) {
+        enqueueAfterCommit(List.of(notification));
+    }
+
+    public void enqueueAfterCommit(List<Notification> notifications) {
+        if (!enabled) {
+            return;
+        }
+        List<PendingMail> mails = new ArrayList<>(notifications.size());
+        for (Notification notification : notifications) {
+            mails.add(new PendingMail(notification.getUser().getId(), notification.getTitle(), notification.getMessage()));
+        }
+        TransactionHooks.afterCommit(() -> {
+            // Never blocks the committing thread
+            for (PendingMail mail : mails) {
+                if (!queue.offer(mail)) {
+                    dropped.increment();
+                }
+            }
+        });
+    }
+
+    @Scheduled(fixedDelayString = "${app.mail.flush-interval:60000}")
+    public void flush() {
+        if (!enabled || queue.isEmpty()) {
+            return;
+        }
+
+        List<PendingMail> pending = new ArrayList<>(queue.size());
+        queue.drainTo(pending);
+
+        Map<Long, List<PendingMail>> byUser = new LinkedHashMap<>();
+        for (PendingMail mail : pending) {
+            byUser.computeIfAbsent(mail.userId, id -> new ArrayList<>()).add(mail);
+        }
+
+        List<Long> userIds = new ArrayList<>(byUser.keySet());
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        transaction.setReadOnly(true);
+        for (int start = 0; start < userIds.size(); start += RECIPIENT_BATCH_SIZE) {
+            List<Long> batch = userIds.subList(start, Math.min(start + RECIPIENT_BATCH_SIZE, userIds.size()));
+            List<Object[]> recipients = transaction.execute(status -> userRepository.findMailRecipients(batch));
+
+            List<SimpleMailMessage> digests = new ArrayList<>(recipients.size());
+            for (Object[] recipient : recipients) {
+                digests.add(digest((String) recipient[1], (String) recipient[2], byUser.get((Long) recipient[0])));
+            }
+            send(digests);
+        }
+    }
+
+    // Sends whatever is still queued before the application context closes
+    @PreDestroy
+    public void shutdown() {
+        flush();
+    }
+
+    // Each send call opens one connection for the whole batch; the flush waits for it to finish before
+    // sending the next one, so a slow SMTP server slows the flush rather than piling up connections
+    private void send(List<SimpleMailMessage> digests) {
+        for (int start = 0; start < digests.size(); start += sendBatchSize) {
+            List<SimpleMailMessage> batch = digests.subList(start, Math.min(start + sendBatchSize, digests.size()));
+            try {
+                mailSender.send(batch.toArray(SimpleMailMessage[]::new));
+                sent.increment(batch.size());
+            } catch (MailSendException ex) {
+                int failures = ex.getFailedMessages().isEmpty() ? batch.size() : ex.getFailedMessages().size();
+                sent.increment(batch.size() - failures);
+                failed.increment(failures);
+                logger.warn("Could not send {} of {} notification digests", failures, batch.size(), ex);
+            } catch (MailException ex) {
+                failed.increment(batch.size());
+                logger.warn("Could not send {} notification digests", batch.size(), ex);
+            }
+        }
+    }
+
+    private SimpleMailMessage digest(String email, String firstName, List<PendingMail> mails) {
+        SimpleMailMessage message = new SimpleMailMessage();
+        message.setFrom(fromAddress);
+        message.setTo(email);
+        message.setSubject(mails.size() == 1
+            ? mails.get(0).title
+            : "You have " + mails.size() + " new notifications on TailPair");
+
+        StringBuilder body = new StringBuilder("Hi ").append(firstName).append(",\n\n");
+        for (PendingMail mail : mails.subList(0, Math.min(mails.size(), maxItemsPerDigest))) {
+            body.append("- ").append(mail.title).append(": ").append(mail.message).append('\n');
+        }
+        if (mails.size() > maxItemsPerDigest) {
+            body.append("- and ").append(mails.size() - maxItemsPerDigest).append(" more\n");
+        }
+        body.append("\nSee all your notifications in TailPair.\n");
+        message.setText(body.toString());
+        return message;
+    }
+
+    private static class PendingMail {
+        private final Long userId;
+        private final String title;
+        private final String message;
+
+        PendingMail(Long userId, String title, String message) {
+            this.userId = userId;
+            this.title = title;
+            this.message = message;
+        }
+    }
+}
@@ -1,16 +1,28 @@
 package com.tailpair.service;
 
+import com.tailpair.dto.CursorPage;
 import com.tailpair.dto.NotificationDto;
 import com.tailpair.entity.*;
 import com.tailpair.exception.ResourceNotFoundException;
+import com.tailpair.repository.AnimalRepository;
+import com.tailpair.repository.NotificationOutboxRepository;
 import com.tailpair.repository.NotificationRepository;
 import com.tailpair.repository.UserRepository;
+import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
 @Service
 @Transactional
 public class NotificationService {
@@ -18,9 +30,34 @@ public class NotificationService {
     @Autowired
     private NotificationRepository notificationRepository;
     
+    @Autowired
+    private NotificationOutboxRepository notificationOutboxRepository;
+    
     @Autowired
     private UserRepository userRepository;
     
+    @Autowired
+    private AnimalRepository animalRepository;
+    
+    @Autowired
+    private EventStreamService eventStreamService;
+    
+    @Autowired
+    private NotificationMailer notificationMailer;
+    
+    @Value("${app.unread-counters.max-size:100000}")
+    private int unreadCountersMaxSize;
+    
+    @Value("${app.unread-counters.idle-ttl:1800000}")
+    private long unreadCountersIdleTtlInMs;
+    
+    private UnreadCounter unreadCounter;
+    
+    @PostConstruct
+    public void init() {
+        unreadCounter = new UnreadCounter(unreadCountersMaxSize, unreadCountersIdleTtlInMs);
+    }
+    
     public NotificationDto createNotification(NotificationDto notificationDto, Long userId) {
         User user = userRepository.findById(userId)
             .orElseThrow(() -> new ResourceNotFoundException("User not found with id: " + userId));
@@ -31,71 +68,91 @@ public class NotificationService {
         notification.setType(notificationDto.getType());
         notification.setUser(user);
         
-        Notification savedNotification = notificationRepository.save(notification);
+        Notification savedNotification = save(notification);
         return new NotificationDto(savedNotification);
     }
     
     public void createAdoptionRequestNotification(User shelterAdmin, User adopter, Animal animal) {
-        Notification notification = new Notification();
-        notification.setTitle("New Adoption Request");
-        notification.setMessage(String.format("%s %s has requested to adopt %s", 
-            adopter.getFirstName(), adopter.getLastName(), animal.getName()));
-        notification.setType(Notification.Type.ADOPTION_REQUEST);
-        notification.setUser(shelterAdmin);
-        notification.setAnimal(animal);
+        NotificationOutbox entry = new NotificationOutbox(
+            Notification.Type.ADOPTION_REQUEST,
+            "New Adoption Request",
+            String.format("%s %s has requested to adopt %s", 
+                adopter.getFirstName(), adopter.getLastName(), animal.getName()));
+        entry.setUserId(shelterAdmin.getId());
+        entry.setAnimalId(animal.getId());
         
-        notificationRepository.save(notification);
+        notificationOutboxRepository.save(entry);
     }
     
     public void createAdoptionApprovedNotification(User adopter, Animal animal) {
-        Notification notification = new Notification();
-        notification.setTitle("Adoption Request Approved");
-        notification.setMessage(String.format("Your adoption request for %s has been approved!", animal.getName()));
-        notification.setType(Notification.Type.ADOPTION_APPROVED);
-        notification.setUser(adopter);
-        notification.setAnimal(animal);
+        NotificationOutbox entry = new NotificationOutbox(
+            Notification.Type.ADOPTION_APPROVED,
+            "Adoption Request Approved",
+            String.format("Your adoption request for %s has been approved!", animal.getName()));
+        entry.setUserId(adopter.getId());
+        entry.setAnimalId(animal.getId());
         
-        notificationRepository.save(notification);
+        notificationOutboxRepository.save(entry);
     }
     
     public void createAdoptionRejectedNotification(User adopter, Animal animal, String reason) {
-        Notification notification = new Notification();
-        notification.setTitle("Adoption Request Rejected");
-        notification.setMessage(String.format("Your adoption request for %s has been rejected. Reason: %s", 
-            animal.getName(), reason));
-        notification.setType(Notification.Type.ADOPTION_REJECTED);
-        notification.setUser(adopter);
-        notification.setAnimal(animal);
+        NotificationOutbox entry = new NotificationOutbox(
+            Notification.Type.ADOPTION_REJECTED,
+            "Adoption Request Rejected",
+            String.format("Your adoption request for %s has been rejected. Reason: %s", 
+                animal.getName(), reason));
+        entry.setUserId(adopter.getId());
+        entry.setAnimalId(animal.getId());
         
-        notificationRepository.save(notification);
+        notificationOutboxRepository.save(entry);
     }
     
     public void createMessageNotification(User recipient, User sender, Message message) {
-        Notification notification = new Notification();
-        notification.setTitle("New Message");
-        notification.setMessage(String.format("You have a new message from %s %s: %s", 
-            sender.getFirstName(), sender.getLastName(), message.getSubject()));
-        notification.setType(Notification.Type.MESSAGE_RECEIVED);
-        notification.setUser(recipient);
+        NotificationOutbox entry = new NotificationOutbox(
+            Notification.Type.MESSAGE_RECEIVED,
+            "New Message",
+            String.format("You have a new message from %s %s: %s", 
+                sender.getFirstName(), sender.getLastName(), message.getSubject()));
+        entry.setUserId(recipient.getId());
         if (message.getAnimal() != null) {
-            notification.setAnimal(message.getAnimal());
+            entry.setAnimalId(message.getAnimal().getId());
         }
         
-        notificationRepository.save(notification);
+        notificationOutboxRepository.save(entry);
     }
     
     public void createFavoriteAdoptedNotification(User user, Animal animal) {
-        Notification notification = new Notification();
-        notification.setTitle("Favorite Animal Adopted");
-        notification.setMessage(String.format("Your favorite animal %s has been adopted by someone else.", 
-            animal.getName()));
-        notification.setType(Notification.Type.FAVORITE_ADOPTED);
-        notification.setUser(user);
-        notification.setAnimal(animal);
+        NotificationOutbox entry = favoriteAdoptedEntry(animal);
+        entry.setUserId(user.getId());
+        
+        notificationOutboxRepository.save(entry);
+    }
+    
+    // One outbox row; NotificationDispatcher expands it to every user who favorited the animal
+    public void createFavoriteAdoptedNotifications(Animal animal, User adopter) {
+        NotificationOutbox entry = favoriteAdoptedEntry(animal);
+        entry.setFanOut(true);
+        entry.setExcludedUserId(adopter.getId());
         
-        notificationRepository.save(notification);
+        notificationOutboxRepository.save(entry);
     }
     
+    // Materializes an outbox entry into notification rows for the given users
+    public void deliver(NotificationOutbox entry, List<Long> userIds) {
+        Animal animal = entry.getAnimalId() != null ? animalRepository.getReferenceById(entry.getAnimalId()) : null;
+        
+        List<Notification> notifications = new ArrayList<>(userIds.size());
+        for (Long userId : userIds) {
+            Notification notification = new Notification(
+                entry.getTitle(), entry.getMessage(), entry.getType(), userRepository.getReferenceById(userId));
+            notification.setAnimal(animal);
+            notifications.add(notification);
+        }
+        
+        afterSave(notificationRepository.saveAll(notifications));
+    }
+    
+    @Transactional(readOnly = true)
     public NotificationDto getNotificationById(Long id) {
         Notification notification = notificationRepository.findById(id)
             .orElseThrow(() -> new ResourceNotFoundException("Notification not found with id: " + id));
@@ -110,7 +167,10 @@ public class NotificationService {
             throw new IllegalArgumentException("You can only mark your own notifications as read");
         }
         
-        notification.setRead(true);
+        if (!notification.isRead()) {
+            notification.setRead(true);
+            unreadCounter.decrement(userId);
+        }
         Notification updatedNotification = notificationRepository.save(notification);
         return new NotificationDto(updatedNotification);
     }
@@ -124,24 +184,79 @@ public class NotificationService {
         }
         
         notificationRepository.deleteById(id);
+        if (!notification.isRead()) {
+            unreadCounter.decrement(userId);
+        }
     }
     
+    @Transactional(readOnly = true)
     public Page<NotificationDto> getNotificationsByUserId(Long userId, Pageable pageable) {
         return notificationRepository.findByUserIdOrderByCreatedAtDesc(userId, pageable)
             .map(NotificationDto::new);
     }
     
+    @Transactional(readOnly = true)
+    public CursorPage<NotificationDto> getNotificationFeed(Long userId, String cursor, int size) {
+        Slice<Notification> notifications;
+        if (cursor == null) {
+            notifications = notificationRepository.findFeedByUserId(userId, CursorPage.limit(size));
+        } else {
+            CursorPage.Cursor position = CursorPage.decodeCursor(cursor);
+            notifications = notificationRepository.findFeedByUserIdBefore(
+                userId, position.getCreatedAt(), position.getId(), CursorPage.limit(size));
+        }
+        return CursorPage.of(notifications, NotificationDto::new, Notification::getCreatedAt, Notification::getId);
+    }
+    
+    @Transactional(readOnly = true)
     public Page<NotificationDto> getUnreadNotifications(Long userId, Pageable pageable) {
         return notificationRepository.findUnreadNotificationsByUserId(userId, pageable)
             .map(NotificationDto::new);
     }
     
+    // Seeds the shared counter, so it reads from the primary rather than a replica
     public long getUnreadNotificationCount(Long userId) {
-        return notificationRepository.countUnreadNotificationsByUserId(userId);
+        return unreadCounter.get(userId, notificationRepository::countUnreadNotificationsByUserId);
     }
     
+    @Transactional(readOnly = true)
     public Page<NotificationDto> getNotificationsByType(Long userId, Notification.Type type, Pageable pageable) {
         return notificationRepository.findByUserIdAndType(userId, type, pageable)
             .map(NotificationDto::new);
     }
+    
+    // Repairs drift in the in-memory counters, e.g. from writes made by other instances
+    @Scheduled(fixedDelayString = "${app.unread-counters.reconcile-interval:60000}")
+    public void reconcileUnreadCounts() {
+        unreadCounter.reconcile(notificationRepository::countUnreadNotificationsByUserIds);
+    }
+    
+    private NotificationOutbox favoriteAdoptedEntry(Animal animal) {
+        NotificationOutbox entry = new NotificationOutbox(
+            Notification.Type.FAVORITE_ADOPTED,
+            "Favorite Animal Adopted",
+            String.format("Your favorite animal %s has been adopted by someone else.", 
+                animal.getName()));
+        entry.setAnimalId(animal.getId());
+        return entry;
+    }
+    
+    private Notification save(Notification notification) {
+        Notification savedNotification = notificationRepository.save(notification);
+        afterSave(List.of(savedNotification));
+        return savedNotification;
+    }
+    
+    // One after-commit hook per collaborator for the whole batch, not one per notification
+    private void afterSave(List<Notification> notifications) {
+        List<Long> userIds = new ArrayList<>(notifications.size());
+        Map<Long, NotificationDto> events = new HashMap<>();
+        for (Notification notification : notifications) {
+            userIds.add(notification.getUser().getId());
+            events.put(notification.getUser().getId(), new NotificationDto(notification));
+        }
+        unreadCounter.increment(userIds);
+        eventStreamService.publishAfterCommit("notification", events);
+        notificationMailer.enqueueAfterCommit(notifications);
+    }
 }
\ No newline at end of file
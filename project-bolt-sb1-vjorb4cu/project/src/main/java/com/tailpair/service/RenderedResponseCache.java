@@ -0,0 +1,97 @@
+package com.tailpair.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Serialized bodies of the public catalog endpoints, keyed on path and query string.
+// Any animal or shelter write clears it: animal responses embed shelter names and shelter
+// responses embed animal counts, so finer-grained eviction would miss dependent entries.
+@Component
+public class RenderedResponseCache {
+
+    @Value("${app.response-cache.max-size:2000}")
+    private int maxSize;
+
+    @Value("${app.response-cache.ttl:60000}")
+    private long ttlInMs;
+
+    private final Map<String, CachedResponse> entries = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, CachedResponse> eldest) {
+            return size() > maxSize;
+        }
+    };
+
+    private final AtomicLong generation = new AtomicLong();
+
+    // HTTP dates have second precision
+    private volatile long lastModified = System.currentTimeMillis() / 1000 * 1000;
+
+    public CachedResponse get(String key) {
+        synchronized (entries) {
+            CachedResponse response = entries.get(key);
+            if (response != null && response.expiresAt <= System.currentTimeMillis()) {
+                entries.remove(key);
+                return null;
+            }
+            return response;
+        }
+    }
+
+    // Callers read the generation before rendering, so a response rendered across an invalidation is dropped
+    public long generation() {
+        return generation.get();
+    }
+
+    public CachedResponse put(String key, long renderedAt, byte[] body, String contentType, String etag) {
+        CachedResponse response = new CachedResponse(body, contentType, etag, lastModified,
+            System.currentTimeMillis() + ttlInMs);
+        synchronized (entries) {
+            if (generation.get() == renderedAt) {
+                entries.put(key, response);
+            }
+        }
+        return response;
+    }
+
+    public long getLastModified() {
+        return lastModified;
+    }
+
+    public void invalidate() {
+        synchronized (entries) {
+            generation.incrementAndGet();
+            lastModified = System.currentTimeMillis() / 1000 * 1000;
+            entries.clear();
+        }
+    }
+
+    public void invalidateAfterCommit() {
+        TransactionHooks.afterCommit(this::invalidate);
+    }
+
+    public static class CachedResponse {
+        private final byte[] body;
+        private final String contentType;
+        private final String etag;
+        private final long lastModified;
+        private final long expiresAt;
+
+        CachedResponse(byte[] body, String contentType, String etag, long lastModified, long expiresAt) {
+            this.body = body;
+            this.contentType = contentType;
+            this.etag = etag;
+            this.lastModified = lastModified;
+            this.expiresAt = expiresAt;
+        }
+
+        public byte[] getBody() { return body; }
+        public String getContentType() { return contentType; }
+        public String getEtag() { return etag; }
+        public long getLastModified() { return lastModified; }
+    }
+}
@@ -0,0 +1,145 @@
+package com.tailpair.service;
+
+import com.tailpair.config.ReplicaRoutingDataSource;
+import com.tailpair.entity.Shelter;
+import com.tailpair.repository.ShelterRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.UnaryOperator;
+
+// In-memory spatial index of shelter locations. Shelters without coordinates are placed at the
+// centroid of their zip code. Readers use the current immutable grid without locking.
+@Component
+public class ShelterGeoIndex {
+
+    @Autowired
+    private ShelterRepository shelterRepository;
+
+    @Autowired
+    private ZipCentroids zipCentroids;
+
+    @Value("${app.geo.cell-size-degrees:0.25}")
+    private double cellDegrees;
+
+    @Value("${app.geo.max-radius-miles:500}")
+    private double maxRadiusMiles;
+
+    private final Object writeLock = new Object();
+
+    private volatile GeoGrid grid;
+
+    // Changes committed while a rebuild reads the database, replayed onto the rebuilt grid; null otherwise
+    private List<UnaryOperator<GeoGrid>> changesDuringRebuild;
+
+    // Full reload from the database; also repairs drift from writes made by other instances
+    @Scheduled(fixedDelayString = "${app.geo.refresh-interval:300000}")
+    public synchronized void rebuild() {
+        // Started before the read, so any change the snapshot might miss is recorded
+        recordChanges(new ArrayList<>());
+        List<Object[]> rows;
+        try (ReplicaRoutingDataSource.PrimaryScope ignored = ReplicaRoutingDataSource.primaryOnly()) {
+            rows = shelterRepository.findLocations();
+        } catch (RuntimeException ex) {
+            recordChanges(null);
+            throw ex;
+        }
+        long[] ids = new long[rows.size()];
+        float[] latitudes = new float[rows.size()];
+        float[] longitudes = new float[rows.size()];
+        int count = 0;
+        for (Object[] row : rows) {
+            Optional<GeoPoint> location = location((Double) row[1], (Double) row[2], (String) row[3]);
+            if (location.isPresent()) {
+                ids[count] = (Long) row[0];
+                latitudes[count] = (float) location.get().getLatitude();
+                longitudes[count] = (float) location.get().getLongitude();
+                count++;
+            }
+        }
+
+        GeoGrid rebuilt = GeoGrid.build(ids, latitudes, longitudes, count, cellDegrees);
+        synchronized (writeLock) {
+            for (UnaryOperator<GeoGrid> change : changesDuringRebuild) {
+                rebuilt = change.apply(rebuilt);
+            }
+            changesDuringRebuild = null;
+            grid = rebuilt;
+        }
+    }
+
+    public boolean isReady() {
+        return grid != null;
+    }
+
+    public void update(Shelter shelter) {
+        Long id = shelter.getId();
+        Optional<GeoPoint> location = location(shelter.getLatitude(), shelter.getLongitude(), shelter.getZipCode());
+        Double latitude = location.map(GeoPoint::getLatitude).orElse(null);
+        Double longitude = location.map(GeoPoint::getLongitude).orElse(null);
+        TransactionHooks.afterCommit(() -> apply(current -> current.update(id, latitude, longitude)));
+    }
+
+    public void remove(Long shelterId) {
+        TransactionHooks.afterCommit(() -> apply(current -> current.update(shelterId, null, null)));
+    }
+
+    private void recordChanges(List<UnaryOperator<GeoGrid>> changes) {
+        synchronized (writeLock) {
+            changesDuringRebuild = changes;
+        }
+    }
+
+    private void apply(UnaryOperator<GeoGrid> change) {
+        synchronized (writeLock) {
+            if (grid != null) {
+                grid = change.apply(grid);
+            }
+            if (changesDuringRebuild != null) {
+                changesDuringRebuild.add(change);
+            }
+        }
+    }
+
+    // Search origin from explicit coordinates, or else from the centroid of a zip code
+    public GeoPoint origin(String zipCode, Double latitude, Double longitude) {
+        if (latitude != null && longitude != null) {
+            return new GeoPoint(latitude, longitude);
+        }
+        if (zipCode == null || zipCode.isBlank()) {
+            throw new IllegalArgumentException("Either zipCode or latitude and longitude are required");
+        }
+        if (!zipCentroids.isEnabled()) {
+            throw new IllegalArgumentException("Zip code search is not configured; give latitude and longitude");
+        }
+        return zipCentroids.find(zipCode.trim())
+            .orElseThrow(() -> new IllegalArgumentException("Unknown zip code: " + zipCode));
+    }
+
+    public List<GeoGrid.Hit> within(GeoPoint origin, double radiusMiles) {
+        if (radiusMiles <= 0 || radiusMiles > maxRadiusMiles) {
+            throw new IllegalArgumentException("Radius must be greater than 0 and at most " + maxRadiusMiles + " miles");
+        }
+        GeoGrid current = grid;
+        return current != null ? current.within(origin.getLatitude(), origin.getLongitude(), radiusMiles) : List.of();
+    }
+
+    public List<GeoGrid.Hit> nearest(GeoPoint origin, int limit) {
+        GeoGrid current = grid;
+        return current != null
+            ? current.nearest(origin.getLatitude(), origin.getLongitude(), Math.max(1, limit), maxRadiusMiles)
+            : List.of();
+    }
+
+    private Optional<GeoPoint> location(Double latitude, Double longitude, String zipCode) {
+        if (latitude != null && longitude != null) {
+            return Optional.of(new GeoPoint(latitude, longitude));
+        }
+        return zipCentroids.find(zipCode);
+    }
+}
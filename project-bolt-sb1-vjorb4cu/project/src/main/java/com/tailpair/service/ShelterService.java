@@ -4,6 +4,7 @@ import com.tailpair.dto.ShelterDto;
 import com.tailpair.entity.Shelter;
 import com.tailpair.entity.User;
 import com.tailpair.exception.ResourceNotFoundException;
+import com.tailpair.repository.AnimalRepository;
 import com.tailpair.repository.ShelterRepository;
 import com.tailpair.repository.UserRepository;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -12,7 +13,12 @@ import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 
 @Service
 @Transactional
@@ -24,6 +30,18 @@ public class ShelterService {
     @Autowired
     private UserRepository userRepository;
     
+    @Autowired
+    private AnimalRepository animalRepository;
+    
+    @Autowired
+    private RenderedResponseCache renderedResponseCache;
+    
+    @Autowired
+    private ShelterGeoIndex shelterGeoIndex;
+    
+    @Autowired
+    private ZipCentroids zipCentroids;
+    
     public ShelterDto createShelter(ShelterDto shelterDto, Long adminId) {
         User admin = userRepository.findById(adminId)
             .orElseThrow(() -> new ResourceNotFoundException("User not found with id: " + adminId));
@@ -33,19 +51,23 @@ public class ShelterService {
         shelter.setAdmin(admin);
         
         Shelter savedShelter = shelterRepository.save(shelter);
-        return new ShelterDto(savedShelter);
+        shelterGeoIndex.update(savedShelter);
+        renderedResponseCache.invalidateAfterCommit();
+        return new ShelterDto(savedShelter, 0);
     }
     
+    @Transactional(readOnly = true)
     public ShelterDto getShelterById(Long id) {
         Shelter shelter = shelterRepository.findById(id)
             .orElseThrow(() -> new ResourceNotFoundException("Shelter not found with id: " + id));
-        return new ShelterDto(shelter);
+        return toDto(shelter);
     }
     
+    @Transactional(readOnly = true)
     public ShelterDto getShelterByAdminId(Long adminId) {
         Shelter shelter = shelterRepository.findByAdminId(adminId)
             .orElseThrow(() -> new ResourceNotFoundException("Shelter not found for admin id: " + adminId));
-        return new ShelterDto(shelter);
+        return toDto(shelter);
     }
     
     public ShelterDto updateShelter(Long id, ShelterDto shelterDto) {
@@ -54,7 +76,9 @@ public class ShelterService {
         
         mapDtoToEntity(shelterDto, shelter);
         Shelter updatedShelter = shelterRepository.save(shelter);
-        return new ShelterDto(updatedShelter);
+        shelterGeoIndex.update(updatedShelter);
+        renderedResponseCache.invalidateAfterCommit();
+        return toDto(updatedShelter);
     }
     
     public void deleteShelter(Long id) {
@@ -62,35 +86,44 @@ public class ShelterService {
             throw new ResourceNotFoundException("Shelter not found with id: " + id);
         }
         shelterRepository.deleteById(id);
+        shelterGeoIndex.remove(id);
+        renderedResponseCache.invalidateAfterCommit();
     }
     
+    @Transactional(readOnly = true)
     public Page<ShelterDto> getAllShelters(Pageable pageable) {
-        return shelterRepository.findAll(pageable)
-            .map(ShelterDto::new);
+        return toDtos(shelterRepository.findAll(pageable));
     }
     
+    @Transactional(readOnly = true)
     public Page<ShelterDto> getVerifiedShelters(Pageable pageable) {
-        return shelterRepository.findByVerified(true, pageable)
-            .map(ShelterDto::new);
+        return toDtos(shelterRepository.findByVerified(true, pageable));
     }
     
+    @Transactional(readOnly = true)
     public Page<ShelterDto> searchShelters(String searchTerm, Pageable pageable) {
-        return shelterRepository.findBySearchTerm(searchTerm, pageable)
-            .map(ShelterDto::new);
+        return toDtos(shelterRepository.findBySearchTerm(searchTerm, pageable));
     }
     
+    @Transactional(readOnly = true)
     public List<ShelterDto> getSheltersByLocation(String city, String state) {
-        return shelterRepository.findByCityAndState(city, state)
-            .stream()
-            .map(ShelterDto::new)
-            .toList();
+        return toDtos(shelterRepository.findByCityAndState(city, state));
     }
     
+    @Transactional(readOnly = true)
     public List<ShelterDto> getSheltersByZipCode(String zipCode) {
-        return shelterRepository.findByZipCode(zipCode)
-            .stream()
-            .map(ShelterDto::new)
-            .toList();
+        return toDtos(shelterRepository.findByZipCode(zipCode));
+    }
+    
+    @Transactional(readOnly = true)
+    public List<ShelterDto> getSheltersNear(GeoPoint origin, double radiusMiles, int limit) {
+        List<GeoGrid.Hit> hits = shelterGeoIndex.within(origin, radiusMiles);
+        return toNearbyDtos(hits.subList(0, Math.min(Math.max(limit, 1), hits.size())));
+    }
+    
+    @Transactional(readOnly = true)
+    public List<ShelterDto> getNearestShelters(GeoPoint origin, int limit) {
+        return toNearbyDtos(shelterGeoIndex.nearest(origin, limit));
     }
     
     public ShelterDto verifyShelter(Long id) {
@@ -99,7 +132,64 @@ public class ShelterService {
         
         shelter.setVerified(true);
         Shelter updatedShelter = shelterRepository.save(shelter);
-        return new ShelterDto(updatedShelter);
+        renderedResponseCache.invalidateAfterCommit();
+        return toDto(updatedShelter);
+    }
+    
+    private ShelterDto toDto(Shelter shelter) {
+        return new ShelterDto(shelter, (int) animalRepository.countByShelterId(shelter.getId()));
+    }
+    
+    private Page<ShelterDto> toDtos(Page<Shelter> shelters) {
+        Map<Long, Integer> animalCounts = countAnimals(shelters.getContent());
+        return shelters.map(shelter -> new ShelterDto(shelter, animalCounts.getOrDefault(shelter.getId(), 0)));
+    }
+    
+    private List<ShelterDto> toDtos(List<Shelter> shelters) {
+        Map<Long, Integer> animalCounts = countAnimals(shelters);
+        return shelters.stream()
+            .map(shelter -> new ShelterDto(shelter, animalCounts.getOrDefault(shelter.getId(), 0)))
+            .toList();
+    }
+    
+    // Keeps the index's distance order; the shelters themselves come from one query
+    private List<ShelterDto> toNearbyDtos(List<GeoGrid.Hit> hits) {
+        if (hits.isEmpty()) {
+            return List.of();
+        }
+        
+        Map<Long, Shelter> sheltersById = new HashMap<>();
+        for (Shelter shelter : shelterRepository.findByIdIn(hits.stream().map(GeoGrid.Hit::getId).toList())) {
+            sheltersById.put(shelter.getId(), shelter);
+        }
+        Map<Long, Integer> animalCounts = countAnimals(sheltersById.values());
+        
+        List<ShelterDto> shelters = new ArrayList<>(hits.size());
+        for (GeoGrid.Hit hit : hits) {
+            Shelter shelter = sheltersById.get(hit.getId());
+            if (shelter != null) {
+                ShelterDto shelterDto = new ShelterDto(shelter, animalCounts.getOrDefault(shelter.getId(), 0));
+                shelterDto.setDistanceMiles(hit.getDistanceMiles());
+                shelters.add(shelterDto);
+            }
+        }
+        return shelters;
+    }
+    
+    // Counts animals for every shelter on the page in one grouped query instead of initializing Shelter.animals
+    private Map<Long, Integer> countAnimals(Collection<Shelter> shelters) {
+        Map<Long, Integer> animalCounts = new HashMap<>();
+        if (shelters.isEmpty()) {
+            return animalCounts;
+        }
+        
+        List<Long> shelterIds = shelters.stream()
+            .map(Shelter::getId)
+            .toList();
+        for (Object[] row : animalRepository.countAnimalsByShelterIds(shelterIds)) {
+            animalCounts.put((Long) row[0], ((Long) row[1]).intValue());
+        }
+        return animalCounts;
     }
     
     private void mapDtoToEntity(ShelterDto dto, Shelter entity) {
@@ -108,7 +198,17 @@ public class ShelterService {
         entity.setAddress(dto.getAddress());
         entity.setCity(dto.getCity());
         entity.setState(dto.getState());
+        // Without coordinates in the DTO, stored ones are kept unless the zip code moved the shelter
+        boolean zipCodeChanged = !Objects.equals(entity.getZipCode(), dto.getZipCode());
         entity.setZipCode(dto.getZipCode());
+        if (dto.getLatitude() != null && dto.getLongitude() != null) {
+            entity.setLatitude(dto.getLatitude());
+            entity.setLongitude(dto.getLongitude());
+        } else if (zipCodeChanged || entity.getLatitude() == null || entity.getLongitude() == null) {
+            GeoPoint centroid = zipCentroids.find(dto.getZipCode()).orElse(null);
+            entity.setLatitude(centroid != null ? centroid.getLatitude() : null);
+            entity.setLongitude(centroid != null ? centroid.getLongitude() : null);
+        }
         entity.setPhone(dto.getPhone());
         entity.setEmail(dto.getEmail());
         entity.setWebsite(dto.getWebsite());
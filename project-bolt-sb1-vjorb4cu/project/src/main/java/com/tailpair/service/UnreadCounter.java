@@ -0,0 +1,98 @@
+package com.tailpair.service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+// Per-user unread counts kept in memory; loaded lazily and adjusted after each committed change.
+// Bounded by maxSize: once full, users without a tracked count are read from the database on every
+// call until reconcile() drops the counts nobody has read for idleTtlInMs.
+public class UnreadCounter {
+
+    private static final int RECONCILE_BATCH_SIZE = 500;
+
+    private final int maxSize;
+    private final long idleTtlInMs;
+
+    private final ConcurrentMap<Long, Entry> counts = new ConcurrentHashMap<>();
+
+    public UnreadCounter(int maxSize, long idleTtlInMs) {
+        this.maxSize = maxSize;
+        this.idleTtlInMs = idleTtlInMs;
+    }
+
+    public long get(Long userId, Function<Long, Long> loader) {
+        Entry entry = counts.get(userId);
+        if (entry == null) {
+            if (counts.size() >= maxSize) {
+                return loader.apply(userId);
+            }
+            entry = counts.computeIfAbsent(userId, id -> new Entry(loader.apply(id)));
+        }
+        entry.lastReadAt = System.currentTimeMillis();
+        return entry.count.get();
+    }
+
+    public void increment(Long userId) {
+        TransactionHooks.afterCommit(() -> adjust(userId, 1));
+    }
+
+    public void increment(Collection<Long> userIds) {
+        TransactionHooks.afterCommit(() -> userIds.forEach(userId -> adjust(userId, 1)));
+    }
+
+    public void decrement(Long userId) {
+        TransactionHooks.afterCommit(() -> adjust(userId, -1));
+    }
+
+    public void decrement(Long userId, long amount) {
+        if (amount > 0) {
+            TransactionHooks.afterCommit(() -> adjust(userId, -amount));
+        }
+    }
+
+    // Drops idle counts, then overwrites the rest with the (userId, count) rows the query returns for each
+    // batch of user ids; repairs drift, e.g. from writes made by other instances
+    public void reconcile(Function<Collection<Long>, List<Object[]>> countQuery) {
+        long idleSince = System.currentTimeMillis() - idleTtlInMs;
+        counts.values().removeIf(entry -> entry.lastReadAt < idleSince);
+
+        List<Long> userIds = new ArrayList<>(counts.keySet());
+        for (int from = 0; from < userIds.size(); from += RECONCILE_BATCH_SIZE) {
+            List<Long> batch = userIds.subList(from, Math.min(from + RECONCILE_BATCH_SIZE, userIds.size()));
+            Map<Long, Long> actualCounts = new HashMap<>();
+            for (Object[] row : countQuery.apply(batch)) {
+                actualCounts.put((Long) row[0], (Long) row[1]);
+            }
+            for (Long userId : batch) {
+                Entry entry = counts.get(userId);
+                if (entry != null) {
+                    entry.count.set(actualCounts.getOrDefault(userId, 0L));
+                }
+            }
+        }
+    }
+
+    // Users not loaded yet are skipped; their first read comes from the database
+    private void adjust(Long userId, long delta) {
+        Entry entry = counts.get(userId);
+        if (entry != null) {
+            entry.count.updateAndGet(current -> Math.max(0, current + delta));
+        }
+    }
+
+    private static class Entry {
+        private final AtomicLong count;
+        private volatile long lastReadAt = System.currentTimeMillis();
+
+        Entry(long count) {
+            this.count = new AtomicLong(count);
+        }
+    }
+}
@@ -6,6 +6,7 @@ import com.tailpair.entity.User;
 import com.tailpair.exception.ResourceNotFoundException;
 import com.tailpair.exception.UserAlreadyExistsException;
 import com.tailpair.repository.UserRepository;
+import com.tailpair.security.UserPrincipalCache;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
@@ -23,6 +24,9 @@ public class UserService {
     @Autowired
     private PasswordEncoder passwordEncoder;
     
+    @Autowired
+    private UserPrincipalCache userPrincipalCache;
+    
     public UserDto createUser(RegisterRequest request) {
         if (userRepository.existsByUsername(request.getUsername())) {
             throw new UserAlreadyExistsException("Username already exists: " + request.getUsername());
@@ -49,12 +53,14 @@ public class UserService {
         return new UserDto(savedUser);
     }
     
+    @Transactional(readOnly = true)
     public UserDto getUserById(Long id) {
         User user = userRepository.findById(id)
             .orElseThrow(() -> new ResourceNotFoundException("User not found with id: " + id));
         return new UserDto(user);
     }
     
+    @Transactional(readOnly = true)
     public UserDto getUserByUsername(String username) {
         User user = userRepository.findByUsername(username)
             .orElseThrow(() -> new ResourceNotFoundException("User not found with username: " + username));
@@ -89,6 +95,7 @@ public class UserService {
         user.setEnabled(userDto.isEnabled());
         
         User updatedUser = userRepository.save(user);
+        evictPrincipalAfterCommit(id);
         return new UserDto(updatedUser);
     }
     
@@ -97,28 +104,39 @@ public class UserService {
             throw new ResourceNotFoundException("User not found with id: " + id);
         }
         userRepository.deleteById(id);
+        evictPrincipalAfterCommit(id);
     }
     
+    @Transactional(readOnly = true)
     public Page<UserDto> getAllUsers(Pageable pageable) {
         return userRepository.findAll(pageable)
             .map(UserDto::new);
     }
     
+    @Transactional(readOnly = true)
     public Page<UserDto> getUsersByRole(User.Role role, Pageable pageable) {
         return userRepository.findByRole(role, pageable)
             .map(UserDto::new);
     }
     
+    @Transactional(readOnly = true)
     public Page<UserDto> searchUsers(String searchTerm, Pageable pageable) {
         return userRepository.findBySearchTerm(searchTerm, pageable)
             .map(UserDto::new);
     }
     
+    @Transactional(readOnly = true)
     public boolean existsByUsername(String username) {
         return userRepository.existsByUsername(username);
     }
     
+    @Transactional(readOnly = true)
     public boolean existsByEmail(String email) {
         return userRepository.existsByEmail(email);
     }
+    
+    // Evict once the change is visible so a concurrent request cannot re-cache the old row
+    private void evictPrincipalAfterCommit(Long id) {
+        TransactionHooks.afterCommit(() -> userPrincipalCache.evict(id));
+    }
 }
\ No newline at end of file
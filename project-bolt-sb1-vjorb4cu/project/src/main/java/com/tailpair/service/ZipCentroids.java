@@ -0,0 +1,167 @@
+package com.tailpair.service;
+
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.zip.GZIPInputStream;
+
+// Zip code centroids loaded once at startup into sorted primitive arrays (about 400 KB for every
+// US ZCTA). Reads the Census Gazetteer ZCTA file (tab separated, GEOID/INTPTLAT/INTPTLONG columns)
+// or a zip,latitude,longitude CSV, optionally gzipped. A missing or empty file stops startup unless
+// app.geo.zip-centroids-required is false, since every zipCode search would otherwise fail.
+@Component
+public class ZipCentroids {
+
+    private static final Logger logger = LoggerFactory.getLogger(ZipCentroids.class);
+
+    private static final List<String> ZIP_COLUMNS = List.of("geoid", "zip", "zipcode", "zip_code");
+    private static final List<String> LATITUDE_COLUMNS = List.of("intptlat", "lat", "latitude");
+    private static final List<String> LONGITUDE_COLUMNS = List.of("intptlong", "lon", "lng", "longitude");
+
+    @Value("${app.geo.zip-centroids:classpath:geo/zip-centroids.txt}")
+    private Resource source;
+
+    @Value("${app.geo.zip-centroids-required:true}")
+    private boolean required;
+
+    private int[] zips = new int[0];
+    private float[] latitudes = new float[0];
+    private float[] longitudes = new float[0];
+
+    @PostConstruct
+    public void load() throws IOException {
+        if (!source.exists()) {
+            unavailable("Zip centroid file " + source + " not found");
+            return;
+        }
+
+        int[] rawZips = new int[65536];
+        float[] rawLatitudes = new float[65536];
+        float[] rawLongitudes = new float[65536];
+        int count = 0;
+
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(open(), StandardCharsets.UTF_8))) {
+            String header = reader.readLine();
+            if (header == null) {
+                unavailable("Zip centroid file " + source + " is empty");
+                return;
+            }
+            String delimiter = header.contains("\t") ? "\t" : ",";
+            List<String> columns = Arrays.stream(header.split(delimiter)).map(name -> name.trim().toLowerCase()).toList();
+            int zipColumn = columnIndex(columns, ZIP_COLUMNS);
+            int latitudeColumn = columnIndex(columns, LATITUDE_COLUMNS);
+            int longitudeColumn = columnIndex(columns, LONGITUDE_COLUMNS);
+
+            String line;
+            while ((line = reader.readLine()) != null) {
+                String[] fields = line.split(delimiter);
+                if (fields.length <= Math.max(zipColumn, Math.max(latitudeColumn, longitudeColumn))) {
+                    continue;
+                }
+                try {
+                    rawZips[count] = Integer.parseInt(fields[zipColumn].trim());
+                    rawLatitudes[count] = Float.parseFloat(fields[latitudeColumn].trim());
+                    rawLongitudes[count] = Float.parseFloat(fields[longitudeColumn].trim());
+                } catch (NumberFormatException ex) {
+                    continue;
+                }
+                if (++count == rawZips.length) {
+                    rawZips = Arrays.copyOf(rawZips, count * 2);
+                    rawLatitudes = Arrays.copyOf(rawLatitudes, count * 2);
+                    rawLongitudes = Arrays.copyOf(rawLongitudes, count * 2);
+                }
+            }
+        }
+
+        // Sort by zip with a single primitive sort of (zip << 32 | row)
+        long[] keys = new long[count];
+        for (int i = 0; i < count; i++) {
+            keys[i] = ((long) rawZips[i] << 32) | i;
+        }
+        Arrays.sort(keys);
+
+        int[] sortedZips = new int[count];
+        float[] sortedLatitudes = new float[count];
+        float[] sortedLongitudes = new float[count];
+        int size = 0;
+        for (long key : keys) {
+            int zip = (int) (key >>> 32);
+            int row = (int) key;
+            if (size > 0 && sortedZips[size - 1] == zip) {
+                continue;
+            }
+            sortedZips[size] = zip;
+            sortedLatitudes[size] = rawLatitudes[row];
+            sortedLongitudes[size] = rawLongitudes[row];
+            size++;
+        }
+
+        zips = Arrays.copyOf(sortedZips, size);
+        latitudes = Arrays.copyOf(sortedLatitudes, size);
+        longitudes = Arrays.copyOf(sortedLongitudes, size);
+        if (size == 0) {
+            unavailable("Zip centroid file " + source + " has no valid rows");
+            return;
+        }
+        logger.info("Loaded {} zip code centroids from {}", size, source);
+    }
+
+    // Accepts ZIP and ZIP+4 codes; only the first five digits are used
+    public Optional<GeoPoint> find(String zipCode) {
+        if (zipCode == null || zipCode.length() < 5) {
+            return Optional.empty();
+        }
+        int zip;
+        try {
+            zip = Integer.parseInt(zipCode.substring(0, 5));
+        } catch (NumberFormatException ex) {
+            return Optional.empty();
+        }
+        int index = Arrays.binarySearch(zips, zip);
+        return index >= 0 ? Optional.of(new GeoPoint(latitudes[index], longitudes[index])) : Optional.empty();
+    }
+
+    public int size() {
+        return zips.length;
+    }
+
+    public boolean isEnabled() {
+        return zips.length > 0;
+    }
+
+    private void unavailable(String reason) {
+        if (required) {
+            throw new IllegalStateException(reason + "; set app.geo.zip-centroids (env ZIP_CENTROIDS) to the "
+                + "Census Gazetteer ZCTA file, or app.geo.zip-centroids-required=false to run without zip code search");
+        }
+        logger.warn("{}; zip code proximity search is disabled", reason);
+    }
+
+    private InputStream open() throws IOException {
+        InputStream in = source.getInputStream();
+        String filename = source.getFilename();
+        return filename != null && filename.endsWith(".gz") ? new GZIPInputStream(in) : in;
+    }
+
+    private int columnIndex(List<String> columns, List<String> candidates) {
+        for (String candidate : candidates) {
+            int index = columns.indexOf(candidate);
+            if (index >= 0) {
+                return index;
+            }
+        }
+        throw new IllegalStateException("Zip centroid file " + source + " has no column named any of " + candidates);
+    }
+}
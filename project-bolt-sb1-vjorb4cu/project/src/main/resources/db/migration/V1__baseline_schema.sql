@@ -0,0 +1,132 @@
+-- Schema as generated by ddl-auto: update before the migrations existed, IDENTITY ids included.
+-- Existing databases are baselined at version 1 (spring.flyway.baseline-on-migrate) and only pick
+-- up the migrations after it, so this file must not gain anything those databases lack.
+
+CREATE TABLE users (
+    id          BIGINT       GENERATED BY DEFAULT AS IDENTITY,
+    username    VARCHAR(50)  NOT NULL,
+    email       VARCHAR(100) NOT NULL,
+    password    VARCHAR(100) NOT NULL,
+    first_name  VARCHAR(50)  NOT NULL,
+    last_name   VARCHAR(50)  NOT NULL,
+    phone       VARCHAR(15),
+    address     VARCHAR(200),
+    city        VARCHAR(50),
+    state       VARCHAR(50),
+    zip_code    VARCHAR(10),
+    role        VARCHAR(20),
+    enabled     BOOLEAN      NOT NULL,
+    created_at  TIMESTAMP(6),
+    updated_at  TIMESTAMP(6),
+    CONSTRAINT pk_users PRIMARY KEY (id),
+    CONSTRAINT uk_users_username UNIQUE (username),
+    CONSTRAINT uk_users_email UNIQUE (email)
+);
+
+CREATE TABLE shelters (
+    id          BIGINT       GENERATED BY DEFAULT AS IDENTITY,
+    name        VARCHAR(100) NOT NULL,
+    description VARCHAR(500),
+    address     VARCHAR(200) NOT NULL,
+    city        VARCHAR(50)  NOT NULL,
+    state       VARCHAR(50)  NOT NULL,
+    zip_code    VARCHAR(10)  NOT NULL,
+    phone       VARCHAR(15),
+    email       VARCHAR(100),
+    website     VARCHAR(200),
+    verified    BOOLEAN      NOT NULL,
+    created_at  TIMESTAMP(6),
+    updated_at  TIMESTAMP(6),
+    admin_id    BIGINT,
+    CONSTRAINT pk_shelters PRIMARY KEY (id),
+    CONSTRAINT fk_shelters_admin FOREIGN KEY (admin_id) REFERENCES users (id)
+);
+
+CREATE TABLE animals (
+    id              BIGINT        GENERATED BY DEFAULT AS IDENTITY,
+    name            VARCHAR(50)   NOT NULL,
+    species         VARCHAR(20)   NOT NULL,
+    breed           VARCHAR(50),
+    age             INTEGER,
+    gender          VARCHAR(20)   NOT NULL,
+    size            VARCHAR(20)   NOT NULL,
+    weight          NUMERIC(5, 2),
+    color           VARCHAR(50),
+    description     VARCHAR(1000),
+    medical_history VARCHAR(500),
+    vaccinated      BOOLEAN       NOT NULL,
+    spayed_neutered BOOLEAN       NOT NULL,
+    house_trained   BOOLEAN       NOT NULL,
+    good_with_kids  BOOLEAN       NOT NULL,
+    good_with_pets  BOOLEAN       NOT NULL,
+    status          VARCHAR(20)   NOT NULL,
+    adoption_fee    NUMERIC(38, 2),
+    created_at      TIMESTAMP(6),
+    updated_at      TIMESTAMP(6),
+    shelter_id      BIGINT        NOT NULL,
+    CONSTRAINT pk_animals PRIMARY KEY (id),
+    CONSTRAINT fk_animals_shelter FOREIGN KEY (shelter_id) REFERENCES shelters (id)
+);
+
+CREATE TABLE animal_images (
+    animal_id BIGINT       NOT NULL,
+    image_url VARCHAR(255) NOT NULL,
+    CONSTRAINT pk_animal_images PRIMARY KEY (animal_id, image_url),
+    CONSTRAINT fk_animal_images_animal FOREIGN KEY (animal_id) REFERENCES animals (id)
+);
+
+CREATE TABLE adoptions (
+    id               BIGINT        GENERATED BY DEFAULT AS IDENTITY,
+    status           VARCHAR(20)   NOT NULL,
+    notes            VARCHAR(1000),
+    rejection_reason VARCHAR(500),
+    created_at       TIMESTAMP(6),
+    updated_at       TIMESTAMP(6),
+    approved_at      TIMESTAMP(6),
+    completed_at     TIMESTAMP(6),
+    adopter_id       BIGINT        NOT NULL,
+    animal_id        BIGINT        NOT NULL,
+    CONSTRAINT pk_adoptions PRIMARY KEY (id),
+    CONSTRAINT fk_adoptions_adopter FOREIGN KEY (adopter_id) REFERENCES users (id),
+    CONSTRAINT fk_adoptions_animal FOREIGN KEY (animal_id) REFERENCES animals (id)
+);
+
+CREATE TABLE favorites (
+    id         BIGINT GENERATED BY DEFAULT AS IDENTITY,
+    created_at TIMESTAMP(6),
+    user_id    BIGINT NOT NULL,
+    animal_id  BIGINT NOT NULL,
+    CONSTRAINT pk_favorites PRIMARY KEY (id),
+    CONSTRAINT uk_favorites_user_animal UNIQUE (user_id, animal_id),
+    CONSTRAINT fk_favorites_user FOREIGN KEY (user_id) REFERENCES users (id),
+    CONSTRAINT fk_favorites_animal FOREIGN KEY (animal_id) REFERENCES animals (id)
+);
+
+CREATE TABLE messages (
+    id           BIGINT        GENERATED BY DEFAULT AS IDENTITY,
+    subject      VARCHAR(100)  NOT NULL,
+    content      VARCHAR(2000) NOT NULL,
+    is_read      BOOLEAN       NOT NULL,
+    created_at   TIMESTAMP(6),
+    sender_id    BIGINT        NOT NULL,
+    recipient_id BIGINT        NOT NULL,
+    animal_id    BIGINT,
+    CONSTRAINT pk_messages PRIMARY KEY (id),
+    CONSTRAINT fk_messages_sender FOREIGN KEY (sender_id) REFERENCES users (id),
+    CONSTRAINT fk_messages_recipient FOREIGN KEY (recipient_id) REFERENCES users (id),
+    CONSTRAINT fk_messages_animal FOREIGN KEY (animal_id) REFERENCES animals (id)
+);
+
+CREATE TABLE notifications (
+    id         BIGINT       GENERATED BY DEFAULT AS IDENTITY,
+    title      VARCHAR(100) NOT NULL,
+    message    VARCHAR(500) NOT NULL,
+    type       VARCHAR(32)  NOT NULL,
+    is_read    BOOLEAN      NOT NULL,
+    created_at TIMESTAMP(6),
+    user_id    BIGINT       NOT NULL,
+    animal_id  BIGINT,
+    CONSTRAINT pk_notifications PRIMARY KEY (id),
+    CONSTRAINT fk_notifications_user FOREIGN KEY (user_id) REFERENCES users (id),
+    CONSTRAINT fk_notifications_animal FOREIGN KEY (animal_id) REFERENCES animals (id)
+);
@@ -0,0 +1,19 @@
+-- The baseline schema uses IDENTITY columns; entities now take ids from pooled sequences.
+-- Create any missing sequence and move each one past the ids already in its table:
+-- Hibernate reserves ids (value - 49 .. value] per nextval, so the sequence must be at least
+-- MAX(id). Taking the greater of MAX(id) and last_value never moves a sequence backwards.
+CREATE SEQUENCE IF NOT EXISTS users_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS shelters_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS animals_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS adoptions_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS favorites_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS messages_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS notifications_seq START WITH 1 INCREMENT BY 50;
+
+SELECT setval('users_seq', GREATEST((SELECT COALESCE(MAX(id), 0) FROM users), (SELECT last_value FROM users_seq)));
+SELECT setval('shelters_seq', GREATEST((SELECT COALESCE(MAX(id), 0) FROM shelters), (SELECT last_value FROM shelters_seq)));
+SELECT setval('animals_seq', GREATEST((SELECT COALESCE(MAX(id), 0) FROM animals), (SELECT last_value FROM animals_seq)));
+SELECT setval('adoptions_seq', GREATEST((SELECT COALESCE(MAX(id), 0) FROM adoptions), (SELECT last_value FROM adoptions_seq)));
+SELECT setval('favorites_seq', GREATEST((SELECT COALESCE(MAX(id), 0) FROM favorites), (SELECT last_value FROM favorites_seq)));
+SELECT setval('messages_seq', GREATEST((SELECT COALESCE(MAX(id), 0) FROM messages), (SELECT last_value FROM messages_seq)));
+SELECT setval('notifications_seq', GREATEST((SELECT COALESCE(MAX(id), 0) FROM notifications), (SELECT last_value FROM notifications_seq)));
@@ -0,0 +1,44 @@
+-- Indexes for the repository queries. Partial indexes cover the public catalogue, which only
+-- ever reads AVAILABLE animals.
+
+-- Catalogue filters (AnimalRepository.findAvailableAnimalsWithFilters, findBySpecies, findByStatus)
+CREATE INDEX idx_animals_status_species_size ON animals (status, species, size);
+
+-- Keyset feed (findAvailableAnimalsFeed, findAvailableAnimalsFeedBefore) and default catalogue ordering
+CREATE INDEX idx_animals_available_created ON animals (created_at DESC, id DESC)
+    WHERE status = 'AVAILABLE';
+
+-- Shelter pages and the keyset export (findByShelterId, findExportPage, countAnimalsByShelterIds)
+CREATE INDEX idx_animals_shelter ON animals (shelter_id, id);
+
+CREATE INDEX idx_animals_available_shelter ON animals (shelter_id)
+    WHERE status = 'AVAILABLE';
+
+-- Full-text index backing AnimalRepository.fullTextSearchAvailableAnimals, previously created by
+-- db/search-index.sql. The indexed expression must stay identical to AnimalRepository.SEARCH_VECTOR,
+-- and the query always filters on status = 'AVAILABLE', so the index only needs those rows.
+DROP INDEX IF EXISTS idx_animals_search;
+CREATE INDEX idx_animals_search ON animals
+    USING GIN (to_tsvector('english', coalesce(name, '') || ' ' || coalesce(breed, '') || ' ' || coalesce(description, '')))
+    WHERE status = 'AVAILABLE';
+
+CREATE INDEX idx_shelters_admin ON shelters (admin_id);
+CREATE INDEX idx_shelters_verified ON shelters (verified);
+CREATE INDEX idx_shelters_city_state ON shelters (city, state);
+CREATE INDEX idx_shelters_zip_code ON shelters (zip_code);
+
+-- Adoption history of an animal and the pending-request checks in AdoptionService
+CREATE INDEX idx_adoptions_animal_status ON adoptions (animal_id, status);
+CREATE INDEX idx_adoptions_adopter_animal ON adoptions (adopter_id, animal_id);
+
+-- (user_id, animal_id) is already covered by uk_favorites_user_animal; the fan-out walks the other way
+CREATE INDEX idx_favorites_animal_user ON favorites (animal_id, user_id);
+
+-- Unread counters and the sender/recipient halves of the conversation feed
+CREATE INDEX idx_messages_recipient_read ON messages (recipient_id, is_read);
+CREATE INDEX idx_messages_recipient_created ON messages (recipient_id, created_at DESC, id DESC);
+CREATE INDEX idx_messages_sender_created ON messages (sender_id, created_at DESC, id DESC);
+CREATE INDEX idx_messages_animal ON messages (animal_id);
+
+CREATE INDEX idx_notifications_user_read_created ON notifications (user_id, is_read, created_at);
+CREATE INDEX idx_notifications_user_created ON notifications (user_id, created_at DESC, id DESC);
@@ -0,0 +1,4 @@
+-- Version columns for optimistic locking on animals (@Version) and adoptions (@Version plus the
+-- conditional status updates in AdoptionRepository)
+ALTER TABLE animals ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE adoptions ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
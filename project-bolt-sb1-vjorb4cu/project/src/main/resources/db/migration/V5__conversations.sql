@@ -0,0 +1,85 @@
+-- Conversation threads: one row per pair of users and animal, plus one row per participant holding
+-- that user's unread count. The inbox reads idx_conversation_participants_inbox only.
+CREATE SEQUENCE conversations_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE conversation_participants_seq START WITH 1 INCREMENT BY 50;
+
+CREATE TABLE conversations (
+    id                   BIGINT       NOT NULL,
+    participant_one_id   BIGINT       NOT NULL,
+    participant_two_id   BIGINT       NOT NULL,
+    animal_id            BIGINT,
+    last_message_snippet VARCHAR(200),
+    last_message_at      TIMESTAMP(6) NOT NULL,
+    last_sender_id       BIGINT,
+    created_at           TIMESTAMP(6),
+    CONSTRAINT pk_conversations PRIMARY KEY (id),
+    CONSTRAINT ck_conversations_participant_order CHECK (participant_one_id <= participant_two_id),
+    CONSTRAINT fk_conversations_participant_one FOREIGN KEY (participant_one_id) REFERENCES users (id),
+    CONSTRAINT fk_conversations_participant_two FOREIGN KEY (participant_two_id) REFERENCES users (id),
+    CONSTRAINT fk_conversations_animal FOREIGN KEY (animal_id) REFERENCES animals (id),
+    CONSTRAINT fk_conversations_last_sender FOREIGN KEY (last_sender_id) REFERENCES users (id)
+);
+
+-- Conversation key; ConversationRepository.insertIfAbsent relies on it for ON CONFLICT and
+-- findIdByKey uses the same COALESCE expression
+CREATE UNIQUE INDEX uk_conversations_key
+    ON conversations (participant_one_id, participant_two_id, (COALESCE(animal_id, 0)));
+
+CREATE TABLE conversation_participants (
+    id              BIGINT       NOT NULL,
+    conversation_id BIGINT       NOT NULL,
+    user_id         BIGINT       NOT NULL,
+    unread_count    INTEGER      NOT NULL,
+    last_message_at TIMESTAMP(6) NOT NULL,
+    CONSTRAINT pk_conversation_participants PRIMARY KEY (id),
+    CONSTRAINT uk_conversation_participants_conversation_user UNIQUE (conversation_id, user_id),
+    CONSTRAINT fk_conversation_participants_conversation FOREIGN KEY (conversation_id) REFERENCES conversations (id),
+    CONSTRAINT fk_conversation_participants_user FOREIGN KEY (user_id) REFERENCES users (id)
+);
+
+-- Inbox (ConversationParticipantRepository.findInboxByUserId, findInboxByUserIdBefore)
+CREATE INDEX idx_conversation_participants_inbox
+    ON conversation_participants (user_id, last_message_at DESC, id DESC);
+
+ALTER TABLE messages ADD COLUMN conversation_id BIGINT;
+ALTER TABLE messages ADD CONSTRAINT fk_messages_conversation
+    FOREIGN KEY (conversation_id) REFERENCES conversations (id);
+
+-- Thread view (MessageRepository.findByConversationId, findByConversationIdBefore)
+CREATE INDEX idx_messages_conversation_created ON messages (conversation_id, created_at DESC, id DESC);
+
+-- Backfill threads from existing messages. Each row takes its own nextval, which is always a
+-- valid id: Hibernate only hands out ids at or below a value it fetched itself.
+INSERT INTO conversations (id, participant_one_id, participant_two_id, animal_id,
+                           last_message_snippet, last_message_at, last_sender_id, created_at)
+SELECT nextval('conversations_seq'), participant_one_id, participant_two_id, animal_id,
+       LEFT(REGEXP_REPLACE(TRIM(content), '\s+', ' ', 'g'), 200), last_message_at, sender_id, first_message_at
+FROM (
+    SELECT DISTINCT ON (LEAST(sender_id, recipient_id), GREATEST(sender_id, recipient_id), COALESCE(animal_id, 0))
+           LEAST(sender_id, recipient_id) AS participant_one_id,
+           GREATEST(sender_id, recipient_id) AS participant_two_id,
+           animal_id,
+           content,
+           sender_id,
+           COALESCE(created_at, CURRENT_TIMESTAMP) AS last_message_at,
+           MIN(created_at) OVER (PARTITION BY LEAST(sender_id, recipient_id), GREATEST(sender_id, recipient_id),
+                                              COALESCE(animal_id, 0)) AS first_message_at
+    FROM messages
+    ORDER BY LEAST(sender_id, recipient_id), GREATEST(sender_id, recipient_id), COALESCE(animal_id, 0),
+             created_at DESC NULLS LAST, id DESC
+) latest;
+
+UPDATE messages m SET conversation_id = c.id
+FROM conversations c
+WHERE c.participant_one_id = LEAST(m.sender_id, m.recipient_id)
+  AND c.participant_two_id = GREATEST(m.sender_id, m.recipient_id)
+  AND COALESCE(c.animal_id, 0) = COALESCE(m.animal_id, 0);
+
+-- UNION collapses the single participant of a conversation with oneself
+INSERT INTO conversation_participants (id, conversation_id, user_id, unread_count, last_message_at)
+SELECT nextval('conversation_participants_seq'), c.id, p.user_id,
+       (SELECT COUNT(*) FROM messages m
+        WHERE m.conversation_id = c.id AND m.recipient_id = p.user_id AND m.is_read = false),
+       c.last_message_at
+FROM conversations c
+CROSS JOIN LATERAL (SELECT c.participant_one_id UNION SELECT c.participant_two_id) AS p (user_id);
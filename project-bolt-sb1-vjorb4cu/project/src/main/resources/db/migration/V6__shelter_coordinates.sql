@@ -0,0 +1,7 @@
+-- Shelter coordinates for proximity search. Searches run against the in-memory ShelterGeoIndex,
+-- which reads every shelter's location at startup, so no spatial index is needed here.
+-- Existing shelters keep NULL and are placed at their zip code centroid until they are next saved.
+ALTER TABLE shelters ADD COLUMN latitude DOUBLE PRECISION;
+ALTER TABLE shelters ADD COLUMN longitude DOUBLE PRECISION;
+ALTER TABLE shelters ADD CONSTRAINT ck_shelters_coordinates
+    CHECK (latitude BETWEEN -90 AND 90 AND longitude BETWEEN -180 AND 180);
@@ -0,0 +1,31 @@
+-- Notification outbox (NotificationDispatcher). Databases created by ddl-auto after the outbox was
+-- introduced already have the table and were baselined at V1 with it, so every statement here
+-- tolerates existing objects, and the sequence is moved past existing ids as in V2.
+CREATE SEQUENCE IF NOT EXISTS notification_outbox_seq START WITH 1 INCREMENT BY 50;
+
+-- userId, animalId and excludedUserId are plain ids so outbox rows outlive the rows they point at
+CREATE TABLE IF NOT EXISTS notification_outbox (
+    id               BIGINT       NOT NULL,
+    type             VARCHAR(32)  NOT NULL,
+    title            VARCHAR(100) NOT NULL,
+    message          VARCHAR(500) NOT NULL,
+    user_id          BIGINT,
+    animal_id        BIGINT,
+    fan_out          BOOLEAN      NOT NULL,
+    excluded_user_id BIGINT,
+    status           VARCHAR(20)  NOT NULL,
+    attempts         INTEGER      NOT NULL,
+    next_attempt_at  TIMESTAMP(6) NOT NULL,
+    last_error       VARCHAR(500),
+    created_at       TIMESTAMP(6),
+    processed_at     TIMESTAMP(6),
+    CONSTRAINT pk_notification_outbox PRIMARY KEY (id)
+);
+
+SELECT setval('notification_outbox_seq', GREATEST((SELECT COALESCE(MAX(id), 0) FROM notification_outbox), (SELECT last_value FROM notification_outbox_seq)));
+
+-- NotificationOutboxRepository.findDueIds and deleteDeliveredBefore; the poller only reads PENDING rows
+CREATE INDEX IF NOT EXISTS idx_notification_outbox_due ON notification_outbox (next_attempt_at, id)
+    WHERE status = 'PENDING';
+CREATE INDEX IF NOT EXISTS idx_notification_outbox_delivered ON notification_outbox (processed_at)
+    WHERE status = 'DELIVERED';
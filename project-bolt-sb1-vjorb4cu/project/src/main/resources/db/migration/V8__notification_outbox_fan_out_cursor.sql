@@ -0,0 +1,3 @@
+-- Fan-out progress: NotificationDispatcher commits each chunk of favoriters with the last user id it
+-- covered, so a retried fan-out resumes after that user instead of notifying everyone again
+ALTER TABLE notification_outbox ADD COLUMN fan_out_cursor BIGINT;
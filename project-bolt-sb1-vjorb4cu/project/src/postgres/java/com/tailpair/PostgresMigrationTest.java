@@ -0,0 +1,111 @@
+package com.tailpair;
+
+import com.tailpair.dto.AnimalImportResult;
+import com.tailpair.entity.Animal;
+import com.tailpair.entity.Shelter;
+import com.tailpair.repository.AnimalRepository;
+import com.tailpair.repository.ShelterRepository;
+import com.tailpair.service.AnimalBulkService;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.MethodOrderer;
+import org.junit.jupiter.api.Order;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestMethodOrder;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.io.IOException;
+import java.io.StringReader;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Boots the application on an empty PostgreSQL, the oldest version the README supports, with the
+// production settings: Flyway applies every migration and Hibernate then validates the entities
+// against the result, so a migration that drifts from the mapping fails here rather than at deploy.
+// Also runs what the H2 tests can't: the native full-text search, and a bulk import that goes first so
+// it can restart animals_seq without colliding with other tests' animals. Skipped where Docker isn't available.
+@SpringBootTest(properties = {
+    "management.server.port=-1",
+    "app.geo.zip-centroids-required=false"
+})
+@Testcontainers(disabledWithoutDocker = true)
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+class PostgresMigrationTest {
+
+    @Container
+    static final PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:12-alpine");
+
+    @DynamicPropertySource
+    static void datasource(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", postgres::getJdbcUrl);
+        registry.add("spring.datasource.username", postgres::getUsername);
+        registry.add("spring.datasource.password", postgres::getPassword);
+    }
+
+    @Autowired
+    private Flyway flyway;
+
+    @Autowired
+    private ShelterRepository shelterRepository;
+
+    @Autowired
+    private AnimalRepository animalRepository;
+
+    @Autowired
+    private AnimalBulkService animalBulkService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    @Order(1)
+    void importsMoreAnimalsThanTheFirstSequenceValueCovers() throws IOException {
+        // As in a database created by ddl-auto, where the first value is 1 and so owns a single id
+        jdbcTemplate.execute("ALTER SEQUENCE animals_seq RESTART");
+        Shelter shelter = createShelter();
+        StringBuilder rows = new StringBuilder();
+        for (int i = 0; i < 60; i++) {
+            rows.append("{\"name\":\"Pet ").append(i)
+                .append("\",\"species\":\"DOG\",\"gender\":\"FEMALE\",\"size\":\"MEDIUM\",\"status\":\"AVAILABLE\"}\n");
+        }
+
+        AnimalImportResult result = animalBulkService.importNdjson(shelter.getId(), new StringReader(rows.toString()));
+
+        assertThat(result.getErrors()).isEmpty();
+        assertThat(result.getImported()).isEqualTo(60);
+        assertThat(animalRepository.countByShelterId(shelter.getId())).isEqualTo(60);
+    }
+
+    @Test
+    void appliesEveryMigrationToAnEmptyDatabase() {
+        assertThat(flyway.info().pending()).isEmpty();
+        assertThat(flyway.info().applied()).hasSameSizeAs(flyway.info().all());
+    }
+
+    @Test
+    void fullTextSearchRunsOnTheMigratedSchema() {
+        Animal biscuit = new Animal("Biscuit", Animal.Species.DOG, Animal.Gender.FEMALE, Animal.Size.MEDIUM, createShelter());
+        biscuit.setBreed("Beagle");
+        Animal animal = new TransactionTemplate(transactionManager).execute(status -> animalRepository.save(biscuit));
+
+        assertThat(animalRepository.fullTextSearchAvailableAnimalIds("beagle", PageRequest.of(0, 10)).getContent())
+            .contains(animal.getId());
+    }
+
+    private Shelter createShelter() {
+        Shelter shelter = new Shelter("Test Shelter", "1 Main Street", "City", "ST", "10000");
+        return new TransactionTemplate(transactionManager).execute(status -> shelterRepository.save(shelter));
+    }
+}
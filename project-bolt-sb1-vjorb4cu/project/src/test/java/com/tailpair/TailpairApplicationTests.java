@@ -0,0 +1,32 @@
+package com.tailpair;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Boots the full context, so a broken second-level cache configuration (ehcache.xml, cache regions) fails the build
+@SpringBootTest
+@ActiveProfiles("test")
+class TailpairApplicationTests {
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Test
+    void contextLoadsWithTheSecondLevelCache() {
+        SessionFactoryImplementor sessionFactory = entityManagerFactory.unwrap(SessionFactoryImplementor.class);
+
+        assertThat(sessionFactory.getSessionFactoryOptions().isSecondLevelCacheEnabled()).isTrue();
+        assertThat(sessionFactory.getSessionFactoryOptions().isQueryCacheEnabled()).isTrue();
+        for (String region : List.of("com.tailpair.entity.Shelter", "com.tailpair.entity.Animal", "com.tailpair.entity.Animal.imageUrls")) {
+            assertThat(sessionFactory.getCache().getRegion(region)).as(region).isNotNull();
+        }
+    }
+}
@@ -0,0 +1,214 @@
+package com.tailpair.config;
+
+import com.tailpair.entity.User;
+import com.tailpair.security.UserPrincipal;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManager;
+import org.hibernate.CacheMode;
+import org.hibernate.Session;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.orm.jpa.EntityManagerHolder;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionSynchronizationUtils;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+// Routing decisions of ReplicaRoutingDataSource against mocked pools; replicas report their lag through the
+// health check query, and the thread's transaction state is set up the way the transaction manager would
+class ReplicaRoutingDataSourceTest {
+
+    private static final long MAX_LAG_IN_MS = 5000;
+
+    private final Connection primaryConnection = mock(Connection.class);
+    private final Connection replicaConnection = mock(Connection.class);
+    private final HikariDataSource primary = mock(HikariDataSource.class);
+    private final HikariDataSource replica = mock(HikariDataSource.class);
+    private final Session session = mock(Session.class);
+    private final Object entityManagerFactory = new Object();
+
+    private ReplicaRoutingDataSource routingDataSource;
+    private SimpleMeterRegistry meterRegistry;
+    private double replicaLagInMs;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        when(primary.getConnection()).thenReturn(primaryConnection);
+        when(replica.getConnection()).thenReturn(replicaConnection);
+        when(replica.getPoolName()).thenReturn("replica-1");
+
+        Statement statement = mock(Statement.class);
+        ResultSet lag = mock(ResultSet.class);
+        when(replicaConnection.createStatement()).thenReturn(statement);
+        when(statement.executeQuery(anyString())).thenReturn(lag);
+        when(lag.next()).thenReturn(true);
+        when(lag.getDouble(1)).thenAnswer(invocation -> replicaLagInMs);
+
+        meterRegistry = new SimpleMeterRegistry();
+        routingDataSource = new ReplicaRoutingDataSource(primary, List.of(replica));
+        ReflectionTestUtils.setField(routingDataSource, "meterRegistry", meterRegistry);
+        ReflectionTestUtils.setField(routingDataSource, "maxLagInMs", MAX_LAG_IN_MS);
+        routingDataSource.init();
+
+        EntityManager entityManager = mock(EntityManager.class);
+        when(entityManager.unwrap(Session.class)).thenReturn(session);
+        TransactionSynchronizationManager.bindResource(entityManagerFactory, new EntityManagerHolder(entityManager));
+        TransactionSynchronizationManager.initSynchronization();
+        TransactionSynchronizationManager.setActualTransactionActive(true);
+    }
+
+    @AfterEach
+    void tearDown() {
+        TransactionSynchronizationUtils.invokeAfterCompletion(
+            TransactionSynchronizationManager.getSynchronizations(), TransactionSynchronization.STATUS_UNKNOWN);
+        TransactionSynchronizationManager.clear();
+        TransactionSynchronizationManager.unbindResource(entityManagerFactory);
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void readWriteTransactionsUseThePrimary() throws SQLException {
+        markReplicaHealthy();
+
+        assertThat(routingDataSource.getConnection()).isSameAs(primaryConnection);
+        verify(session).setCacheMode(CacheMode.NORMAL);
+    }
+
+    @Test
+    void readOnlyTransactionsUseAHealthyReplicaWithoutFillingTheSharedCache() throws SQLException {
+        markReplicaHealthy();
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+
+        assertThat(routingDataSource.getConnection()).isSameAs(replicaConnection);
+        verify(session).setCacheMode(CacheMode.GET);
+        assertThat(meterRegistry.get("tailpair.datasource.reads").tag("target", "replica").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void readOnlyTransactionsUseThePrimaryUntilTheReplicaPassesAHealthCheck() throws SQLException {
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+
+        assertThat(routingDataSource.getConnection()).isSameAs(primaryConnection);
+    }
+
+    @Test
+    void laggingReplicasAreSkipped() throws SQLException {
+        markReplicaHealthy();
+        replicaLagInMs = MAX_LAG_IN_MS + 1;
+        routingDataSource.checkReplicas();
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+
+        assertThat(routingDataSource.getConnection()).isSameAs(primaryConnection);
+        verify(session).setCacheMode(CacheMode.NORMAL);
+    }
+
+    @Test
+    void failingReplicasFallBackToThePrimary() throws SQLException {
+        markReplicaHealthy();
+        when(replica.getConnection()).thenThrow(new SQLException("connection refused"));
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+
+        assertThat(routingDataSource.getConnection()).isSameAs(primaryConnection);
+        assertThat(routingDataSource.getConnection()).isSameAs(primaryConnection);
+    }
+
+    @Test
+    void primaryOnlyScopesReadFromThePrimary() throws SQLException {
+        markReplicaHealthy();
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+
+        try (ReplicaRoutingDataSource.PrimaryScope scope = ReplicaRoutingDataSource.primaryOnly()) {
+            assertThat(routingDataSource.getConnection()).isSameAs(primaryConnection);
+        }
+        assertThat(routingDataSource.getConnection()).isSameAs(replicaConnection);
+    }
+
+    @Test
+    void usersReadTheirOwnWritesFromThePrimary() throws SQLException {
+        markReplicaHealthy();
+        signInAs(1L);
+        routingDataSource.getConnection();
+        ReplicaRoutingDataSource.recordWrite();
+        TransactionSynchronizationUtils.triggerAfterCommit();
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+
+        assertThat(routingDataSource.getConnection()).isSameAs(primaryConnection);
+        signInAs(2L);
+        assertThat(routingDataSource.getConnection()).isSameAs(replicaConnection);
+    }
+
+    @Test
+    void readWriteTransactionsThatWriteNothingDoNotPinTheUser() throws SQLException {
+        markReplicaHealthy();
+        signInAs(1L);
+        routingDataSource.getConnection();
+        TransactionSynchronizationUtils.triggerAfterCommit();
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+
+        assertThat(routingDataSource.getConnection()).isSameAs(replicaConnection);
+    }
+
+    @Test
+    void updatesSeenByTheStatementInspectorCountAsWrites() throws SQLException {
+        markReplicaHealthy();
+        signInAs(1L);
+        // Hibernate inspects a statement before it fetches the connection to run it on
+        new StatementCounter().inspect("update adoptions set status=? where id=?");
+        routingDataSource.getConnection();
+        TransactionSynchronizationUtils.triggerAfterCommit();
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+
+        assertThat(routingDataSource.getConnection()).isSameAs(primaryConnection);
+    }
+
+    @Test
+    void writesThatRollBackDoNotPinTheUser() throws SQLException {
+        markReplicaHealthy();
+        signInAs(1L);
+        routingDataSource.getConnection();
+        ReplicaRoutingDataSource.recordWrite();
+        TransactionSynchronizationUtils.invokeAfterCompletion(
+            TransactionSynchronizationManager.getSynchronizations(), TransactionSynchronization.STATUS_ROLLED_BACK);
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+
+        assertThat(routingDataSource.getConnection()).isSameAs(replicaConnection);
+    }
+
+    @Test
+    void connectionsWithExplicitCredentialsAreRoutedToo() throws SQLException {
+        markReplicaHealthy();
+        when(replica.getConnection("reporting", "secret")).thenReturn(replicaConnection);
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+
+        assertThat(routingDataSource.getConnection("reporting", "secret")).isSameAs(replicaConnection);
+    }
+
+    private void markReplicaHealthy() {
+        replicaLagInMs = 0;
+        routingDataSource.checkReplicas();
+    }
+
+    private static void signInAs(Long userId) {
+        User user = new User("user-" + userId, "user-" + userId + "@example.com", "password", "Test", "User");
+        user.setId(userId);
+        UserPrincipal principal = UserPrincipal.create(user);
+        SecurityContextHolder.getContext().setAuthentication(
+            new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities()));
+    }
+}
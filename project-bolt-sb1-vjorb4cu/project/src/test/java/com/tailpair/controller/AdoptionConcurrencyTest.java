@@ -0,0 +1,229 @@
+package com.tailpair.controller;
+
+import com.tailpair.entity.Adoption;
+import com.tailpair.entity.Animal;
+import com.tailpair.entity.Shelter;
+import com.tailpair.entity.User;
+import com.tailpair.repository.AdoptionRepository;
+import com.tailpair.repository.AnimalRepository;
+import com.tailpair.repository.ShelterRepository;
+import com.tailpair.repository.UserRepository;
+import com.tailpair.security.UserPrincipal;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.RequestBuilder;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// Races conflicting adoption requests and transitions through the API, released at the same moment by a latch.
+// Exactly one request may win; every other one must get 409 Conflict, and the animal's status must agree with
+// the adoption's afterwards.
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class AdoptionConcurrencyTest {
+
+    private static final int CONTENDERS = 8;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ShelterRepository shelterRepository;
+
+    @Autowired
+    private AnimalRepository animalRepository;
+
+    @Autowired
+    private AdoptionRepository adoptionRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private final ExecutorService workers = Executors.newFixedThreadPool(CONTENDERS);
+
+    @AfterEach
+    void tearDown() {
+        workers.shutdownNow();
+    }
+
+    @Test
+    void concurrentRequestsForOneAnimalHaveOneWinner() throws Exception {
+        User admin = createUser(User.Role.SHELTER_ADMIN);
+        Animal animal = createAnimal(createShelter(admin));
+        List<RequestBuilder> requests = new ArrayList<>();
+        for (int i = 0; i < CONTENDERS; i++) {
+            requests.add(post("/api/adoptions").param("animalId", animal.getId().toString())
+                .with(user(UserPrincipal.create(createUser(User.Role.ADOPTER)))));
+        }
+
+        assertOneWinner(race(requests));
+        assertThat(adoptionsOf(animal)).hasSize(1);
+        assertThat(statusOf(animal)).isEqualTo(Animal.Status.PENDING);
+    }
+
+    @Test
+    void approveAndRejectOfOnePendingAdoptionHaveOneWinner() throws Exception {
+        User admin = createUser(User.Role.SHELTER_ADMIN);
+        Shelter shelter = createShelter(admin);
+        Adoption adoption = createAdoption(createAnimal(shelter), Adoption.Status.PENDING);
+        UserPrincipal principal = UserPrincipal.create(admin);
+        List<RequestBuilder> requests = new ArrayList<>();
+        for (int i = 0; i < CONTENDERS / 2; i++) {
+            requests.add(put("/api/adoptions/" + adoption.getId() + "/approve")
+                .param("shelterId", shelter.getId().toString())
+                .with(user(principal)));
+            requests.add(put("/api/adoptions/" + adoption.getId() + "/reject")
+                .param("shelterId", shelter.getId().toString())
+                .param("rejectionReason", "Not a good fit")
+                .with(user(principal)));
+        }
+
+        assertOneWinner(race(requests));
+        Adoption.Status status = statusOf(adoption);
+        assertThat(status).isIn(Adoption.Status.APPROVED, Adoption.Status.REJECTED);
+        assertThat(statusOf(adoption.getAnimal()))
+            .isEqualTo(status == Adoption.Status.APPROVED ? Animal.Status.PENDING : Animal.Status.AVAILABLE);
+    }
+
+    @Test
+    void completeAndCancelOfOneApprovedAdoptionHaveOneWinner() throws Exception {
+        User admin = createUser(User.Role.SHELTER_ADMIN);
+        Shelter shelter = createShelter(admin);
+        Adoption adoption = createAdoption(createAnimal(shelter), Adoption.Status.APPROVED);
+        List<RequestBuilder> requests = new ArrayList<>();
+        for (int i = 0; i < CONTENDERS / 2; i++) {
+            requests.add(put("/api/adoptions/" + adoption.getId() + "/complete")
+                .param("shelterId", shelter.getId().toString())
+                .with(user(UserPrincipal.create(admin))));
+            requests.add(put("/api/adoptions/" + adoption.getId() + "/cancel")
+                .with(user(UserPrincipal.create(adoption.getAdopter()))));
+        }
+
+        assertOneWinner(race(requests));
+        Adoption.Status status = statusOf(adoption);
+        assertThat(status).isIn(Adoption.Status.COMPLETED, Adoption.Status.CANCELLED);
+        assertThat(statusOf(adoption.getAnimal()))
+            .isEqualTo(status == Adoption.Status.COMPLETED ? Animal.Status.ADOPTED : Animal.Status.AVAILABLE);
+    }
+
+    @Test
+    void transitionsOfAnotherSheltersAdoptionAreForbidden() throws Exception {
+        Shelter shelter = createShelter(createUser(User.Role.SHELTER_ADMIN));
+        Adoption adoption = createAdoption(createAnimal(shelter), Adoption.Status.PENDING);
+        User otherAdmin = createUser(User.Role.SHELTER_ADMIN);
+        Shelter otherShelter = createShelter(otherAdmin);
+
+        mockMvc.perform(put("/api/adoptions/" + adoption.getId() + "/approve")
+                .param("shelterId", otherShelter.getId().toString())
+                .with(user(UserPrincipal.create(otherAdmin))))
+            .andExpect(status().isForbidden());
+        assertThat(statusOf(adoption)).isEqualTo(Adoption.Status.PENDING);
+    }
+
+    // Sends every request from its own thread once all of them are ready; returns the HTTP statuses
+    private List<Integer> race(List<RequestBuilder> requests) throws Exception {
+        CountDownLatch ready = new CountDownLatch(requests.size());
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Integer>> futures = new ArrayList<>();
+        for (RequestBuilder request : requests) {
+            futures.add(workers.submit((Callable<Integer>) () -> {
+                ready.countDown();
+                start.await();
+                return mockMvc.perform(request).andReturn().getResponse().getStatus();
+            }));
+        }
+        assertThat(ready.await(10, TimeUnit.SECONDS)).isTrue();
+        start.countDown();
+
+        List<Integer> statuses = new ArrayList<>();
+        for (Future<Integer> future : futures) {
+            statuses.add(future.get(30, TimeUnit.SECONDS));
+        }
+        return statuses;
+    }
+
+    private static void assertOneWinner(List<Integer> statuses) {
+        assertThat(statuses).filteredOn(status -> status == 200).hasSize(1);
+        assertThat(statuses).filteredOn(status -> status != 200).containsOnly(409);
+    }
+
+    private List<Adoption> adoptionsOf(Animal animal) {
+        return inTransaction(() -> adoptionRepository.findByAnimalId(animal.getId(), Pageable.unpaged()).getContent());
+    }
+
+    // Bypasses the second-level cache so the committed state is read
+    private Animal.Status statusOf(Animal animal) {
+        entityManagerFactory.getCache().evictAll();
+        return inTransaction(() -> animalRepository.findById(animal.getId()).orElseThrow().getStatus());
+    }
+
+    private Adoption.Status statusOf(Adoption adoption) {
+        entityManagerFactory.getCache().evictAll();
+        return inTransaction(() -> adoptionRepository.findById(adoption.getId()).orElseThrow().getStatus());
+    }
+
+    private User createUser(User.Role role) {
+        String name = "user-" + UUID.randomUUID().toString().substring(0, 8);
+        User user = new User(name, name + "@example.com", "password", "Test", "User");
+        user.setRole(role);
+        return inTransaction(() -> userRepository.save(user));
+    }
+
+    private Shelter createShelter(User admin) {
+        Shelter shelter = new Shelter("Test Shelter", "1 Main Street", "City", "ST", "10000");
+        shelter.setAdmin(admin);
+        return inTransaction(() -> shelterRepository.save(shelter));
+    }
+
+    private Animal createAnimal(Shelter shelter) {
+        Animal animal = new Animal("Pet", Animal.Species.DOG, Animal.Gender.FEMALE, Animal.Size.MEDIUM, shelter);
+        return inTransaction(() -> animalRepository.save(animal));
+    }
+
+    // The animal is held (PENDING) while the adoption is pending or approved, as createAdoptionRequest leaves it
+    private Adoption createAdoption(Animal animal, Adoption.Status status) {
+        User adopter = createUser(User.Role.ADOPTER);
+        return inTransaction(() -> {
+            Animal held = animalRepository.findById(animal.getId()).orElseThrow();
+            held.setStatus(Animal.Status.PENDING);
+            Adoption adoption = new Adoption(adopter, held);
+            adoption.setStatus(status);
+            return adoptionRepository.save(adoption);
+        });
+    }
+
+    private <T> T inTransaction(Supplier<T> work) {
+        return new TransactionTemplate(transactionManager).execute(status -> work.get());
+    }
+}
@@ -0,0 +1,219 @@
+package com.tailpair.controller;
+
+import com.tailpair.config.StatementCounter;
+import com.tailpair.entity.Adoption;
+import com.tailpair.entity.Animal;
+import com.tailpair.entity.Message;
+import com.tailpair.entity.Notification;
+import com.tailpair.entity.Shelter;
+import com.tailpair.entity.User;
+import com.tailpair.repository.AdoptionRepository;
+import com.tailpair.repository.AnimalRepository;
+import com.tailpair.repository.MessageRepository;
+import com.tailpair.repository.NotificationRepository;
+import com.tailpair.repository.ShelterRepository;
+import com.tailpair.repository.UserRepository;
+import com.tailpair.security.JwtTokenProvider;
+import com.tailpair.security.UserPrincipal;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// Statement counts of the list endpoints, read from StatementCounter (which StatementMetricsFilter resets at the
+// start of each request). Each endpoint is called for a user with a few rows and a user with many; the count must
+// not grow with the page, which is what an N+1 over images, animals, shelters or users would do.
+// Requests carry a real bearer token, as clients send it, so they skip ResponseCacheFilter's shared cache and
+// go through the whole filter chain. The H2 schema comes from the entities, so the PostgreSQL-only native
+// queries (full-text search, bulk import) are not exercised here.
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class StatementCountTest {
+
+    private static final int FEW = 2;
+    private static final int MANY = 20;
+
+    // Page query, count query and one batch fetch per association, with room for security and favorites lookups
+    private static final int MAX_STATEMENTS = 12;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ShelterRepository shelterRepository;
+
+    @Autowired
+    private AnimalRepository animalRepository;
+
+    @Autowired
+    private AdoptionRepository adoptionRepository;
+
+    @Autowired
+    private MessageRepository messageRepository;
+
+    @Autowired
+    private NotificationRepository notificationRepository;
+
+    @Autowired
+    private JwtTokenProvider jwtTokenProvider;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    void availableAnimalsIssueAFixedNumberOfStatements() throws Exception {
+        User adopter = createUser(User.Role.ADOPTER);
+        Shelter shelter = createShelter(null);
+        createAnimals(shelter, FEW);
+        int few = statementsFor("/api/animals/available?size=" + (FEW + MANY) * 10, adopter);
+
+        createAnimals(shelter, MANY);
+        int many = statementsFor("/api/animals/available?size=" + (FEW + MANY) * 10, adopter);
+
+        assertThat(many).isEqualTo(few).isLessThanOrEqualTo(MAX_STATEMENTS);
+    }
+
+    @Test
+    void adoptionListsIssueAFixedNumberOfStatements() throws Exception {
+        User admin = createUser(User.Role.SHELTER_ADMIN);
+        Shelter fewShelter = createShelter(admin);
+        Shelter manyShelter = createShelter(admin);
+        User fewAdopter = createUser(User.Role.ADOPTER);
+        User manyAdopter = createUser(User.Role.ADOPTER);
+        createAdoptions(fewAdopter, createAnimals(fewShelter, FEW));
+        createAdoptions(manyAdopter, createAnimals(manyShelter, MANY));
+
+        assertThat(statementsFor("/api/adoptions/user?size=50", manyAdopter))
+            .isEqualTo(statementsFor("/api/adoptions/user?size=50", fewAdopter))
+            .isLessThanOrEqualTo(MAX_STATEMENTS);
+        assertThat(statementsFor("/api/adoptions/shelter/" + manyShelter.getId() + "?size=50", admin))
+            .isEqualTo(statementsFor("/api/adoptions/shelter/" + fewShelter.getId() + "?size=50", admin))
+            .isLessThanOrEqualTo(MAX_STATEMENTS);
+    }
+
+    @Test
+    void messageListsIssueAFixedNumberOfStatements() throws Exception {
+        Shelter shelter = createShelter(null);
+        List<Animal> animals = createAnimals(shelter, MANY);
+        User fewUser = createUser(User.Role.ADOPTER);
+        User manyUser = createUser(User.Role.ADOPTER);
+        createMessages(fewUser, animals.subList(0, FEW));
+        createMessages(manyUser, animals);
+
+        for (String path : List.of("/api/messages/user", "/api/messages/received", "/api/messages/sent")) {
+            assertThat(statementsFor(path + "?size=50", manyUser))
+                .as(path)
+                .isEqualTo(statementsFor(path + "?size=50", fewUser))
+                .isLessThanOrEqualTo(MAX_STATEMENTS);
+        }
+    }
+
+    @Test
+    void notificationListIssuesAFixedNumberOfStatements() throws Exception {
+        User fewUser = createUser(User.Role.ADOPTER);
+        User manyUser = createUser(User.Role.ADOPTER);
+        createNotifications(fewUser, FEW);
+        createNotifications(manyUser, MANY);
+
+        assertThat(statementsFor("/api/notifications/user?size=50", manyUser))
+            .isEqualTo(statementsFor("/api/notifications/user?size=50", fewUser))
+            .isLessThanOrEqualTo(MAX_STATEMENTS);
+    }
+
+    // Starts from an empty second-level cache so both calls pay for the same lookups
+    private int statementsFor(String path, User caller) throws Exception {
+        entityManagerFactory.getCache().evictAll();
+        mockMvc.perform(get(path).header(HttpHeaders.AUTHORIZATION, "Bearer " + tokenFor(caller)))
+            .andExpect(status().isOk());
+        return StatementCounter.count();
+    }
+
+    private String tokenFor(User user) {
+        UserPrincipal principal = UserPrincipal.create(user);
+        return jwtTokenProvider.generateToken(
+            new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities()));
+    }
+
+    private User createUser(User.Role role) {
+        String name = "user-" + UUID.randomUUID().toString().substring(0, 8);
+        User user = new User(name, name + "@example.com", "password", "Test", "User");
+        user.setRole(role);
+        return inTransaction(() -> userRepository.save(user));
+    }
+
+    private Shelter createShelter(User admin) {
+        Shelter shelter = new Shelter("Test Shelter", "1 Main Street", "City", "ST", "10000");
+        shelter.setAdmin(admin);
+        return inTransaction(() -> shelterRepository.save(shelter));
+    }
+
+    private List<Animal> createAnimals(Shelter shelter, int count) {
+        List<Animal> animals = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            Animal animal = new Animal("Pet " + i, Animal.Species.DOG, Animal.Gender.FEMALE, Animal.Size.MEDIUM, shelter);
+            animal.setBreed("Mixed");
+            animal.setAge(3);
+            animal.setAdoptionFee(BigDecimal.valueOf(120));
+            animal.getImageUrls().add("https://images.example.com/" + UUID.randomUUID() + ".jpg");
+            animal.getImageUrls().add("https://images.example.com/" + UUID.randomUUID() + ".jpg");
+            animals.add(animal);
+        }
+        return inTransaction(() -> animalRepository.saveAll(animals));
+    }
+
+    private void createAdoptions(User adopter, List<Animal> animals) {
+        inTransaction(() -> adoptionRepository.saveAll(
+            animals.stream().map(animal -> new Adoption(adopter, animal)).toList()));
+    }
+
+    // One message from the user and one to them per animal, each with the shelter's admin as the other party
+    private void createMessages(User user, List<Animal> animals) {
+        User other = createUser(User.Role.SHELTER_ADMIN);
+        List<Message> messages = new ArrayList<>();
+        for (Animal animal : animals) {
+            Message sent = new Message("About " + animal.getName(), "Is she still available?", user, other);
+            sent.setAnimal(animal);
+            Message received = new Message("Re: About " + animal.getName(), "She is.", other, user);
+            received.setAnimal(animal);
+            messages.add(sent);
+            messages.add(received);
+        }
+        inTransaction(() -> messageRepository.saveAll(messages));
+    }
+
+    private void createNotifications(User user, int count) {
+        List<Notification> notifications = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            notifications.add(new Notification("Notification " + i, "Something happened", Notification.Type.SYSTEM_NOTIFICATION, user));
+        }
+        inTransaction(() -> notificationRepository.saveAll(notifications));
+    }
+
+    private <T> T inTransaction(Supplier<T> work) {
+        return new TransactionTemplate(transactionManager).execute(status -> work.get());
+    }
+}
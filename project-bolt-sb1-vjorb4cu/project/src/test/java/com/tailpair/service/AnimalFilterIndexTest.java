@@ -0,0 +1,96 @@
+package com.tailpair.service;
+
+import com.tailpair.entity.Animal;
+import com.tailpair.repository.AnimalRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Sort;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+// Paging order and upkeep of AnimalFilterIndex. Outside a transaction, update() and remove() apply at once.
+class AnimalFilterIndexTest {
+
+    private static final LocalDateTime START = LocalDateTime.of(2024, 1, 1, 12, 0);
+
+    private final AnimalRepository animalRepository = mock(AnimalRepository.class);
+    private final List<Object[]> availableRows = new ArrayList<>();
+
+    private AnimalFilterIndex index;
+
+    @BeforeEach
+    void setUp() {
+        when(animalRepository.findAvailableFilterAttributes()).thenReturn(availableRows);
+        index = new AnimalFilterIndex();
+        ReflectionTestUtils.setField(index, "animalRepository", animalRepository);
+    }
+
+    @Test
+    void pagesAreNewestFirstWhateverOrderTheIdsArrive() {
+        availableRows.add(row(10L, Animal.Species.DOG, 3));
+        availableRows.add(row(5L, Animal.Species.DOG, 1));
+        availableRows.add(row(7L, Animal.Species.CAT, 2));
+        index.rebuild();
+        // An id from another instance's sequence block, lower than the rest but created last
+        index.update(animal(3L, Animal.Species.DOG, 4, Animal.Status.AVAILABLE));
+
+        assertThat(page(null, 0, 2).getIds()).containsExactly(3L, 10L);
+        assertThat(page(null, 2, 2).getIds()).containsExactly(7L, 5L);
+        assertThat(page(null, 4, 2).getIds()).isEmpty();
+        assertThat(page(Animal.Species.DOG, 0, 10).getIds()).containsExactly(3L, 10L, 5L);
+        assertThat(page(Animal.Species.DOG, 0, 10).getTotal()).isEqualTo(3);
+    }
+
+    @Test
+    void animalsLeaveAndReturnToTheIndexWithTheirStatus() {
+        availableRows.add(row(1L, Animal.Species.DOG, 1));
+        availableRows.add(row(2L, Animal.Species.DOG, 2));
+        index.rebuild();
+
+        index.update(animal(2L, Animal.Species.DOG, 2, Animal.Status.PENDING));
+        assertThat(page(null, 0, 10).getIds()).containsExactly(1L);
+
+        index.update(animal(2L, Animal.Species.DOG, 2, Animal.Status.AVAILABLE));
+        index.remove(1L);
+        assertThat(page(null, 0, 10).getIds()).containsExactly(2L);
+        assertThat(page(null, 0, 10).getFacets().get("species")).containsEntry("DOG", 1L);
+    }
+
+    @Test
+    void onlyTheNewestFirstOrderIsServedFromTheIndex() {
+        assertThat(index.supports(Sort.unsorted())).isTrue();
+        assertThat(index.supports(AnimalFilterIndex.NEWEST_FIRST)).isTrue();
+        assertThat(index.supports(Sort.by(Sort.Direction.DESC, "createdAt"))).isTrue();
+        assertThat(index.supports(Sort.by("name"))).isFalse();
+        assertThat(index.supports(Sort.by(Sort.Direction.ASC, "createdAt"))).isFalse();
+    }
+
+    private AnimalFilterIndex.Result page(Animal.Species species, long offset, int limit) {
+        return index.filter(species, null, null, null, null, null, null, null, offset, limit);
+    }
+
+    private static Object[] row(Long id, Animal.Species species, int createdMinute) {
+        return new Object[] {
+            id, species, Animal.Size.MEDIUM, Animal.Gender.FEMALE, 3, true, true, true, START.plusMinutes(createdMinute)
+        };
+    }
+
+    private static Animal animal(Long id, Animal.Species species, int createdMinute, Animal.Status status) {
+        Animal animal = new Animal("Pet " + id, species, Animal.Gender.FEMALE, Animal.Size.MEDIUM, null);
+        animal.setId(id);
+        animal.setAge(3);
+        animal.setStatus(status);
+        animal.setGoodWithKids(true);
+        animal.setGoodWithPets(true);
+        animal.setHouseTrained(true);
+        animal.setCreatedAt(START.plusMinutes(createdMinute));
+        return animal;
+    }
+}
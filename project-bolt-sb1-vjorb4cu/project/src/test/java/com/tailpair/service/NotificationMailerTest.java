@@ -0,0 +1,116 @@
+package com.tailpair.service;
+
+import com.icegreen.greenmail.junit5.GreenMailExtension;
+import com.icegreen.greenmail.util.GreenMailUtil;
+import com.icegreen.greenmail.util.ServerSetupTest;
+import com.tailpair.entity.Notification;
+import com.tailpair.entity.User;
+import com.tailpair.repository.UserRepository;
+import jakarta.mail.MessagingException;
+import jakarta.mail.internet.MimeMessage;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Sends notification digests to an embedded SMTP server. The scheduled flush is pushed out of the way and
+// flush() is called directly, so each test sees exactly the digests for what it queued.
+@SpringBootTest(properties = {
+    "app.mail.enabled=true",
+    "app.mail.flush-interval=3600000",
+    "app.mail.max-items-per-digest=3",
+    "spring.mail.host=localhost",
+    "spring.mail.port=3025",
+    "spring.mail.username=",
+    "spring.mail.password=",
+    "spring.mail.properties.mail.smtp.auth=false",
+    "spring.mail.properties.mail.smtp.starttls.enable=false"
+})
+@ActiveProfiles("test")
+class NotificationMailerTest {
+
+    @RegisterExtension
+    static final GreenMailExtension greenMail = new GreenMailExtension(ServerSetupTest.SMTP);
+
+    @Autowired
+    private NotificationMailer notificationMailer;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    void sendsOneDigestPerUserAfterCommit() throws Exception {
+        User single = createUser(true);
+        User several = createUser(true);
+        enqueueInTransaction(single, 1, false);
+        enqueueInTransaction(several, 5, false);
+
+        notificationMailer.flush();
+
+        MimeMessage[] received = greenMail.getReceivedMessages();
+        assertThat(received).hasSize(2);
+        MimeMessage toSingle = to(received, single);
+        assertThat(toSingle.getSubject()).isEqualTo("Notification 0");
+        assertThat(GreenMailUtil.getBody(toSingle)).contains("Hi " + single.getFirstName());
+
+        MimeMessage toSeveral = to(received, several);
+        assertThat(toSeveral.getSubject()).isEqualTo("You have 5 new notifications on TailPair");
+        assertThat(GreenMailUtil.getBody(toSeveral))
+            .contains("Notification 0", "Notification 2")
+            .doesNotContain("Notification 3")
+            .contains("and 2 more");
+    }
+
+    @Test
+    void skipsRolledBackNotificationsAndDisabledUsers() {
+        User rolledBack = createUser(true);
+        User disabled = createUser(false);
+        enqueueInTransaction(rolledBack, 2, true);
+        enqueueInTransaction(disabled, 2, false);
+
+        notificationMailer.flush();
+
+        assertThat(greenMail.getReceivedMessages()).isEmpty();
+    }
+
+    private void enqueueInTransaction(User user, int count, boolean rollback) {
+        List<Notification> notifications = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            notifications.add(new Notification("Notification " + i, "Something happened", Notification.Type.SYSTEM_NOTIFICATION, user));
+        }
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            notificationMailer.enqueueAfterCommit(notifications);
+            if (rollback) {
+                status.setRollbackOnly();
+            }
+        });
+    }
+
+    private static MimeMessage to(MimeMessage[] messages, User user) throws MessagingException {
+        for (MimeMessage message : messages) {
+            if (GreenMailUtil.getAddressList(message.getAllRecipients()).contains(user.getEmail())) {
+                return message;
+            }
+        }
+        throw new AssertionError("No digest sent to " + user.getEmail());
+    }
+
+    private User createUser(boolean enabled) {
+        String name = "user-" + UUID.randomUUID().toString().substring(0, 8);
+        User user = new User(name, name + "@example.com", "password", "Test", "User");
+        user.setEnabled(enabled);
+        return new TransactionTemplate(transactionManager).execute(status -> userRepository.save(user));
+    }
+}
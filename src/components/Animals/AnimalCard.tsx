@@ -1,13 +1,13 @@
 import React, { useState } from 'react';
 import { Link } from 'react-router-dom';
 import { Heart, MapPin, Calendar, DollarSign } from 'lucide-react';
-import { Animal } from '../../types';
+import { AnimalSummary } from '../../types';
 import { favoriteApi } from '../../services/api';
 import { useAuth } from '../../context/AuthContext';
 import toast from 'react-hot-toast';
 
 interface AnimalCardProps {
-  animal: Animal;
+  animal: AnimalSummary;
   onFavoriteChange?: () => void;
 }
 
@@ -59,7 +59,7 @@ const AnimalCard: React.FC<AnimalCardProps> = ({ animal, onFavoriteChange }) =>
   };
 
   const defaultImage = `https://images.pexels.com/photos/1108099/pexels-photo-1108099.jpeg?auto=compress&cs=tinysrgb&w=400`;
-  const imageUrl = animal.imageUrls && animal.imageUrls.length > 0 ? animal.imageUrls[0] : defaultImage;
+  const imageUrl = animal.imageUrl || defaultImage;
 
   return (
     <Link to={`/animals/${animal.id}`} className="block">
@@ -1,7 +1,7 @@
 import React, { useState, useEffect } from 'react';
 import { useSearchParams } from 'react-router-dom';
 import { animalApi } from '../../services/api';
-import { Animal, ApiResponse } from '../../types';
+import { AnimalSummary, ApiResponse } from '../../types';
 import AnimalCard from '../../components/Animals/AnimalCard';
 import AnimalFilters from '../../components/Animals/AnimalFilters';
 import LoadingSpinner from '../../components/Common/LoadingSpinner';
@@ -23,7 +23,7 @@ interface FilterState {
 
 const AnimalList: React.FC = () => {
   const [searchParams, setSearchParams] = useSearchParams();
-  const [animals, setAnimals] = useState<Animal[]>([]);
+  const [animals, setAnimals] = useState<AnimalSummary[]>([]);
   const [loading, setLoading] = useState(true);
   const [currentPage, setCurrentPage] = useState(0);
   const [totalPages, setTotalPages] = useState(0);
@@ -44,7 +44,7 @@ const AnimalList: React.FC = () => {
   const fetchAnimals = async (page = 0) => {
     setLoading(true);
     try {
-      let response: ApiResponse<Animal>;
+      let response: ApiResponse<AnimalSummary>;
 
       if (searchQuery.trim()) {
         response = await animalApi.searchAnimals(searchQuery.trim(), page);
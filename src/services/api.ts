@@ -1,5 +1,5 @@
 import axios from 'axios';
-import { AuthResponse, LoginRequest, RegisterRequest, User, Animal, Shelter, Adoption, Message, Notification, ApiResponse } from '../types';
+import { AuthResponse, LoginRequest, RegisterRequest, User, Animal, AnimalSummary, Shelter, Adoption, Message, Notification, ApiResponse } from '../types';
 
 const API_BASE_URL = 'http://localhost:8080/api';
 
@@ -58,16 +58,16 @@ export const userApi = {
 
 // Animal API
 export const animalApi = {
-  getAvailableAnimals: (page = 0, size = 12): Promise<ApiResponse<Animal>> =>
+  getAvailableAnimals: (page = 0, size = 12): Promise<ApiResponse<AnimalSummary>> =>
     api.get(`/animals/available?page=${page}&size=${size}`).then(res => res.data),
   
   getAnimalById: (id: number): Promise<Animal> =>
     api.get(`/animals/${id}`).then(res => res.data),
   
-  searchAnimals: (query: string, page = 0, size = 12): Promise<ApiResponse<Animal>> =>
+  searchAnimals: (query: string, page = 0, size = 12): Promise<ApiResponse<AnimalSummary>> =>
     api.get(`/animals/search?q=${query}&page=${page}&size=${size}`).then(res => res.data),
   
-  filterAnimals: (filters: any, page = 0, size = 12): Promise<ApiResponse<Animal>> => {
+  filterAnimals: (filters: any, page = 0, size = 12): Promise<ApiResponse<AnimalSummary>> => {
     const params = new URLSearchParams({ page: page.toString(), size: size.toString() });
     Object.entries(filters).forEach(([key, value]) => {
       if (value !== null && value !== undefined && value !== '') {
@@ -86,7 +86,7 @@ export const animalApi = {
   deleteAnimal: (id: number): Promise<void> =>
     api.delete(`/animals/${id}`).then(res => res.data),
   
-  getAnimalsByShelterId: (shelterId: number, page = 0, size = 12): Promise<ApiResponse<Animal>> =>
+  getAnimalsByShelterId: (shelterId: number, page = 0, size = 12): Promise<ApiResponse<AnimalSummary>> =>
     api.get(`/animals/shelter/${shelterId}?page=${page}&size=${size}`).then(res => res.data),
 };
 
@@ -146,7 +146,7 @@ export const favoriteApi = {
   removeFromFavorites: (animalId: number): Promise<void> =>
     api.delete(`/favorites/animal/${animalId}`).then(res => res.data),
   
-  getFavoriteAnimals: (page = 0, size = 12): Promise<ApiResponse<Animal>> =>
+  getFavoriteAnimals: (page = 0, size = 12): Promise<ApiResponse<AnimalSummary>> =>
     api.get(`/favorites?page=${page}&size=${size}`).then(res => res.data),
   
   isFavorited: (animalId: number): Promise<boolean> =>
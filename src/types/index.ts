@@ -42,6 +42,30 @@ export interface Animal {
   isFavorited?: boolean;
 }
 
+// Card view returned by the list endpoints (available, search, filter, shelter, favorites)
+export interface AnimalSummary {
+  id: number;
+  name: string;
+  species: Animal['species'];
+  breed?: string;
+  age: number;
+  gender: Animal['gender'];
+  size: Animal['size'];
+  status: Animal['status'];
+  adoptionFee: number;
+  description?: string;
+  vaccinated: boolean;
+  spayedNeutered: boolean;
+  houseTrained: boolean;
+  goodWithKids: boolean;
+  imageUrl?: string;
+  createdAt: string;
+  shelterId: number;
+  shelterName: string;
+  isFavorited?: boolean;
+  distanceMiles?: number;
+}
+
 export interface Shelter {
   id: number;
   name: string;